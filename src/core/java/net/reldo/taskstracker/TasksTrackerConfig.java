@@ -4,10 +4,14 @@ import net.reldo.taskstracker.config.ConfigValues;
 import net.runelite.client.config.Config;
 import net.runelite.client.config.ConfigGroup;
 import net.runelite.client.config.ConfigItem;
+import net.runelite.client.config.Range;
+import net.runelite.client.config.Units;
 
-@ConfigGroup(TasksTrackerPlugin.CONFIG_GROUP_NAME)
+@ConfigGroup(TasksTrackerConfig.CONFIG_GROUP_NAME)
 public interface TasksTrackerConfig extends Config
 {
+	String CONFIG_GROUP_NAME = "tasks-tracker";
+
 	@ConfigItem(
 		position = 10,
 		keyName = "untrackUponCompletion",
@@ -42,6 +46,61 @@ public interface TasksTrackerConfig extends Config
         return true;
     }
 
+	@Range(
+		min = 1,
+		max = 20
+	)
+	@Units(Units.MILLISECONDS)
+	@ConfigItem(
+		position = 13,
+		keyName = "clientThreadBudgetMs",
+		name = "Client Thread Budget",
+		description = "Maximum time per client tick the plugin spends on game thread work. Remaining work continues on later ticks."
+	)
+	default int clientThreadBudgetMs()
+	{
+		return 2;
+	}
+
+	@ConfigItem(
+		position = 14,
+		keyName = "exportDestination",
+		name = "Export Destination",
+		description = "Where the Export button writes task data. Files are written to .runelite/tasks-tracker/exports."
+	)
+	default ConfigValues.ExportDestinations exportDestination()
+	{
+		return ConfigValues.ExportDestinations.CLIPBOARD;
+	}
+
+	@Range(
+		max = 10
+	)
+	@ConfigItem(
+		position = 15,
+		keyName = "plannerRarityWeight",
+		name = "Planner Rarity Weight",
+		description = "How strongly the points planner avoids tasks few players have completed."
+	)
+	default int plannerRarityWeight()
+	{
+		return 5;
+	}
+
+	@Range(
+		max = 10
+	)
+	@ConfigItem(
+		position = 16,
+		keyName = "plannerSkillGapWeight",
+		name = "Planner Skill Gap Weight",
+		description = "How strongly the points planner avoids tasks with skill requirements above your levels."
+	)
+	default int plannerSkillGapWeight()
+	{
+		return 3;
+	}
+
     @ConfigItem(
             position = 100,
             keyName = "completedFilter",
@@ -137,4 +196,16 @@ public interface TasksTrackerConfig extends Config
     {
         return ConfigValues.SortDirections.ASCENDING;
     }
+
+    @ConfigItem(
+            position = 112,
+            keyName = "groupBy",
+            name = "Group By",
+            description = "Configures the filter param the task list is grouped by, empty for no groups.",
+            hidden = true
+    )
+    default String groupBy()
+    {
+        return "";
+    }
 }
@@ -37,4 +37,11 @@ public class ConfigValues {
         DESCENDING;
     }
 
+    public enum ExportDestinations
+    {
+        CLIPBOARD,
+        FILE,
+        COMPRESSED_FILE;
+    }
+
 }
@@ -0,0 +1,94 @@
+package net.reldo.taskstracker.data;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.annotations.Expose;
+import java.util.Map;
+import java.util.Objects;
+import lombok.Getter;
+
+/**
+ * The changes between two exports of a task type. Keyed sections (tasks, varps, varbits, quests, diaries) only
+ * list the entries that were added or changed, with removed keys under {@code removed}; other fields are only
+ * present when they changed. A field the base has but the new export leaves out is {@code true} under
+ * {@code removed}. {@code baseHash} identifies the export the changes apply to and {@code hash} the
+ * export they produce, each the SHA-256 of the full export json.
+ */
+@Getter
+public class DeltaExport
+{
+	@Expose private final String baseHash;
+	@Expose private final String hash;
+	@Expose private final String taskType;
+	@Expose private final long timestamp;
+	@Expose private final JsonObject changed = new JsonObject();
+	@Expose private final JsonObject removed = new JsonObject();
+	private int changeCount;
+
+	public DeltaExport(JsonObject base, String baseHash, JsonObject current, String hash)
+	{
+		this.baseHash = baseHash;
+		this.hash = hash;
+		this.taskType = current.get("taskType").getAsString();
+		this.timestamp = current.get("timestamp").getAsLong();
+
+		for (Map.Entry<String, JsonElement> field : current.entrySet())
+		{
+			String name = field.getKey();
+			if (name.equals("timestamp"))
+			{
+				continue;
+			}
+			JsonElement baseValue = base.get(name);
+			if (field.getValue().isJsonObject() && baseValue != null && baseValue.isJsonObject())
+			{
+				diffSection(name, baseValue.getAsJsonObject(), field.getValue().getAsJsonObject());
+			}
+			else if (!Objects.equals(baseValue, field.getValue()))
+			{
+				changed.add(name, field.getValue());
+				changeCount++;
+			}
+		}
+		// Gson leaves null fields out of an export, so a field that became null is only missing from the new one
+		for (String name : base.keySet())
+		{
+			if (!current.has(name))
+			{
+				removed.addProperty(name, true);
+				changeCount++;
+			}
+		}
+	}
+
+	private void diffSection(String name, JsonObject base, JsonObject current)
+	{
+		JsonObject changedEntries = new JsonObject();
+		for (Map.Entry<String, JsonElement> entry : current.entrySet())
+		{
+			if (!entry.getValue().equals(base.get(entry.getKey())))
+			{
+				changedEntries.add(entry.getKey(), entry.getValue());
+			}
+		}
+		JsonArray removedKeys = new JsonArray();
+		for (String key : base.keySet())
+		{
+			if (!current.has(key))
+			{
+				removedKeys.add(key);
+			}
+		}
+
+		if (changedEntries.size() > 0)
+		{
+			changed.add(name, changedEntries);
+		}
+		if (removedKeys.size() > 0)
+		{
+			removed.add(name, removedKeys);
+		}
+		changeCount += changedEntries.size() + removedKeys.size();
+	}
+}
@@ -0,0 +1,59 @@
+package net.reldo.taskstracker.data;
+
+import com.google.gson.annotations.Expose;
+import java.util.HashMap;
+import java.util.List;
+import lombok.Getter;
+import net.reldo.taskstracker.data.task.ConfigTaskSave;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskType;
+import net.reldo.taskstracker.quests.DiaryData;
+import net.reldo.taskstracker.quests.QuestData;
+import net.runelite.api.Client;
+
+@Getter
+public class Export
+{
+	@Expose	private final QuestData quests;
+	@Expose	private final DiaryData diaries;
+	@Expose	private String displayName;
+	@Expose	private final int runescapeVersion;
+	@Expose	private final String runeliteVersion;
+	@Expose	private final long timestamp;
+	@Expose	private final String taskType;
+	@Expose	private final HashMap<Integer, Integer> varbits;
+	@Expose	private final HashMap<Integer, Integer> varps;
+	@Expose	private final HashMap<String, ConfigTaskSave> tasks;
+
+	public Export(TaskType taskType, List<TaskFromStruct> tasks, String runeliteVersion, Client client)
+	{
+		this(ExportSnapshot.capture(taskType, tasks, client), runeliteVersion);
+	}
+
+	/**
+	 * Build an export from client state captured earlier. Does not touch the client, so may run on any thread.
+	 */
+	public Export(ExportSnapshot snapshot, String runeliteVersion)
+	{
+		displayName = snapshot.getDisplayName();
+		quests = new QuestData(snapshot.getQuestIds(), snapshot.getQuestStates());
+		diaries = new DiaryData(snapshot.getDiaryIds(), snapshot.getDiaryValues());
+		runescapeVersion = snapshot.getRevision();
+		this.runeliteVersion = runeliteVersion;
+		timestamp = snapshot.getTimestamp();
+		taskType = snapshot.getTaskType().getTaskJsonName();
+		varbits = toMap(snapshot.getVarbitIds(), snapshot.getVarbitValues());
+		varps = toMap(snapshot.getVarpIds(), snapshot.getVarpValues());
+		this.tasks = new HashMap<>(snapshot.getTaskSaves());
+	}
+
+	private static HashMap<Integer, Integer> toMap(int[] ids, int[] values)
+	{
+		HashMap<Integer, Integer> valueMap = new HashMap<>();
+		for (int i = 0; i < ids.length; i++)
+		{
+			valueMap.put(ids[i], values[i]);
+		}
+		return valueMap;
+	}
+}
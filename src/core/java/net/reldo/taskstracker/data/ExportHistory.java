@@ -0,0 +1,173 @@
+package net.reldo.taskstracker.data;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Remembers the last export of each task type per RuneScape profile, so the next export can contain only what
+ * changed since. The last export is kept as a json tree in memory and gzipped on disk, and identified by its hash.
+ * All work runs on the executor.
+ */
+@Singleton
+@Slf4j
+public class ExportHistory
+{
+	private static final File BASE_DIR = new File(ExportWriter.EXPORT_DIR, "base");
+
+	@Inject private Gson gson;
+	@Inject private ExportWriter exportWriter;
+	@Inject private ScheduledExecutorService executor;
+
+	// Only accessed from the executor
+	private final Map<Path, Base> bases = new HashMap<>();
+
+	/**
+	 * Remember an export as the base of the next delta export. Called once the export, or a delta built from it,
+	 * reached the user, so a failed delivery leaves the previous base in place.
+	 *
+	 * @return A future with the hash of the export
+	 */
+	public CompletableFuture<String> recordExport(String rsProfileKey, Export export)
+	{
+		return CompletableFuture.supplyAsync(() -> {
+			JsonObject tree = exportWriter.toJsonTree(export);
+			return storeBase(getBasePath(rsProfileKey, export.getTaskType()), tree).hash;
+		}, executor);
+	}
+
+	/**
+	 * Build the changes between the last recorded export and a new one. The new export only becomes the base
+	 * once it is recorded with {@link #recordExport}.
+	 *
+	 * @return A future with the changes, or null if there is no earlier export to compare with
+	 */
+	public CompletableFuture<DeltaExport> createDelta(String rsProfileKey, Export export)
+	{
+		return CompletableFuture.supplyAsync(() -> {
+			Base base = getBase(getBasePath(rsProfileKey, export.getTaskType()));
+			if (base == null)
+			{
+				return null;
+			}
+			JsonObject tree = exportWriter.toJsonTree(export);
+			return new DeltaExport(base.tree, base.hash, tree, hash(tree));
+		}, executor);
+	}
+
+	private Base getBase(Path basePath)
+	{
+		Base base = bases.get(basePath);
+		if (base != null || !Files.exists(basePath))
+		{
+			return base;
+		}
+
+		try (Reader reader = new InputStreamReader(new GZIPInputStream(Files.newInputStream(basePath)), StandardCharsets.UTF_8))
+		{
+			JsonObject tree = gson.fromJson(reader, JsonObject.class);
+			base = new Base(tree, hash(tree));
+			bases.put(basePath, base);
+			return base;
+		}
+		catch (IOException | JsonParseException ex)
+		{
+			log.warn("Unable to read last export {}", basePath, ex);
+			return null;
+		}
+	}
+
+	private Base storeBase(Path basePath, JsonObject tree)
+	{
+		Base base = new Base(tree, hash(tree));
+		bases.put(basePath, base);
+
+		Path tempPath = basePath.resolveSibling(basePath.getFileName() + ".tmp");
+		try
+		{
+			Files.createDirectories(basePath.getParent());
+			try (Writer writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(tempPath)), StandardCharsets.UTF_8)))
+			{
+				gson.toJson(tree, writer);
+			}
+			Files.move(tempPath, basePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException ex)
+		{
+			// The in-memory base still serves this session
+			log.warn("Unable to store last export {}", basePath, ex);
+		}
+		return base;
+	}
+
+	private String hash(JsonObject tree)
+	{
+		MessageDigest digest;
+		try
+		{
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException ex)
+		{
+			throw new IllegalStateException(ex);
+		}
+
+		try (Writer writer = new OutputStreamWriter(new DigestOutputStream(OutputStream.nullOutputStream(), digest), StandardCharsets.UTF_8))
+		{
+			gson.toJson(tree, writer);
+		}
+		catch (IOException ex)
+		{
+			throw new UncheckedIOException(ex);
+		}
+
+		StringBuilder hash = new StringBuilder();
+		for (byte b : digest.digest())
+		{
+			hash.append(String.format("%02x", b));
+		}
+		return hash.toString();
+	}
+
+	private Path getBasePath(String rsProfileKey, String taskJsonName)
+	{
+		return new File(new File(BASE_DIR, rsProfileKey), taskJsonName + ".json.gz").toPath();
+	}
+
+	private static class Base
+	{
+		private final JsonObject tree;
+		private final String hash;
+
+		private Base(JsonObject tree, String hash)
+		{
+			this.tree = tree;
+			this.hash = hash;
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package net.reldo.taskstracker.data;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import lombok.Getter;
+import net.reldo.taskstracker.data.task.ConfigTaskSave;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskType;
+import net.reldo.taskstracker.quests.DiaryVarbits;
+import net.runelite.api.Actor;
+import net.runelite.api.Client;
+import net.runelite.api.Quest;
+import net.runelite.api.QuestState;
+
+/**
+ * The client state an export needs, read in one client thread slice as ids and values in parallel arrays.
+ * Task status is copied too, as the client thread keeps changing it. Building the {@link Export} from it
+ * can then happen on any thread.
+ */
+@Getter
+public class ExportSnapshot
+{
+	private final TaskType taskType;
+	// Saves of the tasks with any status, by task id
+	private final HashMap<String, ConfigTaskSave> taskSaves;
+	private final String displayName;
+	private final int revision;
+	private final long timestamp;
+	private final int[] varbitIds;
+	private final int[] varbitValues;
+	private final int[] varpIds;
+	private final int[] varpValues;
+	private final int[] questIds;
+	private final QuestState[] questStates;
+	private final int[] diaryIds;
+	private final int[] diaryValues;
+
+	private ExportSnapshot(TaskType taskType, List<TaskFromStruct> tasks, Client client)
+	{
+		this.taskType = taskType;
+		taskSaves = new HashMap<>();
+		for (TaskFromStruct task : tasks)
+		{
+			ConfigTaskSave save = task.getSaveData();
+			if (save.completed != 0 || save.tracked != 0 || save.ignored != 0)
+			{
+				taskSaves.put(String.valueOf(task.getIntParam("id")), save);
+			}
+		}
+		Actor localPlayer = client.getLocalPlayer();
+		displayName = localPlayer != null ? localPlayer.getName() : null;
+		revision = client.getRevision();
+		timestamp = Instant.now().toEpochMilli();
+
+		varbitIds = taskType.getVarbits().clone();
+		varbitValues = new int[varbitIds.length];
+		for (int i = 0; i < varbitIds.length; i++)
+		{
+			varbitValues[i] = client.getVarbitValue(varbitIds[i]);
+		}
+
+		List<Integer> taskVarps = taskType.getTaskVarps();
+		int[] otherVarps = taskType.getOtherVarps();
+		varpIds = new int[taskVarps.size() + otherVarps.length];
+		varpValues = new int[varpIds.length];
+		for (int i = 0; i < varpIds.length; i++)
+		{
+			varpIds[i] = i < taskVarps.size() ? taskVarps.get(i) : otherVarps[i - taskVarps.size()];
+			varpValues[i] = client.getVarpValue(varpIds[i]);
+		}
+
+		Quest[] quests = Quest.values();
+		questIds = new int[quests.length];
+		questStates = new QuestState[quests.length];
+		for (int i = 0; i < quests.length; i++)
+		{
+			questIds[i] = quests[i].getId();
+			questStates[i] = quests[i].getState(client);
+		}
+
+		DiaryVarbits[] diaries = DiaryVarbits.values();
+		diaryIds = new int[diaries.length];
+		diaryValues = new int[diaries.length];
+		for (int i = 0; i < diaries.length; i++)
+		{
+			diaryIds[i] = diaries[i].id;
+			diaryValues[i] = diaries[i].getProgress(client);
+		}
+	}
+
+	/**
+	 * Read the export state of a task type. Must be called on the client thread.
+	 */
+	public static ExportSnapshot capture(TaskType taskType, List<TaskFromStruct> tasks, Client client)
+	{
+		assert client.isClientThread();
+		return new ExportSnapshot(taskType, tasks, client);
+	}
+}
@@ -0,0 +1,153 @@
+package net.reldo.taskstracker.data;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.zip.GZIPOutputStream;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.RuneLite;
+
+/**
+ * Builds and serialises an {@link Export} from a snapshot captured on the client thread. Serialisation runs on the executor and streams
+ * through a {@link JsonWriter}, so a file export never holds the whole json in memory.
+ */
+@Singleton
+@Slf4j
+public class ExportWriter
+{
+	public static final File EXPORT_DIR = new File(new File(RuneLite.RUNELITE_DIR, "tasks-tracker"), "exports");
+
+	@Inject private Gson gson;
+	@Inject private ScheduledExecutorService executor;
+
+	private Gson exportGson;
+
+	/**
+	 * Build an export from a snapshot taken on the client thread, mapping task saves on the executor.
+	 */
+	public CompletableFuture<Export> createExport(ExportSnapshot snapshot, String runeliteVersion)
+	{
+		return CompletableFuture.supplyAsync(() -> new Export(snapshot, runeliteVersion), executor);
+	}
+
+	/**
+	 * Serialise an {@link Export} or a {@link DeltaExport} to a string, as for the clipboard.
+	 */
+	public CompletableFuture<String> toJson(Object export)
+	{
+		return CompletableFuture.supplyAsync(() -> {
+			StringWriter writer = new StringWriter();
+			try
+			{
+				write(export, writer);
+			}
+			catch (IOException ex)
+			{
+				throw new UncheckedIOException(ex);
+			}
+			return writer.toString();
+		}, executor);
+	}
+
+	/**
+	 * Write an export to a new file in the export directory.
+	 *
+	 * @param compress gzip the file
+	 * @return A future with the written file
+	 */
+	public CompletableFuture<Path> writeToFile(Export export, boolean compress)
+	{
+		return writeToFile(export.getTaskType() + "-" + formatTimestamp(export.getTimestamp()), export, compress);
+	}
+
+	/**
+	 * Write the changes since the last export to a new file in the export directory.
+	 *
+	 * @param compress gzip the file
+	 * @return A future with the written file
+	 */
+	public CompletableFuture<Path> writeToFile(DeltaExport delta, boolean compress)
+	{
+		return writeToFile(delta.getTaskType() + "-changes-" + formatTimestamp(delta.getTimestamp()), delta, compress);
+	}
+
+	private CompletableFuture<Path> writeToFile(String baseName, Object export, boolean compress)
+	{
+		String fileName = baseName + (compress ? ".json.gz" : ".json");
+		Path path = new File(EXPORT_DIR, fileName).toPath();
+		return CompletableFuture.supplyAsync(() -> {
+			Path tempPath = path.resolveSibling(fileName + ".tmp");
+			try
+			{
+				Files.createDirectories(path.getParent());
+				try (OutputStream out = compress ? new GZIPOutputStream(Files.newOutputStream(tempPath)) : Files.newOutputStream(tempPath);
+					Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)))
+				{
+					write(export, writer);
+				}
+				Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				log.debug("export written to {}", path);
+				return path;
+			}
+			catch (IOException ex)
+			{
+				try
+				{
+					Files.deleteIfExists(tempPath);
+				}
+				catch (IOException deleteEx)
+				{
+					log.debug("Unable to delete partial export {}", tempPath, deleteEx);
+				}
+				throw new UncheckedIOException(ex);
+			}
+		}, executor);
+	}
+
+	void write(Object export, Writer writer) throws IOException
+	{
+		JsonWriter jsonWriter = new JsonWriter(writer);
+		getExportGson().toJson(export, export.getClass(), jsonWriter);
+		jsonWriter.flush();
+	}
+
+	JsonObject toJsonTree(Export export)
+	{
+		return getExportGson().toJsonTree(export).getAsJsonObject();
+	}
+
+	private static String formatTimestamp(long timestamp)
+	{
+		return new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date(timestamp));
+	}
+
+	private Gson getExportGson()
+	{
+		if (exportGson == null)
+		{
+			exportGson = gson.newBuilder()
+				.excludeFieldsWithoutExposeAnnotation()
+				.registerTypeAdapter(float.class, new LongSerializer())
+				.create();
+		}
+		return exportGson;
+	}
+}
@@ -0,0 +1,338 @@
+package net.reldo.taskstracker.data;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Collectors;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import net.reldo.taskstracker.TasksTrackerConfig;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.ConfigTaskSave;
+import net.reldo.taskstracker.data.task.TaskService;
+import net.reldo.taskstracker.data.task.TaskType;
+import net.reldo.taskstracker.metrics.MetricsRegistry;
+import net.reldo.taskstracker.metrics.jfr.SaveEvent;
+import net.runelite.client.config.ConfigManager;
+
+@Singleton
+@Slf4j
+public class TrackerConfigStore
+{
+	public static final String CONFIG_TASKS_PREFIX = "tasks";
+	public static final String CONFIG_GROUP_PREFIX_SEPARATOR = "-";
+	public static final String CONFIG_GROUP_NAME = TasksTrackerConfig.CONFIG_GROUP_NAME;
+	// One shard per task varp, each varp holds the completion bits of 32 tasks
+	public static final int TASKS_PER_SHARD = 32;
+
+	private final Gson customGson;
+	@Inject
+	private TaskService taskService;
+	@Inject
+	private ConfigManager configManager;
+	@Inject
+	private ScheduledExecutorService executor;
+	@Inject
+	private MetricsRegistry metricsRegistry;
+
+	@Inject
+	public TrackerConfigStore(Gson gson)
+	{
+		this.customGson = gson.newBuilder()
+			.excludeFieldsWithoutExposeAnnotation()
+			.registerTypeAdapter(float.class, new LongSerializer())
+			.create();
+	}
+
+	/**
+	 * Read and decode the saved data of the current task type off the client thread.
+	 *
+	 * @return A future with the decoded save, or null if there is no current task type
+	 */
+	public CompletableFuture<TaskTypeSave> readCurrentTaskTypeSaveAsync()
+	{
+		TaskType currentTaskType = taskService.getCurrentTaskType();
+		if (currentTaskType == null)
+		{
+			log.debug("readCurrentTaskTypeSaveAsync type is null, skipping");
+			return CompletableFuture.completedFuture(null);
+		}
+		String rsProfileKey = configManager.getRSProfileKey();
+		String taskJsonName = currentTaskType.getTaskJsonName();
+		int shardCount = currentTaskType.getTaskVarps().size();
+		return CompletableFuture.supplyAsync(() -> readTaskTypeSave(rsProfileKey, taskJsonName, shardCount), executor);
+	}
+
+	/**
+	 * Read and merge the saved data of a task type, including data from before saves were sharded.
+	 *
+	 * @param rsProfileKey RuneScape profile to read from
+	 * @param taskJsonName task type to read
+	 * @param shardCount number of shards, one per task varp
+	 * @return The decoded save, keyed by struct id
+	 */
+	public TaskTypeSave readTaskTypeSave(String rsProfileKey, String taskJsonName, int shardCount)
+	{
+		log.debug("readTaskTypeSave {} {}", rsProfileKey, taskJsonName);
+		HashMap<Integer, ConfigTaskSave> saveData = new HashMap<>();
+		if (rsProfileKey == null)
+		{
+			return new TaskTypeSave(rsProfileKey, taskJsonName, saveData);
+		}
+
+		// Unsharded save is merged first so newer shard data takes priority; it is removed on the next save
+		readConfigSave(rsProfileKey, getConfigKey(taskJsonName), saveData);
+		for (int shard = 0; shard < shardCount; shard++)
+		{
+			readConfigSave(rsProfileKey, getShardConfigKey(taskJsonName, shard), saveData);
+		}
+		return new TaskTypeSave(rsProfileKey, taskJsonName, saveData);
+	}
+
+	private void readConfigSave(String rsProfileKey, String configKey, HashMap<Integer, ConfigTaskSave> saveData)
+	{
+		String configJson = configManager.getConfiguration(CONFIG_GROUP_NAME, rsProfileKey, configKey);
+		if (configJson == null)
+		{
+			return;
+		}
+
+		try
+		{
+			HashMap<Integer, ConfigTaskSave> decodedSaveData = decodeSaveData(configJson);
+			if (decodedSaveData != null)
+			{
+				saveData.putAll(decodedSaveData);
+			}
+		}
+		catch (JsonParseException ex)
+		{
+			log.error("{} {} json invalid. wiping saved data", CONFIG_GROUP_NAME, configKey, ex);
+			configManager.unsetConfiguration(CONFIG_GROUP_NAME, rsProfileKey, configKey);
+		}
+	}
+
+	/**
+	 * Whether a decoded save still belongs to the current profile and task type.
+	 */
+	public boolean isCurrent(TaskTypeSave save)
+	{
+		TaskType currentTaskType = taskService.getCurrentTaskType();
+		return currentTaskType != null &&
+			currentTaskType.getTaskJsonName().equals(save.getTaskJsonName()) &&
+			Objects.equals(configManager.getRSProfileKey(), save.getRsProfileKey());
+	}
+
+	public void applyTaskTypeSave(TaskTypeSave save)
+	{
+		if (!isCurrent(save))
+		{
+			log.debug("Save for {} is no longer current, not applying", save.getTaskJsonName());
+			return;
+		}
+		taskService.applySave(taskService.getCurrentTaskType(), save.getSaveData());
+	}
+
+	/**
+	 * Save the current task type, writing only the shards whose content changed.
+	 */
+	public void saveCurrentTaskTypeData()
+	{
+		log.debug("saveTaskTypeToConfig");
+		TaskType currentTaskType = taskService.getCurrentTaskType();
+		String rsProfileKey = configManager.getRSProfileKey();
+		if (currentTaskType == null || rsProfileKey == null)
+		{
+			return;
+		}
+
+		long start = System.nanoTime();
+		SaveEvent event = new SaveEvent();
+		event.begin();
+		int shardsWritten = writeTaskTypeSave(rsProfileKey, currentTaskType, taskService.getTasks());
+		metricsRegistry.histogram(MetricsRegistry.SAVE).recordSince(start);
+		commitSaveEvent(event, currentTaskType, taskService.getTasks().size(), shardsWritten);
+	}
+
+	/**
+	 * Save the shard a single task belongs to.
+	 */
+	public void saveTaskData(TaskFromStruct task)
+	{
+		TaskType currentTaskType = taskService.getCurrentTaskType();
+		String rsProfileKey = configManager.getRSProfileKey();
+		if (currentTaskType == null || rsProfileKey == null || !currentTaskType.equals(task.getTaskType()))
+		{
+			return;
+		}
+
+		// The unsharded save would bring back anything cleared in a shard, so the first save moves it into shards
+		if (configManager.getConfiguration(CONFIG_GROUP_NAME, rsProfileKey, getConfigKey(currentTaskType.getTaskJsonName())) != null)
+		{
+			saveCurrentTaskTypeData();
+			return;
+		}
+
+		long start = System.nanoTime();
+		SaveEvent event = new SaveEvent();
+		event.begin();
+		int shard = getShardIndex(task);
+		List<TaskFromStruct> shardTasks = taskService.getTasks().stream()
+			.filter(t -> getShardIndex(t) == shard)
+			.collect(Collectors.toList());
+		boolean written = writeShard(rsProfileKey, currentTaskType.getTaskJsonName(), shard, getSaveDataByStructId(shardTasks));
+		metricsRegistry.histogram(MetricsRegistry.SAVE).recordSince(start);
+		commitSaveEvent(event, currentTaskType, shardTasks.size(), written ? 1 : 0);
+	}
+
+	private void commitSaveEvent(SaveEvent event, TaskType taskType, int taskCount, int shardsWritten)
+	{
+		if (event.shouldCommit())
+		{
+			event.taskType = taskType.getTaskJsonName();
+			event.taskCount = taskCount;
+			event.shardsWritten = shardsWritten;
+			event.commit();
+		}
+	}
+
+	/**
+	 * Write the saved data of tasks of a task type to a profile, one config key per task varp.
+	 *
+	 * @param rsProfileKey RuneScape profile to write to
+	 * @param taskType task type of the tasks
+	 * @param tasks all tasks of the task type
+	 * @return the number of shards whose content changed
+	 */
+	public int writeTaskTypeSave(String rsProfileKey, TaskType taskType, Collection<TaskFromStruct> tasks)
+	{
+		return writeTaskTypeSave(rsProfileKey, taskType, getSaveDataByShard(tasks));
+	}
+
+	/**
+	 * Write saved task data grouped by shard, as built by {@link #getSaveDataByShard}.
+	 *
+	 * @param rsProfileKey RuneScape profile to write to
+	 * @param taskType task type of the tasks
+	 * @param saveDataByShard save data of all tasks of the task type, by shard then struct id
+	 * @return the number of shards whose content changed
+	 */
+	public int writeTaskTypeSave(String rsProfileKey, TaskType taskType, Map<Integer, Map<Integer, ConfigTaskSave>> saveDataByShard)
+	{
+		String taskJsonName = taskType.getTaskJsonName();
+		int shardCount = Math.max(taskType.getTaskVarps().size(), saveDataByShard.keySet().stream().mapToInt(shard -> shard + 1).max().orElse(0));
+		int shardsWritten = 0;
+		for (int shard = 0; shard < shardCount; shard++)
+		{
+			if (writeShard(rsProfileKey, taskJsonName, shard, saveDataByShard.getOrDefault(shard, Collections.emptyMap())))
+			{
+				shardsWritten++;
+			}
+		}
+
+		String legacyConfigKey = getConfigKey(taskJsonName);
+		if (configManager.getConfiguration(CONFIG_GROUP_NAME, rsProfileKey, legacyConfigKey) != null)
+		{
+			log.debug("removing unsharded save {}", legacyConfigKey);
+			configManager.unsetConfiguration(CONFIG_GROUP_NAME, rsProfileKey, legacyConfigKey);
+		}
+		return shardsWritten;
+	}
+
+	private boolean writeShard(String rsProfileKey, String taskJsonName, int shard, Map<Integer, ConfigTaskSave> saveDataByStructId)
+	{
+		String configKey = getShardConfigKey(taskJsonName, shard);
+		String configValue = saveDataByStructId.isEmpty() ? null : encodeSaveData(saveDataByStructId);
+		String existingValue = configManager.getConfiguration(CONFIG_GROUP_NAME, rsProfileKey, configKey);
+		if (Objects.equals(existingValue, configValue))
+		{
+			return false;
+		}
+
+		log.debug("writing save shard {}", configKey);
+		metricsRegistry.counter(MetricsRegistry.SAVE_SHARDS_WRITTEN).increment();
+		if (configValue == null)
+		{
+			configManager.unsetConfiguration(CONFIG_GROUP_NAME, rsProfileKey, configKey);
+		}
+		else
+		{
+			configManager.setConfiguration(CONFIG_GROUP_NAME, rsProfileKey, configKey, configValue);
+		}
+		return true;
+	}
+
+	String encodeSaveData(Map<Integer, ConfigTaskSave> saveDataByStructId)
+	{
+		return this.customGson.toJson(saveDataByStructId);
+	}
+
+	HashMap<Integer, ConfigTaskSave> decodeSaveData(String configJson)
+	{
+		Type deserializeType = TypeToken.getParameterized(HashMap.class, Integer.class, ConfigTaskSave.class).getType();
+		return customGson.fromJson(configJson, deserializeType);
+	}
+
+	/**
+	 * Group the save data of tasks by the shard it is stored in, so it can be written later.
+	 */
+	public Map<Integer, Map<Integer, ConfigTaskSave>> getSaveDataByShard(Collection<TaskFromStruct> tasks)
+	{
+		return tasks.stream().collect(Collectors.groupingBy(
+			this::getShardIndex,
+			Collectors.collectingAndThen(Collectors.toList(), this::getSaveDataByStructId)
+		));
+	}
+
+	Map<Integer, ConfigTaskSave> getSaveDataByStructId(Collection<TaskFromStruct> tasks)
+	{
+		// Sorted so an unchanged shard serializes to the same string
+		return tasks.stream()
+			.filter(task -> task.getCompletedOn() != 0 || task.getIgnoredOn() != 0 || task.getTrackedOn() != 0)
+			.collect(Collectors.toMap(
+				TaskFromStruct::getStructId,
+				TaskFromStruct::getSaveData,
+				(existing, replacement) -> existing,
+				TreeMap::new
+			));
+	}
+
+	private int getShardIndex(TaskFromStruct task)
+	{
+		Integer taskId = task.getIntParam("id");
+		return taskId == null ? 0 : taskId / TASKS_PER_SHARD;
+	}
+
+	private String getConfigKey(String taskJsonName)
+	{
+		return CONFIG_TASKS_PREFIX + CONFIG_GROUP_PREFIX_SEPARATOR + taskJsonName;
+	}
+
+	private String getShardConfigKey(String taskJsonName, int shard)
+	{
+		return getConfigKey(taskJsonName) + CONFIG_GROUP_PREFIX_SEPARATOR + shard;
+	}
+
+	/**
+	 * Saved task data of a task type, decoded for a RuneScape profile
+	 */
+	@Value
+	public static class TaskTypeSave
+	{
+		String rsProfileKey;
+		String taskJsonName;
+		HashMap<Integer, ConfigTaskSave> saveData;
+	}
+}
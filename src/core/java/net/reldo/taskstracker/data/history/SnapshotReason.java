@@ -0,0 +1,8 @@
+package net.reldo.taskstracker.data.history;
+
+public enum SnapshotReason
+{
+	DAILY,
+	IMPORT,
+	ROLLBACK;
+}
@@ -0,0 +1,15 @@
+package net.reldo.taskstracker.data.history;
+
+import lombok.Value;
+
+/**
+ * A snapshot in the history of a task type, numbered from the oldest kept snapshot
+ */
+@Value
+public class TaskSnapshot
+{
+	int index;
+	long timestamp;
+	SnapshotReason reason;
+	int changedTaskCount;
+}
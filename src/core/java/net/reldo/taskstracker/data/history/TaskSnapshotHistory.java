@@ -0,0 +1,394 @@
+package net.reldo.taskstracker.data.history;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.AccessLevel;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import net.reldo.taskstracker.data.TrackerConfigStore;
+import net.reldo.taskstracker.data.task.ConfigTaskSave;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskType;
+import net.runelite.client.RuneLite;
+
+/**
+ * Rolling history of the saved task state of each task type per RuneScape profile, stored under the RuneLite
+ * directory. Each snapshot is a deflated record holding a bitset of the task ids whose saved dates changed since
+ * the previous snapshot, followed by the new dates of those tasks, so unchanged tasks cost nothing. Once a history
+ * grows past {@link #MAX_SNAPSHOTS} the oldest snapshots are folded into one. All file work runs on the executor.
+ */
+@Singleton
+@Slf4j
+public class TaskSnapshotHistory
+{
+	public static final File HISTORY_DIR = new File(new File(RuneLite.RUNELITE_DIR, "tasks-tracker"), "history");
+	private static final String HISTORY_EXTENSION = ".history";
+	private static final int MAX_SNAPSHOTS = 60;
+	private static final Duration DAILY_INTERVAL = Duration.ofDays(1);
+
+	@Inject private ScheduledExecutorService executor;
+	@Inject private TrackerConfigStore trackerConfigStore;
+
+	// Only accessed from the executor
+	private final Map<Path, History> histories = new HashMap<>();
+	@Setter(AccessLevel.PACKAGE)
+	private File historyDir = HISTORY_DIR;
+
+	/**
+	 * Record the current state of tasks. The state is copied before returning, so the tasks may change afterwards.
+	 */
+	public void record(String rsProfileKey, String taskJsonName, Collection<TaskFromStruct> tasks, SnapshotReason reason)
+	{
+		record(rsProfileKey, taskJsonName, captureState(tasks), Instant.now().toEpochMilli(), reason);
+	}
+
+	/**
+	 * @param state saves of the tasks with any status, by task id
+	 */
+	void record(String rsProfileKey, String taskJsonName, Map<Integer, ConfigTaskSave> state, long timestamp, SnapshotReason reason)
+	{
+		Path path = getHistoryPath(rsProfileKey, taskJsonName);
+		executor.execute(() -> append(path, timestamp, reason, state));
+	}
+
+	/**
+	 * Record the current state of tasks if the last snapshot is more than a day old.
+	 */
+	public void recordDaily(String rsProfileKey, String taskJsonName, Collection<TaskFromStruct> tasks)
+	{
+		recordDaily(rsProfileKey, taskJsonName, captureState(tasks), Instant.now().toEpochMilli());
+	}
+
+	void recordDaily(String rsProfileKey, String taskJsonName, Map<Integer, ConfigTaskSave> state, long timestamp)
+	{
+		Path path = getHistoryPath(rsProfileKey, taskJsonName);
+		executor.execute(() -> {
+			History history = getHistory(path);
+			if (!history.snapshots.isEmpty() && timestamp - history.lastTimestamp() < DAILY_INTERVAL.toMillis())
+			{
+				return;
+			}
+			append(path, timestamp, SnapshotReason.DAILY, state);
+		});
+	}
+
+	/**
+	 * List the kept snapshots of a task type, oldest first.
+	 */
+	public CompletableFuture<List<TaskSnapshot>> getSnapshots(String rsProfileKey, String taskJsonName)
+	{
+		Path path = getHistoryPath(rsProfileKey, taskJsonName);
+		return CompletableFuture.supplyAsync(() -> Collections.unmodifiableList(new ArrayList<>(getHistory(path).snapshots)), executor);
+	}
+
+	/**
+	 * Restore the saved data of a task type to a snapshot. The current state is recorded first, so a rollback can
+	 * itself be rolled back.
+	 *
+	 * @param currentTasks tasks holding the current state of the task type
+	 * @param index index of the snapshot to restore, as listed by {@link #getSnapshots}
+	 * @return A future with the number of tasks in the restored state
+	 */
+	public CompletableFuture<Integer> rollback(String rsProfileKey, TaskType taskType, Collection<TaskFromStruct> currentTasks, int index)
+	{
+		return rollback(rsProfileKey, taskType, captureState(currentTasks), Instant.now().toEpochMilli(), index);
+	}
+
+	CompletableFuture<Integer> rollback(String rsProfileKey, TaskType taskType, Map<Integer, ConfigTaskSave> currentState, long timestamp, int index)
+	{
+		Path path = getHistoryPath(rsProfileKey, taskType.getTaskJsonName());
+		return CompletableFuture.supplyAsync(() -> {
+			List<Record> records = readRecords(path);
+			if (index < 0 || index >= records.size())
+			{
+				throw new IllegalArgumentException("No snapshot " + index + ", there are " + records.size());
+			}
+			Map<Integer, ConfigTaskSave> state = new HashMap<>();
+			for (int i = 0; i <= index; i++)
+			{
+				records.get(i).applyTo(state);
+			}
+
+			append(path, timestamp, SnapshotReason.ROLLBACK, currentState);
+
+			Map<Integer, Map<Integer, ConfigTaskSave>> saveDataByShard = new HashMap<>();
+			state.forEach((taskId, save) -> saveDataByShard
+				.computeIfAbsent(taskId / TrackerConfigStore.TASKS_PER_SHARD, shard -> new TreeMap<>())
+				.put(save.structId, save));
+			trackerConfigStore.writeTaskTypeSave(rsProfileKey, taskType, saveDataByShard);
+			return state.size();
+		}, executor);
+	}
+
+	private static Map<Integer, ConfigTaskSave> captureState(Collection<TaskFromStruct> tasks)
+	{
+		Map<Integer, ConfigTaskSave> state = new HashMap<>();
+		for (TaskFromStruct task : tasks)
+		{
+			Integer taskId = task.getIntParam("id");
+			if (taskId == null || (task.getCompletedOn() == 0 && task.getTrackedOn() == 0 && task.getIgnoredOn() == 0))
+			{
+				continue;
+			}
+			state.put(taskId, task.getSaveData());
+		}
+		return state;
+	}
+
+	private void append(Path path, long timestamp, SnapshotReason reason, Map<Integer, ConfigTaskSave> state)
+	{
+		History history = getHistory(path);
+		Record record = Record.diff(timestamp, reason, history.state, state);
+		if (record.changed.isEmpty() && reason == SnapshotReason.DAILY)
+		{
+			return;
+		}
+
+		try
+		{
+			Files.createDirectories(path.getParent());
+			if (history.snapshots.size() >= MAX_SNAPSHOTS)
+			{
+				compact(path);
+				history = getHistory(path);
+			}
+			Files.write(path, record.encode(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+			record.applyTo(history.state);
+			history.snapshots.add(new TaskSnapshot(history.snapshots.size(), timestamp, reason, record.changed.cardinality()));
+			log.debug("recorded {} snapshot of {} with {} changed tasks", reason, path, record.changed.cardinality());
+		}
+		catch (IOException ex)
+		{
+			log.warn("Unable to record task snapshot {}", path, ex);
+		}
+	}
+
+	/**
+	 * Fold the oldest snapshots into one so the history keeps room for new snapshots.
+	 */
+	private void compact(Path path) throws IOException
+	{
+		List<Record> records = readRecords(path);
+		int fold = records.size() - MAX_SNAPSHOTS + 2;
+		Map<Integer, ConfigTaskSave> baseState = new HashMap<>();
+		for (int i = 0; i < fold; i++)
+		{
+			records.get(i).applyTo(baseState);
+		}
+		Record base = Record.diff(records.get(fold - 1).timestamp, records.get(fold - 1).reason, Collections.emptyMap(), baseState);
+
+		Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(base.encode());
+		for (int i = fold; i < records.size(); i++)
+		{
+			out.write(records.get(i).encode());
+		}
+		Files.write(tempPath, out.toByteArray());
+		Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		histories.remove(path);
+	}
+
+	private History getHistory(Path path)
+	{
+		return histories.computeIfAbsent(path, p -> {
+			History history = new History();
+			List<Record> records = readRecords(p);
+			for (int i = 0; i < records.size(); i++)
+			{
+				Record record = records.get(i);
+				record.applyTo(history.state);
+				history.snapshots.add(new TaskSnapshot(i, record.timestamp, record.reason, record.changed.cardinality()));
+			}
+			return history;
+		});
+	}
+
+	private List<Record> readRecords(Path path)
+	{
+		List<Record> records = new ArrayList<>();
+		if (!Files.exists(path))
+		{
+			return records;
+		}
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(path))))
+		{
+			while (true)
+			{
+				int length;
+				try
+				{
+					length = in.readInt();
+				}
+				catch (EOFException ex)
+				{
+					break;
+				}
+				byte[] data = new byte[length];
+				in.readFully(data);
+				records.add(Record.decode(data));
+			}
+		}
+		catch (IOException ex)
+		{
+			// A partly written last record is dropped; everything before it is kept
+			log.warn("Unable to read all of task history {}, read {} snapshots", path, records.size(), ex);
+		}
+		return records;
+	}
+
+	private Path getHistoryPath(String rsProfileKey, String taskJsonName)
+	{
+		return new File(new File(historyDir, rsProfileKey), taskJsonName + HISTORY_EXTENSION).toPath();
+	}
+
+	private static class History
+	{
+		private final Map<Integer, ConfigTaskSave> state = new HashMap<>();
+		private final List<TaskSnapshot> snapshots = new ArrayList<>();
+
+		private long lastTimestamp()
+		{
+			return snapshots.get(snapshots.size() - 1).getTimestamp();
+		}
+	}
+
+	/**
+	 * One snapshot: the ids of changed tasks as a bitset, then the new save of each changed task in id order.
+	 * A save with no dates removes the task from the state.
+	 */
+	static class Record
+	{
+		final long timestamp;
+		final SnapshotReason reason;
+		final BitSet changed;
+		final List<ConfigTaskSave> saves;
+
+		private Record(long timestamp, SnapshotReason reason, BitSet changed, List<ConfigTaskSave> saves)
+		{
+			this.timestamp = timestamp;
+			this.reason = reason;
+			this.changed = changed;
+			this.saves = saves;
+		}
+
+		static Record diff(long timestamp, SnapshotReason reason, Map<Integer, ConfigTaskSave> previous, Map<Integer, ConfigTaskSave> current)
+		{
+			BitSet changed = new BitSet();
+			previous.forEach((taskId, save) -> {
+				if (!current.containsKey(taskId))
+				{
+					changed.set(taskId);
+				}
+			});
+			current.forEach((taskId, save) -> {
+				if (!isSame(previous.get(taskId), save))
+				{
+					changed.set(taskId);
+				}
+			});
+
+			List<ConfigTaskSave> saves = new ArrayList<>(changed.cardinality());
+			for (int taskId = changed.nextSetBit(0); taskId >= 0; taskId = changed.nextSetBit(taskId + 1))
+			{
+				ConfigTaskSave save = current.get(taskId);
+				saves.add(save != null ? save : new ConfigTaskSave(previous.get(taskId).structId, 0, 0, 0));
+			}
+			return new Record(timestamp, reason, changed, saves);
+		}
+
+		private static boolean isSame(ConfigTaskSave a, ConfigTaskSave b)
+		{
+			return a != null && a.completed == b.completed && a.tracked == b.tracked && a.ignored == b.ignored;
+		}
+
+		void applyTo(Map<Integer, ConfigTaskSave> state)
+		{
+			int i = 0;
+			for (int taskId = changed.nextSetBit(0); taskId >= 0; taskId = changed.nextSetBit(taskId + 1))
+			{
+				ConfigTaskSave save = saves.get(i++);
+				if (save.completed == 0 && save.tracked == 0 && save.ignored == 0)
+				{
+					state.remove(taskId);
+				}
+				else
+				{
+					state.put(taskId, save);
+				}
+			}
+		}
+
+		byte[] encode() throws IOException
+		{
+			ByteArrayOutputStream deflated = new ByteArrayOutputStream();
+			try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(deflated)))
+			{
+				out.writeLong(timestamp);
+				out.writeByte(reason.ordinal());
+				byte[] changedBytes = changed.toByteArray();
+				out.writeInt(changedBytes.length);
+				out.write(changedBytes);
+				for (ConfigTaskSave save : saves)
+				{
+					out.writeInt(save.structId);
+					out.writeLong(save.completed);
+					out.writeLong(save.tracked);
+					out.writeLong(save.ignored);
+				}
+			}
+
+			ByteArrayOutputStream record = new ByteArrayOutputStream();
+			try (DataOutputStream out = new DataOutputStream(record))
+			{
+				out.writeInt(deflated.size());
+				deflated.writeTo(out);
+			}
+			return record.toByteArray();
+		}
+
+		static Record decode(byte[] data) throws IOException
+		{
+			try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(data))))
+			{
+				long timestamp = in.readLong();
+				int reasonOrdinal = in.readUnsignedByte();
+				SnapshotReason reason = reasonOrdinal < SnapshotReason.values().length ? SnapshotReason.values()[reasonOrdinal] : SnapshotReason.DAILY;
+				byte[] changedBytes = new byte[in.readInt()];
+				in.readFully(changedBytes);
+				BitSet changed = BitSet.valueOf(changedBytes);
+				List<ConfigTaskSave> saves = new ArrayList<>(changed.cardinality());
+				for (int i = 0; i < changed.cardinality(); i++)
+				{
+					saves.add(new ConfigTaskSave(in.readInt(), in.readLong(), in.readLong(), in.readLong()));
+				}
+				return new Record(timestamp, reason, changed, saves);
+			}
+		}
+	}
+}
@@ -0,0 +1,257 @@
+package net.reldo.taskstracker.data.journal;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.AccessLevel;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskStateChange;
+import net.reldo.taskstracker.data.task.TaskStateListener;
+import net.runelite.client.RuneLite;
+import net.runelite.client.config.ConfigManager;
+
+/**
+ * Append-only log of task state changes per RuneScape profile and task type, stored under the RuneLite directory.
+ * Each change is one line appended to a journal file. Once the journal grows past a threshold it is compacted
+ * into a snapshot file, keeping every completion but only the latest tracked and ignored change of each task.
+ */
+@Singleton
+@Slf4j
+public class TaskJournal implements TaskStateListener
+{
+	public static final File JOURNAL_DIR = new File(new File(RuneLite.RUNELITE_DIR, "tasks-tracker"), "journal");
+	private static final String JOURNAL_EXTENSION = ".journal";
+	private static final String SNAPSHOT_EXTENSION = ".snapshot";
+	private static final int COMPACTION_THRESHOLD = 1000;
+
+	@Inject private ConfigManager configManager;
+	@Inject private ScheduledExecutorService executor;
+
+	// Only accessed from the executor
+	private final Map<Path, JournalWriter> writers = new HashMap<>();
+	@Setter(AccessLevel.PACKAGE)
+	private File journalDir = JOURNAL_DIR;
+
+	@Override
+	public void onTaskStateChanged(TaskFromStruct task, TaskStateChange change, long timestamp)
+	{
+		String rsProfileKey = configManager.getRSProfileKey();
+		if (rsProfileKey == null)
+		{
+			return;
+		}
+		TaskJournalEntry entry = new TaskJournalEntry(timestamp, task.getStructId(), change);
+		Path journalPath = getJournalPath(rsProfileKey, task.getTaskType().getTaskJsonName());
+		executor.execute(() -> append(journalPath, entry));
+	}
+
+	/**
+	 * Read the full state change history of a task type, oldest first.
+	 */
+	public CompletableFuture<List<TaskJournalEntry>> getHistory(String rsProfileKey, String taskJsonName)
+	{
+		Path journalPath = getJournalPath(rsProfileKey, taskJsonName);
+		return CompletableFuture.supplyAsync(() -> readEntries(journalPath), executor);
+	}
+
+	/**
+	 * Read the state change history of a single task, oldest first.
+	 */
+	public CompletableFuture<List<TaskJournalEntry>> getHistory(String rsProfileKey, TaskFromStruct task)
+	{
+		return getHistory(rsProfileKey, task.getTaskType().getTaskJsonName()).thenApply(entries -> entries.stream()
+			.filter(entry -> entry.getStructId() == task.getStructId())
+			.collect(Collectors.toList()));
+	}
+
+	public void close()
+	{
+		executor.execute(() -> {
+			writers.values().forEach(JournalWriter::close);
+			writers.clear();
+		});
+	}
+
+	private void append(Path journalPath, TaskJournalEntry entry)
+	{
+		try
+		{
+			JournalWriter writer = writers.get(journalPath);
+			if (writer == null)
+			{
+				writer = new JournalWriter(journalPath);
+				writers.put(journalPath, writer);
+			}
+			writer.append(entry);
+
+			if (writer.entryCount >= COMPACTION_THRESHOLD)
+			{
+				compact(journalPath);
+			}
+		}
+		catch (IOException ex)
+		{
+			log.warn("Unable to append to task journal {}", journalPath, ex);
+		}
+	}
+
+	private void compact(Path journalPath) throws IOException
+	{
+		log.debug("compacting task journal {}", journalPath);
+		List<TaskJournalEntry> entries = readEntries(journalPath);
+
+		// Completions are history; for tracking and ignoring only the latest change of each task matters
+		Map<String, TaskJournalEntry> latestToggles = new LinkedHashMap<>();
+		List<TaskJournalEntry> compacted = new ArrayList<>();
+		for (TaskJournalEntry entry : entries)
+		{
+			switch (entry.getChange())
+			{
+				case COMPLETED:
+				case UNCOMPLETED:
+					compacted.add(entry);
+					break;
+				case TRACKED:
+				case UNTRACKED:
+					latestToggles.put("tracked-" + entry.getStructId(), entry);
+					break;
+				case IGNORED:
+				case UNIGNORED:
+					latestToggles.put("ignored-" + entry.getStructId(), entry);
+					break;
+			}
+		}
+		compacted.addAll(latestToggles.values());
+		compacted.sort((a, b) -> Long.compare(a.getTimestamp(), b.getTimestamp()));
+
+		Path snapshotPath = getSnapshotPath(journalPath);
+		Path tempPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+		Files.write(tempPath, compacted.stream().map(TaskJournalEntry::toLine).collect(Collectors.toList()), StandardCharsets.UTF_8);
+		Files.move(tempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		JournalWriter writer = writers.remove(journalPath);
+		if (writer != null)
+		{
+			writer.close();
+		}
+		Files.write(journalPath, Collections.emptyList(), StandardCharsets.UTF_8, StandardOpenOption.TRUNCATE_EXISTING);
+	}
+
+	private List<TaskJournalEntry> readEntries(Path journalPath)
+	{
+		JournalWriter writer = writers.get(journalPath);
+		if (writer != null)
+		{
+			writer.flush();
+		}
+
+		List<TaskJournalEntry> entries = new ArrayList<>();
+		readEntries(getSnapshotPath(journalPath), entries);
+		readEntries(journalPath, entries);
+		return entries;
+	}
+
+	private void readEntries(Path path, List<TaskJournalEntry> entries)
+	{
+		if (!Files.exists(path))
+		{
+			return;
+		}
+		try
+		{
+			for (String line : Files.readAllLines(path, StandardCharsets.UTF_8))
+			{
+				TaskJournalEntry entry = TaskJournalEntry.fromLine(line);
+				if (entry != null)
+				{
+					entries.add(entry);
+				}
+			}
+		}
+		catch (IOException ex)
+		{
+			log.warn("Unable to read task journal {}", path, ex);
+		}
+	}
+
+	private Path getJournalPath(String rsProfileKey, String taskJsonName)
+	{
+		return new File(new File(journalDir, rsProfileKey), taskJsonName + JOURNAL_EXTENSION).toPath();
+	}
+
+	private Path getSnapshotPath(Path journalPath)
+	{
+		String fileName = journalPath.getFileName().toString();
+		return journalPath.resolveSibling(fileName.substring(0, fileName.length() - JOURNAL_EXTENSION.length()) + SNAPSHOT_EXTENSION);
+	}
+
+	private static class JournalWriter
+	{
+		private final BufferedWriter writer;
+		private int entryCount;
+
+		private JournalWriter(Path journalPath) throws IOException
+		{
+			Files.createDirectories(journalPath.getParent());
+			if (Files.exists(journalPath))
+			{
+				try (Stream<String> lines = Files.lines(journalPath, StandardCharsets.UTF_8))
+				{
+					entryCount = (int) lines.count();
+				}
+			}
+			writer = Files.newBufferedWriter(journalPath, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+		}
+
+		private void append(TaskJournalEntry entry) throws IOException
+		{
+			writer.write(entry.toLine());
+			writer.newLine();
+			writer.flush();
+			entryCount++;
+		}
+
+		private void flush()
+		{
+			try
+			{
+				writer.flush();
+			}
+			catch (IOException ex)
+			{
+				log.warn("Unable to flush task journal", ex);
+			}
+		}
+
+		private void close()
+		{
+			try
+			{
+				writer.close();
+			}
+			catch (IOException ex)
+			{
+				log.warn("Unable to close task journal", ex);
+			}
+		}
+	}
+}
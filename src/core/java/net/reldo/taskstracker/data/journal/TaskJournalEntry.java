@@ -0,0 +1,42 @@
+package net.reldo.taskstracker.data.journal;
+
+import lombok.Value;
+import net.reldo.taskstracker.data.task.TaskStateChange;
+
+/**
+ * A single task state change recorded in the task journal
+ */
+@Value
+public class TaskJournalEntry
+{
+	private static final String SEPARATOR = ",";
+
+	long timestamp;
+	int structId;
+	TaskStateChange change;
+
+	public String toLine()
+	{
+		return timestamp + SEPARATOR + structId + SEPARATOR + change.name();
+	}
+
+	/**
+	 * @return The entry, or null if the line is not a valid entry
+	 */
+	public static TaskJournalEntry fromLine(String line)
+	{
+		String[] parts = line.split(SEPARATOR);
+		if (parts.length != 3)
+		{
+			return null;
+		}
+		try
+		{
+			return new TaskJournalEntry(Long.parseLong(parts[0]), Integer.parseInt(parts[1]), TaskStateChange.valueOf(parts[2]));
+		}
+		catch (IllegalArgumentException ex)
+		{
+			return null;
+		}
+	}
+}
@@ -14,6 +14,7 @@ import javax.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 import net.reldo.taskstracker.data.jsondatastore.reader.DataStoreReader;
 import net.reldo.taskstracker.data.jsondatastore.types.FilterConfig;
+import net.reldo.taskstracker.metrics.MetricsRegistry;
 import okhttp3.OkHttpClient;
 
 @Singleton
@@ -24,6 +25,7 @@ public class FilterDataClient
     @Inject	private OkHttpClient okHttpClient;
     @Inject private Gson gson;
     @Inject private DataStoreReader dataStoreReader;
+    @Inject private MetricsRegistry metricsRegistry;
 
     public FilterDataClient()
     {
@@ -33,12 +35,16 @@ public class FilterDataClient
     public HashMap<String, FilterConfig> getFilterConfigs() throws Exception
     {
         log.debug("get filter configs");
+        long fetchStart = System.nanoTime();
         try(InputStream stream = this.dataStoreReader.readFilterConfigs(this.manifestClient.getManifest().filterMetadata);
             InputStreamReader responseReader = new InputStreamReader(stream, StandardCharsets.UTF_8))
         {
+            metricsRegistry.histogram(MetricsRegistry.DATA_FETCH).recordSince(fetchStart);
             Type listType = TypeToken.getParameterized(ArrayList.class, FilterConfig.class).getType();
 
+            long parseStart = System.nanoTime();
             List<FilterConfig> filterConfigs = this.gson.fromJson(responseReader, listType);
+            metricsRegistry.histogram(MetricsRegistry.JSON_PARSE).recordSince(parseStart);
             HashMap<String, FilterConfig> filterConfigsByConfigKey = new HashMap<>();
             for (FilterConfig filterConfig : filterConfigs)
             {
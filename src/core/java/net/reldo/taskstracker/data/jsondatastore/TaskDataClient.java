@@ -9,6 +9,8 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
@@ -16,8 +18,9 @@ import net.reldo.taskstracker.data.jsondatastore.reader.DataStoreReader;
 import net.reldo.taskstracker.data.jsondatastore.types.TaskDefinition;
 import net.reldo.taskstracker.data.jsondatastore.types.TaskTypeDefinition;
 import net.reldo.taskstracker.data.task.TaskType;
+import net.reldo.taskstracker.metrics.MetricsRegistry;
+import net.reldo.taskstracker.scheduler.ClientThreadScheduler;
 import net.runelite.api.Client;
-import net.runelite.client.callback.ClientThread;
 import net.runelite.client.game.SpriteManager;
 import okhttp3.OkHttpClient;
 
@@ -30,8 +33,12 @@ public class TaskDataClient
 	@Inject private Gson gson;
 	@Inject private DataStoreReader dataStoreReader;
 	@Inject private Client client;
-	@Inject private ClientThread clientThread;
+	@Inject private ClientThreadScheduler clientThreadScheduler;
 	@Inject private SpriteManager spriteManager;
+	@Inject private MetricsRegistry metricsRegistry;
+
+	// Parsed task definitions by task json name, populated on selection or by the preloader
+	private final Map<String, List<TaskDefinition>> taskDefinitionsCache = new ConcurrentHashMap<>();
 
 	public TaskDataClient()
 	{
@@ -39,17 +46,21 @@ public class TaskDataClient
 	}
 
 	public HashMap<String, TaskType> getTaskTypes() throws Exception {
+		long fetchStart = System.nanoTime();
 		try (InputStream stream = this.dataStoreReader.readTaskTypes(this.manifestClient.getManifest().taskTypeMetadata);
 			 InputStreamReader responseReader = new InputStreamReader(stream, StandardCharsets.UTF_8))
 		{
+			metricsRegistry.histogram(MetricsRegistry.DATA_FETCH).recordSince(fetchStart);
 			Type listType = TypeToken.getParameterized(ArrayList.class, TaskTypeDefinition.class).getType();
 
+			long parseStart = System.nanoTime();
 			List<TaskTypeDefinition> taskTypeDefinitions = this.gson.fromJson(responseReader, listType);
+			metricsRegistry.histogram(MetricsRegistry.JSON_PARSE).recordSince(parseStart);
 
 			HashMap<String, TaskType> taskTypes = new HashMap<>();
 			for (TaskTypeDefinition taskTypeDefinition : taskTypeDefinitions)
 			{
-				taskTypes.put(taskTypeDefinition.getTaskJsonName(), new TaskType(client, clientThread, spriteManager, taskTypeDefinition));
+				taskTypes.put(taskTypeDefinition.getTaskJsonName(), new TaskType(client, clientThreadScheduler, spriteManager, taskTypeDefinition));
 			}
 			return taskTypes;
 		}
@@ -57,11 +68,34 @@ public class TaskDataClient
 
 	public List<TaskDefinition> getTaskDefinitions(String jsonFilename) throws Exception
 	{
+		List<TaskDefinition> cached = taskDefinitionsCache.get(jsonFilename);
+		if (cached != null)
+		{
+			log.debug("getTaskDefinitions cache hit {}", jsonFilename);
+			return cached;
+		}
+
+		long fetchStart = System.nanoTime();
 		try(InputStream stream = this.dataStoreReader.readTasks(jsonFilename);
 		    InputStreamReader responseReader = new InputStreamReader(stream, StandardCharsets.UTF_8))
 		{
+			metricsRegistry.histogram(MetricsRegistry.DATA_FETCH).recordSince(fetchStart);
 			Type listType = TypeToken.getParameterized(ArrayList.class, TaskDefinition.class).getType();
-			return this.gson.fromJson(responseReader, listType);
+			long parseStart = System.nanoTime();
+			List<TaskDefinition> taskDefinitions = this.gson.fromJson(responseReader, listType);
+			metricsRegistry.histogram(MetricsRegistry.JSON_PARSE).recordSince(parseStart);
+			taskDefinitionsCache.put(jsonFilename, taskDefinitions);
+			return taskDefinitions;
 		}
 	}
+
+	public boolean hasTaskDefinitions(String jsonFilename)
+	{
+		return taskDefinitionsCache.containsKey(jsonFilename);
+	}
+
+	public void clearTaskDefinitionsCache()
+	{
+		taskDefinitionsCache.clear();
+	}
 }
@@ -0,0 +1,128 @@
+package net.reldo.taskstracker.data.jsondatastore;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import net.reldo.taskstracker.data.task.TaskType;
+
+/**
+ * Fetches and parses the task json of other enabled task types while the plugin is idle,
+ * so switching task type can be served from the {@link TaskDataClient} cache.
+ * Only network and json work is done here; nothing is queued on the client thread.
+ * Preloading stops for good on user interaction or game loading, and starts over on the next login or task type switch.
+ */
+@Singleton
+@Slf4j
+public class TaskDataPreloader
+{
+	private static final long IDLE_DELAY_MS = 3 * 1000;
+
+	@Inject private TaskDataClient taskDataClient;
+
+	private final Deque<String> pendingTaskJsonNames = new ArrayDeque<>();
+	private ScheduledExecutorService executor;
+	private ScheduledFuture<?> scheduledStep;
+
+	/**
+	 * Queue the enabled task types, other than the current one, for preloading.
+	 *
+	 * @param taskTypes all known task types
+	 * @param currentTaskJsonName task type already loaded, skipped
+	 */
+	public synchronized void start(Collection<TaskType> taskTypes, String currentTaskJsonName)
+	{
+		pendingTaskJsonNames.clear();
+		for (TaskType taskType : taskTypes)
+		{
+			String taskJsonName = taskType.getTaskJsonName();
+			if (!taskType.isEnabled() || taskJsonName.equals(currentTaskJsonName) || taskDataClient.hasTaskDefinitions(taskJsonName))
+			{
+				continue;
+			}
+			pendingTaskJsonNames.add(taskJsonName);
+		}
+		if (pendingTaskJsonNames.isEmpty())
+		{
+			return;
+		}
+
+		log.debug("preloading task types {}", pendingTaskJsonNames);
+		if (executor == null)
+		{
+			executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "tasks-tracker-preloader");
+				thread.setDaemon(true);
+				thread.setPriority(Thread.MIN_PRIORITY);
+				return thread;
+			});
+		}
+		scheduleNextStep();
+	}
+
+	/**
+	 * Drop any task types not yet preloaded, when the user interacts or the game starts loading.
+	 */
+	public synchronized void cancel()
+	{
+		if (!pendingTaskJsonNames.isEmpty())
+		{
+			log.debug("cancel preloading {}", pendingTaskJsonNames);
+		}
+		pendingTaskJsonNames.clear();
+		if (scheduledStep != null)
+		{
+			scheduledStep.cancel(false);
+			scheduledStep = null;
+		}
+	}
+
+	public synchronized void shutDown()
+	{
+		cancel();
+		if (executor != null)
+		{
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
+	private synchronized void scheduleNextStep()
+	{
+		if (executor == null || pendingTaskJsonNames.isEmpty())
+		{
+			return;
+		}
+		scheduledStep = executor.schedule(this::step, IDLE_DELAY_MS, TimeUnit.MILLISECONDS);
+	}
+
+	private void step()
+	{
+		String taskJsonName;
+		synchronized (this)
+		{
+			taskJsonName = pendingTaskJsonNames.poll();
+		}
+		if (taskJsonName == null)
+		{
+			return;
+		}
+
+		try
+		{
+			taskDataClient.getTaskDefinitions(taskJsonName);
+			log.debug("preloaded task type {}", taskJsonName);
+		}
+		catch (Exception ex)
+		{
+			log.warn("Unable to preload task type {}", taskJsonName, ex);
+		}
+		scheduleNextStep();
+	}
+}
@@ -0,0 +1,20 @@
+package net.reldo.taskstracker.data.planner;
+
+import java.util.List;
+import lombok.Value;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+
+/**
+ * The tasks planned to reach a points target.
+ */
+@Value
+public class PointsPlan
+{
+	int targetPoints;
+	int completedPoints;
+	int plannedPoints;
+	long cost;
+	// False if every remaining task together falls short of the target, the plan then holds all of them
+	boolean reachable;
+	List<TaskFromStruct> tasks;
+}
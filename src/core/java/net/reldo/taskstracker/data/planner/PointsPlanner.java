@@ -0,0 +1,197 @@
+package net.reldo.taskstracker.data.planner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import net.reldo.taskstracker.TasksTrackerConfig;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+
+/**
+ * Picks the cheapest set of incomplete, unignored tasks that reaches a points target.
+ * <p>
+ * Every task of a tier is worth the same points, so the cheapest way to take k tasks of a tier is its k cheapest.
+ * That leaves a small knapsack over the tiers: for each tier and each points total up to the target, the cheapest
+ * number of tasks to take from it. Points are divided by the greatest common divisor of the tier points first,
+ * which keeps the table a few thousand entries wide even for league targets.
+ */
+@Singleton
+@Slf4j
+public class PointsPlanner
+{
+	// Cost of any task, so fewer tasks are preferred when nothing else separates them
+	static final int BASE_COST = 100;
+	// Difficulty given to tasks without a completion percent
+	private static final int UNKNOWN_DIFFICULTY = 50;
+
+	@Inject private TasksTrackerConfig config;
+
+	/**
+	 * Plan the tasks to reach a points total, costing tasks with the weights from config.
+	 *
+	 * @param tasks tasks of the current task type
+	 * @param targetPoints the points total to reach, including points of completed tasks
+	 * @param playerSkills real skill levels by skill ordinal, or null if unknown
+	 */
+	public PointsPlan plan(Collection<TaskFromStruct> tasks, int targetPoints, int[] playerSkills)
+	{
+		long start = System.nanoTime();
+		PointsPlan plan = plan(tasks, targetPoints, playerSkills, config.plannerRarityWeight(), config.plannerSkillGapWeight());
+		log.debug("planned {} tasks for {} points in {}us", plan.getTasks().size(), targetPoints, (System.nanoTime() - start) / 1000);
+		return plan;
+	}
+
+	PointsPlan plan(Collection<TaskFromStruct> tasks, int targetPoints, int[] playerSkills, int rarityWeight, int skillGapWeight)
+	{
+		int completedPoints = 0;
+		// Candidates by the points they are worth
+		Map<Integer, List<Candidate>> candidatesByPoints = new TreeMap<>();
+		for (TaskFromStruct task : tasks)
+		{
+			int points = task.getPoints();
+			if (task.isCompleted())
+			{
+				completedPoints += points;
+				continue;
+			}
+			if (task.isIgnored() || points <= 0)
+			{
+				continue;
+			}
+			long cost = BASE_COST
+				+ (long) rarityWeight * getDifficulty(task)
+				+ (long) skillGapWeight * task.getMissingLevels(playerSkills);
+			candidatesByPoints.computeIfAbsent(points, k -> new ArrayList<>()).add(new Candidate(task, cost));
+		}
+
+		int neededPoints = targetPoints - completedPoints;
+		if (neededPoints <= 0 || candidatesByPoints.isEmpty())
+		{
+			return new PointsPlan(targetPoints, completedPoints, 0, 0, neededPoints <= 0, new ArrayList<>());
+		}
+
+		int divisor = 0;
+		for (int points : candidatesByPoints.keySet())
+		{
+			divisor = gcd(divisor, points);
+		}
+		int width = (neededPoints + divisor - 1) / divisor;
+
+		List<List<Candidate>> groups = new ArrayList<>(candidatesByPoints.values());
+		int[] units = new int[groups.size()];
+		int group = 0;
+		for (Map.Entry<Integer, List<Candidate>> entry : candidatesByPoints.entrySet())
+		{
+			entry.getValue().sort(Comparator.comparingLong(Candidate::getCost));
+			units[group++] = entry.getKey() / divisor;
+		}
+
+		// cheapest[q] is the lowest cost reaching q units (the last entry meaning the target or more) with the tiers so far
+		long[] cheapest = new long[width + 1];
+		Arrays.fill(cheapest, Long.MAX_VALUE);
+		cheapest[0] = 0;
+		int[][] taken = new int[groups.size()][width + 1];
+		int[][] previous = new int[groups.size()][width + 1];
+		for (group = 0; group < groups.size(); group++)
+		{
+			List<Candidate> candidates = groups.get(group);
+			int unit = units[group];
+			long[] next = cheapest.clone();
+			for (int q = 0; q <= width; q++)
+			{
+				previous[group][q] = q;
+			}
+			for (int p = 0; p < width; p++)
+			{
+				if (cheapest[p] == Long.MAX_VALUE)
+				{
+					continue;
+				}
+				long cost = cheapest[p];
+				for (int k = 1; k <= candidates.size(); k++)
+				{
+					cost += candidates.get(k - 1).getCost();
+					int q = Math.min(width, p + k * unit);
+					if (cost < next[q])
+					{
+						next[q] = cost;
+						taken[group][q] = k;
+						previous[group][q] = p;
+					}
+					if (q == width)
+					{
+						break;
+					}
+				}
+			}
+			cheapest = next;
+		}
+
+		if (cheapest[width] == Long.MAX_VALUE)
+		{
+			List<TaskFromStruct> allTasks = new ArrayList<>();
+			int allPoints = 0;
+			long allCost = 0;
+			for (Map.Entry<Integer, List<Candidate>> entry : candidatesByPoints.entrySet())
+			{
+				for (Candidate candidate : entry.getValue())
+				{
+					allTasks.add(candidate.getTask());
+					allPoints += entry.getKey();
+					allCost += candidate.getCost();
+				}
+			}
+			return new PointsPlan(targetPoints, completedPoints, allPoints, allCost, false, allTasks);
+		}
+
+		List<TaskFromStruct> planned = new ArrayList<>();
+		int plannedPoints = 0;
+		int q = width;
+		for (group = groups.size() - 1; group >= 0; group--)
+		{
+			int k = taken[group][q];
+			if (previous[group][q] != q)
+			{
+				for (int i = 0; i < k; i++)
+				{
+					planned.add(groups.get(group).get(i).getTask());
+				}
+				plannedPoints += k * units[group] * divisor;
+				q = previous[group][q];
+			}
+		}
+		return new PointsPlan(targetPoints, completedPoints, plannedPoints, cheapest[width], true, planned);
+	}
+
+	/**
+	 * How rarely the task is completed, from 0 for every player to 100 for none.
+	 */
+	private static int getDifficulty(TaskFromStruct task)
+	{
+		Float completionPercent = task.getCompletionPercent();
+		if (completionPercent == null)
+		{
+			return UNKNOWN_DIFFICULTY;
+		}
+		return Math.round(100 - Math.max(0, Math.min(100, completionPercent)));
+	}
+
+	private static int gcd(int a, int b)
+	{
+		return b == 0 ? a : gcd(b, a % b);
+	}
+
+	@Value
+	private static class Candidate
+	{
+		TaskFromStruct task;
+		long cost;
+	}
+}
@@ -0,0 +1,294 @@
+package net.reldo.taskstracker.data.recommendation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import net.reldo.taskstracker.data.jsondatastore.types.FilterConfig;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskIndex;
+import net.reldo.taskstracker.data.task.TaskStateChange;
+import net.reldo.taskstracker.data.task.TaskStateListener;
+import net.reldo.taskstracker.data.task.TaskType;
+import net.runelite.api.Skill;
+
+/**
+ * Ranks the incomplete tasks of the current task type by how worthwhile they look next: the points of their tier,
+ * how many players complete them, how close the player's levels are to their requirements, and how many recent
+ * completions share their area, category or other filtered params.
+ * <p>
+ * Scores are kept in a sorted set and only the tasks a change affects are rescored: a completion rescores the tasks
+ * sharing a param value with it, found through the {@link TaskIndex}, and a level change the tasks requiring that skill.
+ */
+@Singleton
+@Slf4j
+public class RecommendationService implements TaskStateListener
+{
+	// Completions counted towards affinity
+	static final int RECENT_COMPLETIONS = 50;
+	// Recent completions sharing a param value that give the full affinity for it
+	private static final int AFFINITY_SATURATION = 5;
+	private static final double AFFINITY_WEIGHT = 0.5;
+	// Missing levels that halve the readiness score
+	private static final double SKILL_GAP_SCALE = 5;
+	private static final double UNKNOWN_COMPLETION = 0.5;
+	private static final String TIER_PARAM = "tier";
+	private static final Comparator<TaskFromStruct> RECENT_FIRST = Comparator
+		.comparingLong(TaskFromStruct::getCompletedOn).reversed()
+		.thenComparing(TaskFromStruct::getStructId);
+
+	@Inject private TaskIndex taskIndex;
+
+	// Positions match the task list and the task index
+	private List<TaskFromStruct> tasks = new ArrayList<>();
+	private final Map<Integer, Integer> positionsByStructId = new HashMap<>();
+	private double[] scores = new double[0];
+	private final TreeSet<Integer> ranked = new TreeSet<>(Comparator
+		.comparingDouble((Integer position) -> -scores[position])
+		.thenComparingInt(position -> position));
+	private final Map<Skill, List<Integer>> positionsBySkill = new EnumMap<>(Skill.class);
+	private List<String> affinityParams = new ArrayList<>();
+	// Recent completion counts by param name then param value
+	private final Map<String, Map<Integer, Integer>> recentCounts = new HashMap<>();
+	private final ArrayDeque<TaskFromStruct> recentCompletions = new ArrayDeque<>();
+	private int[] playerSkills;
+	private int maxPoints;
+
+	/**
+	 * Score every task of a task list, for a new task list or when task status was loaded without state change events.
+	 * Must follow the task index rebuild of the same list.
+	 */
+	public synchronized void rebuild(TaskType taskType, List<TaskFromStruct> tasks)
+	{
+		long start = System.nanoTime();
+		this.tasks = new ArrayList<>(tasks);
+		positionsByStructId.clear();
+		positionsBySkill.clear();
+		ranked.clear();
+		scores = new double[tasks.size()];
+		maxPoints = taskType == null ? 0 : taskType.getTierPoints().values().stream().mapToInt(Integer::intValue).max().orElse(0);
+
+		affinityParams = new ArrayList<>();
+		if (taskType != null)
+		{
+			for (FilterConfig filterConfig : taskType.getFilters())
+			{
+				String paramName = filterConfig.getValueName();
+				if (paramName != null && !paramName.equals(TIER_PARAM) && !affinityParams.contains(paramName))
+				{
+					affinityParams.add(paramName);
+				}
+			}
+		}
+
+		List<TaskFromStruct> completed = new ArrayList<>();
+		for (int position = 0; position < tasks.size(); position++)
+		{
+			TaskFromStruct task = tasks.get(position);
+			positionsByStructId.put(task.getStructId(), position);
+			for (Skill skill : task.getSkillRequirements().keySet())
+			{
+				positionsBySkill.computeIfAbsent(skill, k -> new ArrayList<>()).add(position);
+			}
+			if (task.isCompleted())
+			{
+				completed.add(task);
+			}
+		}
+
+		// The most recent completions, newest first
+		completed.sort(RECENT_FIRST);
+		recentCompletions.clear();
+		recentCounts.clear();
+		for (TaskFromStruct task : completed.subList(0, Math.min(RECENT_COMPLETIONS, completed.size())))
+		{
+			recentCompletions.addLast(task);
+			countRecent(task, 1);
+		}
+
+		for (int position = 0; position < tasks.size(); position++)
+		{
+			rescore(position);
+		}
+		log.debug("scored {} tasks in {}us", tasks.size(), (System.nanoTime() - start) / 1000);
+	}
+
+	@Override
+	public synchronized void onTaskStateChanged(TaskFromStruct task, TaskStateChange change, long timestamp)
+	{
+		Integer position = positionsByStructId.get(task.getStructId());
+		if (position == null)
+		{
+			return;
+		}
+		if (change == TaskStateChange.COMPLETED)
+		{
+			ranked.remove(position);
+			recentCompletions.addFirst(task);
+			countRecent(task, 1);
+			rescoreSharingParams(task);
+			if (recentCompletions.size() > RECENT_COMPLETIONS)
+			{
+				TaskFromStruct oldest = recentCompletions.removeLast();
+				countRecent(oldest, -1);
+				rescoreSharingParams(oldest);
+			}
+		}
+		else if (change == TaskStateChange.UNCOMPLETED)
+		{
+			if (recentCompletions.remove(task))
+			{
+				countRecent(task, -1);
+				rescoreSharingParams(task);
+				// Refill the window with the newest completion it left out, as a rebuild would
+				TaskFromStruct refill = getNewestCompletionOutsideWindow();
+				if (refill != null)
+				{
+					recentCompletions.addLast(refill);
+					countRecent(refill, 1);
+					rescoreSharingParams(refill);
+				}
+			}
+			rescore(position);
+		}
+	}
+
+	/**
+	 * Rescore the tasks requiring any skill whose level changed.
+	 *
+	 * @param playerSkills real skill levels by skill ordinal
+	 */
+	public synchronized void updatePlayerSkills(int[] playerSkills)
+	{
+		int[] previousSkills = this.playerSkills;
+		this.playerSkills = playerSkills == null ? null : playerSkills.clone();
+		if (previousSkills == null || playerSkills == null || previousSkills.length != playerSkills.length)
+		{
+			for (int position = 0; position < tasks.size(); position++)
+			{
+				rescore(position);
+			}
+			return;
+		}
+		for (Skill skill : Skill.values())
+		{
+			int ordinal = skill.ordinal();
+			if (ordinal < playerSkills.length && previousSkills[ordinal] != playerSkills[ordinal])
+			{
+				positionsBySkill.getOrDefault(skill, Collections.emptyList()).forEach(this::rescore);
+			}
+		}
+	}
+
+	/**
+	 * Get the tasks best first, the incomplete tasks by score followed by the completed tasks in their default order.
+	 */
+	public synchronized List<TaskFromStruct> getRecommendedTasks()
+	{
+		List<TaskFromStruct> recommended = new ArrayList<>(tasks.size());
+		for (int position : ranked)
+		{
+			recommended.add(tasks.get(position));
+		}
+		for (TaskFromStruct task : tasks)
+		{
+			if (task.isCompleted())
+			{
+				recommended.add(task);
+			}
+		}
+		return recommended;
+	}
+
+	private TaskFromStruct getNewestCompletionOutsideWindow()
+	{
+		TaskFromStruct newest = null;
+		for (TaskFromStruct task : tasks)
+		{
+			if (task.isCompleted() && !recentCompletions.contains(task) && (newest == null || RECENT_FIRST.compare(task, newest) < 0))
+			{
+				newest = task;
+			}
+		}
+		return newest;
+	}
+
+	private void rescore(int position)
+	{
+		// The score is part of the set's ordering, so the task leaves the set before it changes
+		ranked.remove(position);
+		TaskFromStruct task = tasks.get(position);
+		if (task.isCompleted())
+		{
+			return;
+		}
+		scores[position] = score(task);
+		ranked.add(position);
+	}
+
+	private void rescoreSharingParams(TaskFromStruct task)
+	{
+		for (String paramName : affinityParams)
+		{
+			Integer value = task.getIntParam(paramName);
+			if (value == null)
+			{
+				continue;
+			}
+			BitSet sharing = taskIndex.getParamValue(paramName, value);
+			for (int position = sharing.nextSetBit(0); position >= 0 && position < tasks.size(); position = sharing.nextSetBit(position + 1))
+			{
+				rescore(position);
+			}
+		}
+	}
+
+	private void countRecent(TaskFromStruct task, int change)
+	{
+		for (String paramName : affinityParams)
+		{
+			Integer value = task.getIntParam(paramName);
+			if (value != null)
+			{
+				recentCounts.computeIfAbsent(paramName, k -> new HashMap<>()).merge(value, change, Integer::sum);
+			}
+		}
+	}
+
+	private double score(TaskFromStruct task)
+	{
+		double points = maxPoints == 0 ? 0 : (double) task.getPoints() / maxPoints;
+
+		Float completionPercent = task.getCompletionPercent();
+		double completion = completionPercent == null ? UNKNOWN_COMPLETION : Math.max(0, Math.min(100, completionPercent)) / 100;
+
+		double readiness = 1 / (1 + task.getMissingLevels(playerSkills) / SKILL_GAP_SCALE);
+
+		double affinity = 0;
+		if (!affinityParams.isEmpty())
+		{
+			for (String paramName : affinityParams)
+			{
+				Integer value = task.getIntParam(paramName);
+				if (value == null)
+				{
+					continue;
+				}
+				int count = recentCounts.getOrDefault(paramName, Collections.emptyMap()).getOrDefault(value, 0);
+				affinity += Math.min(1.0, (double) count / AFFINITY_SATURATION);
+			}
+			affinity /= affinityParams.size();
+		}
+
+		return points + completion + readiness + AFFINITY_WEIGHT * affinity;
+	}
+}
@@ -0,0 +1,309 @@
+package net.reldo.taskstracker.data.reldo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import net.reldo.taskstracker.data.TrackerConfigStore;
+import net.reldo.taskstracker.data.history.SnapshotReason;
+import net.reldo.taskstracker.data.history.TaskSnapshotHistory;
+import net.reldo.taskstracker.data.jsondatastore.TaskDataClient;
+import net.reldo.taskstracker.data.jsondatastore.types.TaskDefinition;
+import net.reldo.taskstracker.data.task.ConfigTaskSave;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskService;
+import net.reldo.taskstracker.data.task.TaskType;
+import net.runelite.client.config.ConfigManager;
+import net.runelite.client.config.RuneScapeProfile;
+
+/**
+ * Imports a directory or zip archive of exports for any task types and RuneScape profiles. Each file is matched
+ * to a profile by its player name and merged into that profile's saved data as a single pasted import would be,
+ * then every changed save is written in one pass at the end and any status stashed for it is dropped.
+ */
+@Singleton
+@Slf4j
+public class BulkImportService
+{
+	@Inject private ReldoImportService reldoImportService;
+	@Inject private TaskService taskService;
+	@Inject private TaskDataClient taskDataClient;
+	@Inject private TrackerConfigStore trackerConfigStore;
+	@Inject private TaskSnapshotHistory taskSnapshotHistory;
+	@Inject private ConfigManager configManager;
+	@Inject private ScheduledExecutorService executor;
+
+	@Value
+	public static class BulkImportResult
+	{
+		int filesImported;
+		int filesSkipped;
+		int tasksMerged;
+		int unknownTasksSkipped;
+		Set<String> rsProfileKeys;
+		Set<String> taskJsonNames;
+	}
+
+	@Value
+	private static class PendingSave
+	{
+		String rsProfileKey;
+		TaskType taskType;
+		Map<Integer, Map<Integer, ConfigTaskSave>> saveDataByShard;
+	}
+
+	private static class Progress
+	{
+		int filesImported;
+		int filesSkipped;
+		int tasksMerged;
+		int unknownTasksSkipped;
+		final Set<String> rsProfileKeys = new HashSet<>();
+		final Set<String> taskJsonNames = new HashSet<>();
+		final List<PendingSave> pendingSaves = new ArrayList<>();
+		// Profiles imported into, by profile key
+		final Map<String, RuneScapeProfile> profiles = new HashMap<>();
+	}
+
+	/**
+	 * Import every .json and .json.gz export in a directory or zip archive.
+	 */
+	public CompletableFuture<BulkImportResult> importFrom(Path source)
+	{
+		String currentRsProfileKey = configManager.getRSProfileKey();
+		Progress progress = new Progress();
+		return CompletableFuture.supplyAsync(() -> groupImports(readImports(source, progress), currentRsProfileKey, progress), executor)
+			.thenCompose(importsByTaskType -> {
+				CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+				for (Map.Entry<TaskType, Map<String, List<ReldoImport>>> entry : importsByTaskType.entrySet())
+				{
+					chain = chain.thenCompose(v -> loadTasks(entry.getKey()))
+						.thenAcceptAsync(tasks -> merge(entry.getKey(), tasks, entry.getValue(), progress), executor);
+				}
+				return chain;
+			})
+			.thenComposeAsync(v -> {
+				// All merging is done before anything is written, so a failure part way leaves the saves untouched
+				List<CompletableFuture<Void>> dropped = new ArrayList<>();
+				for (PendingSave save : progress.pendingSaves)
+				{
+					trackerConfigStore.writeTaskTypeSave(save.getRsProfileKey(), save.getTaskType(), save.getSaveDataByShard());
+					// A status stashed when leaving the profile predates the import and would be saved over it
+					RuneScapeProfile profile = progress.profiles.get(save.getRsProfileKey());
+					if (profile != null)
+					{
+						String profileStatusKey = TaskService.getProfileStatusKey(profile.getAccountHash(), profile.getType());
+						dropped.add(taskService.dropStashedTaskStatus(profileStatusKey, save.getTaskType().getTaskJsonName()));
+					}
+				}
+				return CompletableFuture.allOf(dropped.toArray(new CompletableFuture[0]));
+			}, executor)
+			.thenApply(v -> new BulkImportResult(progress.filesImported, progress.filesSkipped, progress.tasksMerged,
+				progress.unknownTasksSkipped, progress.rsProfileKeys, progress.taskJsonNames));
+	}
+
+	private List<ReldoImport> readImports(Path source, Progress progress)
+	{
+		List<ReldoImport> imports = new ArrayList<>();
+		try
+		{
+			if (Files.isDirectory(source))
+			{
+				List<Path> files;
+				try (Stream<Path> paths = Files.list(source))
+				{
+					files = paths.filter(path -> isImportFile(path.getFileName().toString())).sorted().collect(Collectors.toList());
+				}
+				for (Path file : files)
+				{
+					try (InputStream in = Files.newInputStream(file))
+					{
+						readImport(file.getFileName().toString(), in, imports, progress);
+					}
+				}
+			}
+			else
+			{
+				try (ZipFile zipFile = new ZipFile(source.toFile()))
+				{
+					Enumeration<? extends ZipEntry> entries = zipFile.entries();
+					while (entries.hasMoreElements())
+					{
+						ZipEntry entry = entries.nextElement();
+						if (!entry.isDirectory() && isImportFile(entry.getName()))
+						{
+							try (InputStream in = zipFile.getInputStream(entry))
+							{
+								readImport(entry.getName(), in, imports, progress);
+							}
+						}
+					}
+				}
+			}
+		}
+		catch (IOException ex)
+		{
+			throw new IllegalArgumentException("Unable to read " + source.getFileName() + ": " + ex.getMessage(), ex);
+		}
+		return imports;
+	}
+
+	private void readImport(String name, InputStream in, List<ReldoImport> imports, Progress progress)
+	{
+		try (Reader reader = new InputStreamReader(name.endsWith(".gz") ? new GZIPInputStream(in) : in, StandardCharsets.UTF_8))
+		{
+			imports.add(reldoImportService.read(reader, id -> true).getReldoImport());
+		}
+		catch (IOException | RuntimeException ex)
+		{
+			log.warn("Skipping bulk import file {}", name, ex);
+			progress.filesSkipped++;
+		}
+	}
+
+	private static boolean isImportFile(String name)
+	{
+		return name.endsWith(".json") || name.endsWith(".json.gz");
+	}
+
+	/**
+	 * Group imports by task type and the profile they belong to, skipping those that match neither.
+	 */
+	private Map<TaskType, Map<String, List<ReldoImport>>> groupImports(List<ReldoImport> imports, String currentRsProfileKey, Progress progress)
+	{
+		Map<String, TaskType> taskTypesByJsonName = taskService.getTaskTypesByJsonName();
+		List<RuneScapeProfile> profiles = configManager.getRSProfiles();
+		Map<TaskType, Map<String, List<ReldoImport>>> importsByTaskType = new LinkedHashMap<>();
+		for (ReldoImport reldoImport : imports)
+		{
+			TaskType taskType = taskTypesByJsonName.values().stream()
+				.filter(type -> type.getTaskJsonName().equalsIgnoreCase(reldoImport.getTaskTypeName()))
+				.findFirst()
+				.orElse(null);
+			String rsProfileKey = getRsProfileKey(reldoImport.getRsn(), profiles, currentRsProfileKey);
+			if (taskType == null || rsProfileKey == null)
+			{
+				log.debug("Skipping import of {} for {}, no matching task type or profile", reldoImport.getTaskTypeName(), reldoImport.getRsn());
+				progress.filesSkipped++;
+				continue;
+			}
+			profiles.stream()
+				.filter(profile -> rsProfileKey.equals(profile.getKey()))
+				.findFirst()
+				.ifPresent(profile -> progress.profiles.put(rsProfileKey, profile));
+			importsByTaskType.computeIfAbsent(taskType, type -> new LinkedHashMap<>())
+				.computeIfAbsent(rsProfileKey, key -> new ArrayList<>())
+				.add(reldoImport);
+			progress.filesImported++;
+		}
+		return importsByTaskType;
+	}
+
+	/**
+	 * Find the profile of a player name, preferring the current profile when several profiles share the name.
+	 * Imports without a name belong to the current profile.
+	 */
+	private static String getRsProfileKey(String rsn, List<RuneScapeProfile> profiles, String currentRsProfileKey)
+	{
+		if (rsn == null || rsn.isEmpty())
+		{
+			return currentRsProfileKey;
+		}
+		List<String> matches = profiles.stream()
+			.filter(profile -> rsn.equalsIgnoreCase(profile.getDisplayName()))
+			.map(RuneScapeProfile::getKey)
+			.collect(Collectors.toList());
+		if (matches.contains(currentRsProfileKey))
+		{
+			return currentRsProfileKey;
+		}
+		return matches.isEmpty() ? null : matches.get(0);
+	}
+
+	/**
+	 * Tasks of a task type detached from the task service, with their struct params loaded.
+	 */
+	private CompletableFuture<List<TaskFromStruct>> loadTasks(TaskType taskType)
+	{
+		List<TaskFromStruct> tasks = new ArrayList<>();
+		try
+		{
+			for (TaskDefinition definition : taskDataClient.getTaskDefinitions(taskType.getTaskJsonName()))
+			{
+				tasks.add(new TaskFromStruct(taskType, definition));
+			}
+		}
+		catch (Exception ex)
+		{
+			return CompletableFuture.failedFuture(ex);
+		}
+		return taskService.loadAllTasksStructData(tasks).thenApply(isLoaded -> {
+			if (!isLoaded)
+			{
+				throw new IllegalStateException("Unable to load tasks of " + taskType.getTaskJsonName());
+			}
+			return tasks;
+		});
+	}
+
+	private void merge(TaskType taskType, List<TaskFromStruct> tasks, Map<String, List<ReldoImport>> importsByProfile, Progress progress)
+	{
+		Map<Integer, TaskFromStruct> tasksById = new LinkedHashMap<>();
+		tasks.forEach(task -> tasksById.put(task.getIntParam("id"), task));
+		int shardCount = taskType.getTaskVarps().size();
+
+		importsByProfile.forEach((rsProfileKey, imports) -> {
+			// The same task objects are reused for each profile, starting from that profile's saved data
+			tasks.forEach(TaskFromStruct::clearStatus);
+			Map<Integer, ConfigTaskSave> saveData = trackerConfigStore.readTaskTypeSave(rsProfileKey, taskType.getTaskJsonName(), shardCount).getSaveData();
+			tasks.forEach(task -> {
+				ConfigTaskSave save = saveData.get(task.getStructId());
+				if (save != null)
+				{
+					task.loadConfigSave(save);
+				}
+			});
+			taskSnapshotHistory.record(rsProfileKey, taskType.getTaskJsonName(), tasks, SnapshotReason.IMPORT);
+
+			for (ReldoImport reldoImport : imports)
+			{
+				reldoImport.getTasks().forEach((id, reldoTaskSave) -> {
+					TaskFromStruct task = tasksById.get(id);
+					if (task == null)
+					{
+						progress.unknownTasksSkipped++;
+						return;
+					}
+					task.loadReldoSave(reldoTaskSave);
+					progress.tasksMerged++;
+				});
+			}
+
+			progress.pendingSaves.add(new PendingSave(rsProfileKey, taskType, trackerConfigStore.getSaveDataByShard(tasks)));
+			progress.rsProfileKeys.add(rsProfileKey);
+			progress.taskJsonNames.add(taskType.getTaskJsonName());
+		});
+	}
+}
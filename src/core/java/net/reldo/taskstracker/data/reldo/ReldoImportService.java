@@ -0,0 +1,251 @@
+package net.reldo.taskstracker.data.reldo;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import net.reldo.taskstracker.data.TrackerConfigStore;
+import net.reldo.taskstracker.data.history.SnapshotReason;
+import net.reldo.taskstracker.data.history.TaskSnapshotHistory;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskService;
+import net.reldo.taskstracker.data.task.TaskType;
+import net.reldo.taskstracker.scheduler.ClientThreadScheduler;
+import net.reldo.taskstracker.scheduler.WorkPriority;
+import net.runelite.client.config.ConfigManager;
+
+/**
+ * Imports task data exported by OS League Tools. The json is read with a streaming reader on the executor,
+ * skipping tasks that are not in the current task type, and the result is merged into the tasks in one batch.
+ */
+@Singleton
+@Slf4j
+public class ReldoImportService
+{
+	@Inject private Gson gson;
+	@Inject private ScheduledExecutorService executor;
+	@Inject private ClientThreadScheduler clientThreadScheduler;
+	@Inject private TaskService taskService;
+	@Inject private TrackerConfigStore trackerConfigStore;
+	@Inject private TaskSnapshotHistory taskSnapshotHistory;
+	@Inject private ConfigManager configManager;
+
+	@Value
+	public static class ImportResult
+	{
+		ReldoImport reldoImport;
+		int skippedCount;
+	}
+
+	/**
+	 * Parse import json off the calling thread.
+	 *
+	 * @param knownTaskIds ids of the tasks that can be imported, other tasks are skipped and counted
+	 * @param progress receives the percentage of the json read so far
+	 */
+	public CompletableFuture<ImportResult> parse(String json, Set<Integer> knownTaskIds, IntConsumer progress)
+	{
+		return CompletableFuture.supplyAsync(() -> {
+			try (Reader reader = new ProgressReader(new StringReader(json), json.length(), progress))
+			{
+				return read(reader, knownTaskIds::contains);
+			}
+			catch (IOException ex)
+			{
+				throw new UncheckedIOException(ex);
+			}
+		}, executor);
+	}
+
+	/**
+	 * Merge an import into the tasks of the current task type in one batch on the client thread, then save.
+	 *
+	 * @return A future with the number of tasks merged
+	 */
+	public CompletableFuture<Integer> apply(ReldoImport reldoImport)
+	{
+		return clientThreadScheduler.submit(WorkPriority.HIGH, "import", () -> {
+			TaskType taskType = taskService.getCurrentTaskType();
+			if (taskType == null || !taskType.getTaskJsonName().equalsIgnoreCase(reldoImport.getTaskTypeName()))
+			{
+				throw new IllegalStateException("task type changed before the import was applied");
+			}
+
+			String rsProfileKey = configManager.getRSProfileKey();
+			if (rsProfileKey != null)
+			{
+				taskSnapshotHistory.record(rsProfileKey, taskType.getTaskJsonName(), taskService.getTasks(), SnapshotReason.IMPORT);
+			}
+
+			int merged = 0;
+			for (TaskFromStruct task : taskService.getTasks())
+			{
+				ReldoTaskSave save = reldoImport.getTasks().get(task.getIntParam("id"));
+				if (save != null)
+				{
+					task.loadReldoSave(save);
+					merged++;
+				}
+			}
+			taskService.rebuildStatusIndexes();
+			return merged;
+		}).thenApplyAsync(merged -> {
+			trackerConfigStore.saveCurrentTaskTypeData();
+			return merged;
+		}, executor);
+	}
+
+	/**
+	 * Read import json in the OS League Tools format. Tasks Tracker exports are read too, their task type,
+	 * display name and tracked dates standing in for the task type name, rsn and todo dates.
+	 */
+	ImportResult read(Reader reader, IntPredicate isKnownTask) throws IOException
+	{
+		ReldoImport reldoImport = new ReldoImport();
+		HashMap<Integer, ReldoTaskSave> tasks = new HashMap<>();
+		reldoImport.setTasks(tasks);
+		int skippedCount = 0;
+
+		JsonReader jsonReader = new JsonReader(reader);
+		jsonReader.setLenient(true);
+		try
+		{
+			jsonReader.beginObject();
+			while (jsonReader.hasNext())
+			{
+				switch (jsonReader.nextName())
+				{
+					case "taskTypeName":
+					case "taskType":
+						reldoImport.setTaskTypeName(nextStringOrNull(jsonReader));
+						break;
+					case "version":
+						reldoImport.setVersion(jsonReader.nextInt());
+						break;
+					case "rsn":
+					case "displayName":
+						reldoImport.setRsn(nextStringOrNull(jsonReader));
+						break;
+					case "tasks":
+						jsonReader.beginObject();
+						while (jsonReader.hasNext())
+						{
+							String id = jsonReader.nextName();
+							Integer taskId = parseTaskId(id);
+							if (taskId == null || !isKnownTask.test(taskId))
+							{
+								log.debug("skipping unknown task id {} in import", id);
+								jsonReader.skipValue();
+								skippedCount++;
+								continue;
+							}
+							tasks.put(taskId, gson.fromJson(jsonReader, ReldoTaskSave.class));
+						}
+						jsonReader.endObject();
+						break;
+					default:
+						jsonReader.skipValue();
+				}
+			}
+			jsonReader.endObject();
+		}
+		catch (IllegalStateException | NumberFormatException ex)
+		{
+			throw new JsonParseException("Unexpected import data at " + jsonReader.getPath(), ex);
+		}
+
+		if (reldoImport.getTaskTypeName() == null)
+		{
+			throw new JsonParseException("Import data has no task type");
+		}
+		return new ImportResult(reldoImport, skippedCount);
+	}
+
+	private static String nextStringOrNull(JsonReader jsonReader) throws IOException
+	{
+		if (jsonReader.peek() == JsonToken.NULL)
+		{
+			jsonReader.nextNull();
+			return null;
+		}
+		return jsonReader.nextString();
+	}
+
+	private static Integer parseTaskId(String id)
+	{
+		try
+		{
+			return Integer.parseInt(id);
+		}
+		catch (NumberFormatException ex)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * Reports how much of the input has been read, in whole percent.
+	 */
+	private static class ProgressReader extends FilterReader
+	{
+		private final long length;
+		private final IntConsumer progress;
+		private long read;
+		private int lastPercent = -1;
+
+		private ProgressReader(Reader in, long length, IntConsumer progress)
+		{
+			super(in);
+			this.length = Math.max(length, 1);
+			this.progress = progress;
+		}
+
+		@Override
+		public int read() throws IOException
+		{
+			int c = super.read();
+			if (c >= 0)
+			{
+				advance(1);
+			}
+			return c;
+		}
+
+		@Override
+		public int read(char[] buffer, int offset, int count) throws IOException
+		{
+			int n = super.read(buffer, offset, count);
+			if (n > 0)
+			{
+				advance(n);
+			}
+			return n;
+		}
+
+		private void advance(int n)
+		{
+			read += n;
+			int percent = (int) (read * 100 / length);
+			if (percent != lastPercent)
+			{
+				lastPercent = percent;
+				progress.accept(percent);
+			}
+		}
+	}
+}
@@ -1,11 +1,14 @@
 package net.reldo.taskstracker.data.reldo;
 
+import com.google.gson.annotations.SerializedName;
 import lombok.Data;
 
 @Data
 public class ReldoTaskSave
 {
 	long completed;
+	// Tasks Tracker exports call this tracked
+	@SerializedName(value = "todo", alternate = {"tracked"})
 	long todo;
 	long ignored;
 	int order;
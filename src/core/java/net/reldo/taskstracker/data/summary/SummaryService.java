@@ -0,0 +1,135 @@
+package net.reldo.taskstracker.data.summary;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import net.reldo.taskstracker.data.jsondatastore.types.FilterConfig;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskStateChange;
+import net.reldo.taskstracker.data.task.TaskStateListener;
+import net.reldo.taskstracker.data.task.TaskType;
+
+/**
+ * Task counts and point totals of the current task type, overall, per tier and per filter value.
+ * Rebuilt in one pass when task status is loaded, then kept up to date from task state changes
+ * so reading a total never scans the task list.
+ */
+@Singleton
+@Slf4j
+public class SummaryService implements TaskStateListener
+{
+	private static final String TIER_PARAM = "tier";
+
+	private TaskCounts totals = new TaskCounts();
+	// Counts by param name then param value, for the tier param and the params of the task type's filters
+	private final Map<String, Map<Integer, TaskCounts>> paramCounts = new HashMap<>();
+	private List<String> paramNames = new ArrayList<>();
+
+	/**
+	 * Recount the tasks of a task type, for when their status is loaded without state change events.
+	 */
+	public synchronized void rebuild(TaskType taskType, Collection<TaskFromStruct> tasks)
+	{
+		totals = new TaskCounts();
+		paramCounts.clear();
+		paramNames = new ArrayList<>();
+		paramNames.add(TIER_PARAM);
+		if (taskType != null)
+		{
+			for (FilterConfig filterConfig : taskType.getFilters())
+			{
+				String paramName = filterConfig.getValueName();
+				if (paramName != null && !paramNames.contains(paramName))
+				{
+					paramNames.add(paramName);
+				}
+			}
+		}
+
+		for (TaskFromStruct task : tasks)
+		{
+			int points = task.getPoints();
+			add(task, SummaryState.ALL, points, 1);
+			if (task.isCompleted())
+			{
+				add(task, SummaryState.COMPLETED, points, 1);
+			}
+			if (task.isTracked())
+			{
+				add(task, SummaryState.TRACKED, points, 1);
+			}
+			if (task.isIgnored())
+			{
+				add(task, SummaryState.IGNORED, points, 1);
+			}
+		}
+		log.debug("summary rebuilt from {} tasks", tasks.size());
+	}
+
+	@Override
+	public synchronized void onTaskStateChanged(TaskFromStruct task, TaskStateChange change, long timestamp)
+	{
+		switch (change)
+		{
+			case COMPLETED:
+				add(task, SummaryState.COMPLETED, task.getPoints(), 1);
+				break;
+			case UNCOMPLETED:
+				add(task, SummaryState.COMPLETED, task.getPoints(), -1);
+				break;
+			case TRACKED:
+				add(task, SummaryState.TRACKED, task.getPoints(), 1);
+				break;
+			case UNTRACKED:
+				add(task, SummaryState.TRACKED, task.getPoints(), -1);
+				break;
+			case IGNORED:
+				add(task, SummaryState.IGNORED, task.getPoints(), 1);
+				break;
+			case UNIGNORED:
+				add(task, SummaryState.IGNORED, task.getPoints(), -1);
+				break;
+		}
+	}
+
+	/**
+	 * Get the counts of all tasks of the current task type.
+	 */
+	public synchronized TaskCounts getTotals()
+	{
+		return totals.copy();
+	}
+
+	/**
+	 * Get the counts of the tasks with a value of a filtered param.
+	 */
+	public synchronized TaskCounts getParamTotals(String paramName, int value)
+	{
+		Map<Integer, TaskCounts> countsByValue = paramCounts.get(paramName);
+		if (countsByValue == null || !countsByValue.containsKey(value))
+		{
+			return new TaskCounts();
+		}
+		return countsByValue.get(value).copy();
+	}
+
+	private void add(TaskFromStruct task, SummaryState state, int points, int sign)
+	{
+		totals.add(state, points, sign);
+		for (String paramName : paramNames)
+		{
+			Integer value = task.getIntParam(paramName);
+			if (value == null)
+			{
+				continue;
+			}
+			paramCounts.computeIfAbsent(paramName, k -> new HashMap<>())
+				.computeIfAbsent(value, k -> new TaskCounts())
+				.add(state, points, sign);
+		}
+	}
+}
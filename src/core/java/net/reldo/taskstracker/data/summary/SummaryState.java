@@ -0,0 +1,12 @@
+package net.reldo.taskstracker.data.summary;
+
+/**
+ * The task states a summary keeps counts for
+ */
+public enum SummaryState
+{
+	ALL,
+	COMPLETED,
+	TRACKED,
+	IGNORED
+}
@@ -0,0 +1,36 @@
+package net.reldo.taskstracker.data.summary;
+
+/**
+ * Task counts and point totals of a group of tasks, by state.
+ */
+public class TaskCounts
+{
+	private static final SummaryState[] STATES = SummaryState.values();
+
+	private final int[] counts = new int[STATES.length];
+	private final int[] points = new int[STATES.length];
+
+	public int getCount(SummaryState state)
+	{
+		return counts[state.ordinal()];
+	}
+
+	public int getPoints(SummaryState state)
+	{
+		return points[state.ordinal()];
+	}
+
+	void add(SummaryState state, int taskPoints, int sign)
+	{
+		counts[state.ordinal()] += sign;
+		points[state.ordinal()] += sign * taskPoints;
+	}
+
+	TaskCounts copy()
+	{
+		TaskCounts copy = new TaskCounts();
+		System.arraycopy(counts, 0, copy.counts, 0, counts.length);
+		System.arraycopy(points, 0, copy.points, 0, points.length);
+		return copy;
+	}
+}
@@ -16,4 +16,12 @@ public class ConfigTaskSave
 		ignored = task.getIgnoredOn();
 		structId = task.getStructId();
 	}
+
+	public ConfigTaskSave(Integer structId, long completed, long tracked, long ignored)
+	{
+		this.completed = completed;
+		this.tracked = tracked;
+		this.structId = structId;
+		this.ignored = ignored;
+	}
 }
@@ -0,0 +1,104 @@
+package net.reldo.taskstracker.data.task;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import net.reldo.taskstracker.TasksTrackerConfig;
+import net.reldo.taskstracker.metrics.MetricsRegistry;
+import net.reldo.taskstracker.metrics.jfr.VarpFlushEvent;
+import net.reldo.taskstracker.scheduler.ClientThreadScheduler;
+import net.reldo.taskstracker.scheduler.WorkPriority;
+import net.runelite.api.Client;
+
+/**
+ * Reads task completion from the task varps and applies it to the tasks of the current task type.
+ * Each task is read as low priority client thread work, so a full update is spread over client ticks.
+ */
+@Singleton
+@Slf4j
+public class TaskCompletionService
+{
+	@Inject private Client client;
+	@Inject private ClientThreadScheduler clientThreadScheduler;
+	@Inject private TaskService taskService;
+	@Inject private TasksTrackerConfig config;
+	@Inject private MetricsRegistry metricsRegistry;
+
+	/**
+	 * Update task completion status. If no varpId is specified, it updates all tasks in the current task type
+	 *
+	 * @param varpId varp id to update (optional)
+	 * @return A future with the processed tasks, completed once every task has been read
+	 */
+	public CompletableFuture<List<TaskFromStruct>> processVarp(@Nullable Integer varpId)
+	{
+		log.debug("processVarp: " + (varpId != null ? varpId : "all"));
+		long start = System.nanoTime();
+		VarpFlushEvent event = new VarpFlushEvent();
+		event.begin();
+
+		TaskType taskType = taskService.getCurrentTaskType();
+		List<TaskFromStruct> tasks = varpId != null ?
+			taskService.getTasksFromVarpId(varpId) :
+			new ArrayList<>(taskService.getTasks());
+
+		if (varpId == null)
+		{
+			taskService.beginStatusSweep();
+		}
+		List<CompletableFuture<Boolean>> taskFutures = new ArrayList<>();
+		for (TaskFromStruct task : tasks)
+		{
+			taskFutures.add(processTaskStatus(task));
+		}
+
+		CompletableFuture<Void> allTasks = CompletableFuture.allOf(taskFutures.toArray(new CompletableFuture[0]));
+		if (varpId == null)
+		{
+			allTasks = allTasks.whenComplete((v, ex) -> taskService.endStatusSweep(taskType, ex == null));
+		}
+		return allTasks
+			.thenApply(v -> {
+				metricsRegistry.histogram(MetricsRegistry.VARP_PROCESS).recordSince(start);
+				if (event.shouldCommit())
+				{
+					event.varpId = varpId != null ? varpId : -1;
+					event.taskCount = tasks.size();
+					event.completedCount = (int) taskFutures.stream().filter(CompletableFuture::join).count();
+					event.commit();
+				}
+				return tasks;
+			});
+	}
+
+	private CompletableFuture<Boolean> processTaskStatus(TaskFromStruct task)
+	{
+		return clientThreadScheduler.submit(WorkPriority.LOW, "task status " + task.getStructId(), () -> {
+			boolean isTaskCompleted = isTaskCompleted(task);
+			task.setCompleted(isTaskCompleted);
+			if (isTaskCompleted && config.untrackUponCompletion())
+			{
+				task.setTracked(false);
+			}
+			log.debug("process taskFromStruct {} ({}) {}", task.getStringParam("name"), task.getIntParam("id"), isTaskCompleted);
+			return isTaskCompleted;
+		});
+	}
+
+	private boolean isTaskCompleted(TaskFromStruct task)
+	{
+		assert client.isClientThread();
+
+		int taskId = task.getIntParam("id");
+		int varbitIndex = taskId / 32;
+		int bitIndex = taskId % 32;
+		int varpId = task.getTaskType().getTaskVarps().get(varbitIndex);
+		BigInteger varpValue = BigInteger.valueOf(client.getVarpValue(varpId));
+		return varpValue.testBit(bitIndex);
+	}
+}
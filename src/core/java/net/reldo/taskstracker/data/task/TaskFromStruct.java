@@ -1,14 +1,19 @@
 package net.reldo.taskstracker.data.task;
 
 import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import net.reldo.taskstracker.data.jsondatastore.types.TaskDefinition;
+import net.reldo.taskstracker.data.jsondatastore.types.TaskDefinitionSkill;
 import net.reldo.taskstracker.data.reldo.ReldoTaskSave;
 import net.runelite.api.Client;
+import net.runelite.api.Skill;
 import net.runelite.api.StructComposition;
 
 @Slf4j
@@ -30,10 +35,14 @@ public class TaskFromStruct
 	private long trackedOn;
 	@Getter @Setter
 	private long ignoredOn;
+	@Setter
+	private TaskStateListener stateListener;
 
 	private StructComposition _struct;
 	private final Map<String, String> _stringParams = new HashMap<>();
 	private final Map<String, Integer> _intParams = new HashMap<>();
+	// Parsed from the task definition on first use
+	private volatile Map<Skill, Integer> skillRequirements;
 
 	public TaskFromStruct(TaskType taskType, TaskDefinition taskDefinition)
 	{
@@ -112,7 +121,12 @@ public class TaskFromStruct
 		{
 			return;
 		}
+		boolean wasCompleted = isCompleted();
 		completedOn = completed ? now : 0;
+		if (wasCompleted != completed)
+		{
+			notifyStateChanged(completed ? TaskStateChange.COMPLETED : TaskStateChange.UNCOMPLETED, now);
+		}
 	}
 
 	public boolean isTracked()
@@ -127,7 +141,12 @@ public class TaskFromStruct
 		{
 			return;
 		}
+		boolean wasTracked = isTracked();
 		trackedOn = state ? now : 0;
+		if (wasTracked != state)
+		{
+			notifyStateChanged(state ? TaskStateChange.TRACKED : TaskStateChange.UNTRACKED, now);
+		}
 	}
 
 	public boolean isIgnored()
@@ -142,7 +161,25 @@ public class TaskFromStruct
 		{
 			return;
 		}
+		boolean wasIgnored = isIgnored();
 		ignoredOn = state ? now : 0;
+		if (wasIgnored != state)
+		{
+			notifyStateChanged(state ? TaskStateChange.IGNORED : TaskStateChange.UNIGNORED, now);
+		}
+	}
+
+	private void notifyStateChanged(TaskStateChange change, long timestamp)
+	{
+		if (stateListener != null)
+		{
+			stateListener.onTaskStateChanged(this, change, timestamp);
+		}
+	}
+
+	public void clearStatus()
+	{
+		setDates(0, 0, 0);
 	}
 
 	public void loadConfigSave(ConfigTaskSave loadedData)
@@ -205,4 +242,67 @@ public class TaskFromStruct
 	public Float getCompletionPercent() {
 		return getTaskDefinition().getCompletionPercent();
 	}
+
+	/**
+	 * Get the level required of each skill the task names. "SKILLS" and "TOTAL LEVEL" requirements are left out.
+	 */
+	public Map<Skill, Integer> getSkillRequirements()
+	{
+		Map<Skill, Integer> requirements = skillRequirements;
+		if (requirements == null)
+		{
+			requirements = Collections.unmodifiableMap(parseSkillRequirements());
+			skillRequirements = requirements;
+		}
+		return requirements;
+	}
+
+	private Map<Skill, Integer> parseSkillRequirements()
+	{
+		Map<Skill, Integer> requirements = new EnumMap<>(Skill.class);
+		List<TaskDefinitionSkill> skills = taskDefinition.getSkills();
+		if (skills == null)
+		{
+			return requirements;
+		}
+		for (TaskDefinitionSkill requiredSkill : skills)
+		{
+			if (requiredSkill.getSkill() == null || requiredSkill.getLevel() == null)
+			{
+				continue;
+			}
+			try
+			{
+				requirements.put(Skill.valueOf(requiredSkill.getSkill().toUpperCase()), requiredSkill.getLevel());
+			}
+			catch (IllegalArgumentException ex)
+			{
+				// Not a single skill
+			}
+		}
+		return requirements;
+	}
+
+	/**
+	 * Get the levels missing across the task's skill requirements.
+	 *
+	 * @param playerSkills real skill levels by skill ordinal, or null if unknown
+	 */
+	public int getMissingLevels(int[] playerSkills)
+	{
+		if (playerSkills == null)
+		{
+			return 0;
+		}
+		int missing = 0;
+		for (Map.Entry<Skill, Integer> requirement : getSkillRequirements().entrySet())
+		{
+			int ordinal = requirement.getKey().ordinal();
+			if (ordinal < playerSkills.length)
+			{
+				missing += Math.max(0, requirement.getValue() - playerSkills[ordinal]);
+			}
+		}
+		return missing;
+	}
 }
@@ -0,0 +1,248 @@
+package net.reldo.taskstracker.data.task;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.inject.Singleton;
+import net.runelite.api.Skill;
+
+/**
+ * Bitsets over the positions of the current task list: one per value of each int param, one per required skill,
+ * and one each for the completed, tracked and ignored tasks. Filters turn into bitset operations over these, so the number of
+ * tasks a filter value would leave is an and and a cardinality rather than a scan of the tasks. Versions let
+ * callers cache results derived from the index.
+ * <p>
+ * Bitsets handed out are copies, the index itself is only changed under its lock.
+ */
+@Singleton
+public class TaskIndex implements TaskStateListener
+{
+	private int size = 0;
+	private Map<Integer, Integer> positionsByStructId = new HashMap<>();
+	// Tasks by param name then param value
+	private Map<String, Map<Integer, BitSet>> paramValues = new HashMap<>();
+	// Tasks without a value, by param name
+	private Map<String, BitSet> paramMissing = new HashMap<>();
+	// Tasks by required skill, and the tasks without skill requirements
+	private Map<Skill, BitSet> skillTasks = new EnumMap<>(Skill.class);
+	private BitSet noSkillTasks = new BitSet();
+	private final BitSet completed = new BitSet();
+	private final BitSet tracked = new BitSet();
+	private final BitSet ignored = new BitSet();
+
+	// Bumped when the task list is re-indexed, and when any task's status changes
+	private long structureVersion = 0;
+	private long statusVersion = 0;
+
+	/**
+	 * Index the params of a task list. The positions of the index are the positions in the list.
+	 */
+	public synchronized void rebuild(TaskType taskType, List<TaskFromStruct> tasks)
+	{
+		size = tasks.size();
+		positionsByStructId = new HashMap<>();
+		paramValues = new HashMap<>();
+		paramMissing = new HashMap<>();
+		skillTasks = new EnumMap<>(Skill.class);
+		noSkillTasks = new BitSet();
+		structureVersion++;
+		for (int position = 0; position < tasks.size(); position++)
+		{
+			TaskFromStruct task = tasks.get(position);
+			positionsByStructId.put(task.getStructId(), position);
+			for (String paramName : taskType.getIntParamMap().keySet())
+			{
+				Integer value = task.getIntParam(paramName);
+				if (value == null)
+				{
+					paramMissing.computeIfAbsent(paramName, k -> new BitSet()).set(position);
+					continue;
+				}
+				paramValues.computeIfAbsent(paramName, k -> new HashMap<>())
+					.computeIfAbsent(value, k -> new BitSet())
+					.set(position);
+			}
+			Map<Skill, Integer> skillRequirements = task.getSkillRequirements();
+			if (skillRequirements.isEmpty())
+			{
+				noSkillTasks.set(position);
+			}
+			for (Skill skill : skillRequirements.keySet())
+			{
+				skillTasks.computeIfAbsent(skill, k -> new BitSet()).set(position);
+			}
+		}
+		rebuildStatus(tasks);
+	}
+
+	/**
+	 * Re-read the completed, tracked and ignored state of the indexed tasks, after it was loaded without state change events.
+	 */
+	public synchronized void rebuildStatus(List<TaskFromStruct> tasks)
+	{
+		statusVersion++;
+		completed.clear();
+		tracked.clear();
+		ignored.clear();
+		for (TaskFromStruct task : tasks)
+		{
+			Integer position = positionsByStructId.get(task.getStructId());
+			if (position == null)
+			{
+				continue;
+			}
+			completed.set(position, task.isCompleted());
+			tracked.set(position, task.isTracked());
+			ignored.set(position, task.isIgnored());
+		}
+	}
+
+	@Override
+	public synchronized void onTaskStateChanged(TaskFromStruct task, TaskStateChange change, long timestamp)
+	{
+		Integer position = positionsByStructId.get(task.getStructId());
+		if (position == null)
+		{
+			return;
+		}
+		statusVersion++;
+		switch (change)
+		{
+			case COMPLETED:
+			case UNCOMPLETED:
+				completed.set(position, change == TaskStateChange.COMPLETED);
+				break;
+			case TRACKED:
+			case UNTRACKED:
+				tracked.set(position, change == TaskStateChange.TRACKED);
+				break;
+			case IGNORED:
+			case UNIGNORED:
+				ignored.set(position, change == TaskStateChange.IGNORED);
+				break;
+		}
+	}
+
+	public synchronized int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Get a version that changes whenever the indexed tasks or their params change.
+	 */
+	public synchronized long getStructureVersion()
+	{
+		return structureVersion;
+	}
+
+	/**
+	 * Get a version that changes whenever the completed, tracked or ignored state of a task changes.
+	 */
+	public synchronized long getStatusVersion()
+	{
+		return statusVersion;
+	}
+
+	/**
+	 * Get every indexed task.
+	 */
+	public synchronized BitSet all()
+	{
+		BitSet all = new BitSet(size);
+		all.set(0, size);
+		return all;
+	}
+
+	public synchronized BitSet getCompleted()
+	{
+		return (BitSet) completed.clone();
+	}
+
+	public synchronized BitSet getTracked()
+	{
+		return (BitSet) tracked.clone();
+	}
+
+	public synchronized BitSet getIgnored()
+	{
+		return (BitSet) ignored.clone();
+	}
+
+	/**
+	 * Get the tasks with a value of a param.
+	 */
+	public synchronized BitSet getParamValue(String paramName, int value)
+	{
+		BitSet tasks = paramValues.getOrDefault(paramName, Collections.emptyMap()).get(value);
+		return tasks == null ? new BitSet() : (BitSet) tasks.clone();
+	}
+
+	/**
+	 * Get the tasks of each value of a param, by ascending value.
+	 */
+	public synchronized TreeMap<Integer, BitSet> getParamValues(String paramName)
+	{
+		TreeMap<Integer, BitSet> values = new TreeMap<>();
+		paramValues.getOrDefault(paramName, Collections.emptyMap()).forEach((value, tasks) -> values.put(value, (BitSet) tasks.clone()));
+		return values;
+	}
+
+	/**
+	 * Get the tasks requiring each skill, in skill order.
+	 */
+	public synchronized Map<Skill, BitSet> getSkillTasks()
+	{
+		Map<Skill, BitSet> skills = new EnumMap<>(Skill.class);
+		skillTasks.forEach((skill, tasks) -> skills.put(skill, (BitSet) tasks.clone()));
+		return skills;
+	}
+
+	/**
+	 * Get the tasks without skill requirements.
+	 */
+	public synchronized BitSet getNoSkillTasks()
+	{
+		return (BitSet) noSkillTasks.clone();
+	}
+
+	/**
+	 * Get the position of a task in the index, or -1 if it is not indexed.
+	 */
+	public synchronized int getPosition(TaskFromStruct task)
+	{
+		return positionsByStructId.getOrDefault(task.getStructId(), -1);
+	}
+
+	/**
+	 * Get the tasks that have no value for a param.
+	 */
+	public synchronized BitSet getParamMissing(String paramName)
+	{
+		BitSet tasks = paramMissing.get(paramName);
+		return tasks == null ? new BitSet() : (BitSet) tasks.clone();
+	}
+
+	/**
+	 * Count the tasks of a set for each value of a param.
+	 */
+	public synchronized Map<Integer, Integer> countByValue(String paramName, BitSet tasks)
+	{
+		Map<Integer, Integer> counts = new HashMap<>();
+		long[] taskWords = tasks.toLongArray();
+		paramValues.getOrDefault(paramName, Collections.emptyMap()).forEach((value, valueTasks) -> {
+			int count = 0;
+			long[] valueWords = valueTasks.toLongArray();
+			for (int i = 0; i < Math.min(valueWords.length, taskWords.length); i++)
+			{
+				count += Long.bitCount(valueWords[i] & taskWords[i]);
+			}
+			counts.put(value, count);
+		});
+		return counts;
+	}
+}
@@ -0,0 +1,513 @@
+package net.reldo.taskstracker.data.task;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import net.reldo.taskstracker.TasksTrackerConfig;
+import net.reldo.taskstracker.config.ConfigValues;
+import net.reldo.taskstracker.data.jsondatastore.ManifestClient;
+import net.reldo.taskstracker.data.jsondatastore.TaskDataClient;
+import net.reldo.taskstracker.data.jsondatastore.types.FilterConfig;
+import net.reldo.taskstracker.data.jsondatastore.types.FilterValueType;
+import net.reldo.taskstracker.data.jsondatastore.types.TaskDefinition;
+import net.reldo.taskstracker.data.recommendation.RecommendationService;
+import net.reldo.taskstracker.data.summary.SummaryService;
+import net.reldo.taskstracker.data.task.filters.FilterService;
+import net.reldo.taskstracker.metrics.MetricsRegistry;
+import net.reldo.taskstracker.metrics.jfr.TaskTypeLoadEvent;
+import net.reldo.taskstracker.scheduler.ClientThreadScheduler;
+import net.reldo.taskstracker.scheduler.WorkPriority;
+import net.runelite.api.Client;
+import net.runelite.api.EnumComposition;
+import net.runelite.client.config.ConfigManager;
+import net.runelite.client.config.RuneScapeProfileType;
+
+@Singleton
+@Slf4j
+public class TaskService
+{
+	// Sort criteria ranking tasks by recommendation rather than by a param
+	public static final String RECOMMENDED_SORT = "recommended";
+
+	@Inject private ManifestClient manifestClient;
+	@Inject private TaskDataClient taskDataClient;
+	@Inject private ClientThreadScheduler clientThreadScheduler;
+	@Inject private Client client;
+	@Inject private FilterService filterService;
+	@Inject private ConfigManager configManager;
+	@Inject private MetricsRegistry metricsRegistry;
+	@Inject private SummaryService summaryService;
+	@Getter @Inject private TaskIndex taskIndex;
+	@Inject private RecommendationService recommendationService;
+
+	@Getter
+	@Setter
+	private boolean taskTypeChanged = false;
+	@Getter
+	private TaskType currentTaskType;
+	@Getter
+	private final List<TaskFromStruct> tasks = new ArrayList<>();
+	@Getter
+	private final HashMap<String, int[]> sortedIndexes = new HashMap<>();
+	private HashMap<String, TaskType> _taskTypes = new HashMap<>();
+	private HashSet<Integer> currentTaskTypeVarps = new HashSet<>();
+	// Task status by profile key, then task type json name, so definitions can be shared across profiles
+	private final HashMap<String, HashMap<String, HashMap<Integer, ConfigTaskSave>>> profileTaskStatus = new HashMap<>();
+	private final List<TaskStateListener> taskStateListeners = new CopyOnWriteArrayList<>();
+	// String enums are game data, so they are kept once read
+	private final Map<Integer, HashMap<Integer, String>> stringEnumValues = new ConcurrentHashMap<>();
+	// Whether the current tasks hold a status loaded from a save or read from the varps. Until then changes are
+	// the status being filled in rather than transitions, so registered listeners are not told about them.
+	@Getter
+	private volatile boolean statusLoaded = false;
+	// Full varp updates in progress. Recommendations are rebuilt once after them rather than rescored per change.
+	private final AtomicInteger statusSweeps = new AtomicInteger();
+	private final TaskStateListener taskStateDispatcher = (task, change, timestamp) -> {
+		summaryService.onTaskStateChanged(task, change, timestamp);
+		taskIndex.onTaskStateChanged(task, change, timestamp);
+		if (statusSweeps.get() == 0)
+		{
+			recommendationService.onTaskStateChanged(task, change, timestamp);
+		}
+		if (statusLoaded)
+		{
+			taskStateListeners.forEach(listener -> listener.onTaskStateChanged(task, change, timestamp));
+		}
+	};
+
+    public CompletableFuture<Boolean> setTaskType(String taskTypeJsonName) {
+        TaskType newTaskType = getTaskTypesByJsonName().get(taskTypeJsonName);
+        if (newTaskType == null) {
+            log.error("unsupported task type {}, falling back to COMBAT", taskTypeJsonName);
+            newTaskType = getTaskTypesByJsonName().get("COMBAT");
+        }
+        return this.setTaskType(newTaskType);
+    }
+
+    /**
+     * Load the struct params of tasks on the client thread.
+     *
+     * @return A future that is true if every task loaded
+     */
+    public CompletableFuture<Boolean> loadAllTasksStructData(Collection<TaskFromStruct> tasks) {
+        Collection<CompletableFuture<Boolean>> taskFutures = new ArrayList<>();
+        for (TaskFromStruct task : tasks) {
+            taskFutures.add(clientThreadScheduler.submit(WorkPriority.NORMAL, "struct " + task.getStructId(), () -> {
+                long start = System.nanoTime();
+                boolean isTaskLoaded = task.loadStructData(client);
+                metricsRegistry.histogram(MetricsRegistry.STRUCT_LOAD).recordSince(start);
+                return isTaskLoaded;
+            }));
+        }
+        return CompletableFuture.allOf(taskFutures.toArray(new CompletableFuture[0])).thenApply(v -> {
+            for (CompletableFuture<Boolean> future : taskFutures) {
+                if (!future.join()) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    public CompletableFuture<Boolean> setTaskType(TaskType newTaskType) {
+        log.debug("setTaskType {}", newTaskType.getTaskJsonName());
+        if (newTaskType.equals(currentTaskType)) {
+            log.debug("Skipping setTaskType, same task type selected");
+            return CompletableFuture.completedFuture(false);
+        }
+        currentTaskType = newTaskType;
+        long loadStart = System.nanoTime();
+        configManager.setConfiguration(TasksTrackerConfig.CONFIG_GROUP_NAME, "taskTypeJsonName", newTaskType.getTaskJsonName());
+
+        // Complete creation of any GLOBAL value type filterConfigs
+        for (FilterConfig filterConfig : currentTaskType.getFilters()) {
+            if (filterConfig.getValueType().equals(FilterValueType.GLOBAL)) {
+                // Set valueType to the one required by the global filter
+                FilterConfig globalFilterConfig = filterService.getGlobalFilterByKey(filterConfig.getConfigKey());
+                filterConfig.setValueType(globalFilterConfig.getValueType());
+
+					// Set any filterConfig fields not already specified
+					Optional.ofNullable(filterConfig.getLabel()).ifPresentOrElse(val -> {}, () -> filterConfig.setLabel(globalFilterConfig.getLabel()));
+					Optional.ofNullable(filterConfig.getFilterType()).ifPresentOrElse(val -> {}, () -> filterConfig.setFilterType(globalFilterConfig.getFilterType()));
+					Optional.ofNullable(filterConfig.getValueName()).ifPresentOrElse(val -> {}, () -> filterConfig.setValueName(globalFilterConfig.getValueName()));
+					Optional.ofNullable(filterConfig.getOptionLabelEnum()).ifPresentOrElse(val -> {}, () -> filterConfig.setOptionLabelEnum(globalFilterConfig.getOptionLabelEnum()));
+					Optional.ofNullable(filterConfig.getCustomItems()).ifPresentOrElse(val -> {}, () -> filterConfig.setCustomItems(globalFilterConfig.getCustomItems()));
+				}
+			}
+
+        String jsonName = newTaskType.getTaskJsonName();
+        List<TaskFromStruct> newTasks = new ArrayList<>();
+        TaskTypeLoadEvent taskTypeDataEvent = TaskTypeLoadEvent.begin(jsonName, TaskTypeLoadEvent.PHASE_TASK_TYPE_DATA);
+        return newTaskType.loadTaskTypeDataAsync().thenCompose((isTaskTypeLoaded) -> {
+            taskTypeDataEvent.commit(0);
+            if (!isTaskTypeLoaded) {
+                log.error("Error loading task type during setTaskType");
+                return CompletableFuture.completedFuture(false);
+            }
+
+            try {
+                TaskTypeLoadEvent definitionsEvent = TaskTypeLoadEvent.begin(jsonName, TaskTypeLoadEvent.PHASE_DEFINITIONS);
+                Collection<TaskDefinition> taskDefinitions = taskDataClient.getTaskDefinitions(currentTaskType.getTaskJsonName());
+                for (TaskDefinition definition : taskDefinitions) {
+                    TaskFromStruct task = new TaskFromStruct(currentTaskType, definition);
+                    task.setStateListener(taskStateDispatcher);
+                    newTasks.add(task);
+                }
+                definitionsEvent.commit(newTasks.size());
+
+                TaskTypeLoadEvent structsEvent = TaskTypeLoadEvent.begin(jsonName, TaskTypeLoadEvent.PHASE_STRUCTS);
+                return loadAllTasksStructData(newTasks).whenComplete((loaded, ex) -> structsEvent.commit(newTasks.size()));
+            } catch (Exception e3) {
+                return CompletableFuture.failedFuture(e3);
+            }
+        }).thenCompose(areTasksLoaded -> {
+            if (!areTasksLoaded) {
+                return CompletableFuture.completedFuture(false);
+            }
+
+            TaskTypeLoadEvent indexEvent = TaskTypeLoadEvent.begin(jsonName, TaskTypeLoadEvent.PHASE_INDEX);
+            statusLoaded = false;
+            tasks.clear();
+            tasks.addAll(newTasks);
+            buildSortedIndexes(currentTaskType);
+            taskIndex.rebuild(currentTaskType, tasks);
+            summaryService.rebuild(currentTaskType, tasks);
+            recommendationService.rebuild(currentTaskType, tasks);
+            indexEvent.commit(newTasks.size());
+
+            currentTaskTypeVarps.clear();
+            currentTaskTypeVarps = new HashSet<>(currentTaskType.getTaskVarps());
+
+            taskTypeChanged = true;
+            metricsRegistry.histogram(MetricsRegistry.TASK_TYPE_LOAD).recordSince(loadStart);
+            return CompletableFuture.completedFuture(true);
+        });
+    }
+
+	/**
+	 * Index the current task list for each property of a task type.
+	 */
+	void buildSortedIndexes(TaskType taskType)
+	{
+		sortedIndexes.clear();
+		taskType.getIntParamMap().keySet().forEach(paramName -> {
+			sortedIndexes.put(paramName, null);
+			addSortedIndex(paramName, Comparator.comparingInt((TaskFromStruct task) -> task.getIntParam(paramName)));
+		});
+		taskType.getStringParamMap().keySet().forEach(paramName -> {
+			sortedIndexes.put(paramName, null);
+			addSortedIndex(paramName, Comparator.comparing((TaskFromStruct task) -> task.getStringParam(paramName)));
+		});
+		// todo: make this less of a special case.
+		if (tasks.stream().anyMatch(task -> task.getCompletionPercent() != null))
+		{
+			sortedIndexes.put("completion %", null);
+			addSortedIndex("completion %",
+				(TaskFromStruct task1, TaskFromStruct task2) ->
+				{
+					Float comp1 = task1.getTaskDefinition().getCompletionPercent() != null ? task1.getTaskDefinition().getCompletionPercent() : 0;
+					Float comp2 = task2.getTaskDefinition().getCompletionPercent() != null ? task2.getTaskDefinition().getCompletionPercent() : 0;
+					return comp1.compareTo(comp2);
+				});
+		}
+	}
+
+	private void addSortedIndex(String paramName, Comparator<TaskFromStruct> comparator)
+	{
+		List<TaskFromStruct> sortedTasks = tasks.stream()
+				.sorted(comparator)
+				.collect(Collectors.toCollection(ArrayList::new));
+		int[] sortedIndex = new int[tasks.size()];
+		for(int i = 0; i < sortedTasks.size(); i++)
+		{
+			sortedIndex[i] = tasks.indexOf(sortedTasks.get(i));
+		}
+		sortedIndexes.put(paramName, sortedIndex);
+	}
+
+	public int getSortedTaskIndex(String sortCriteria, int position)
+	{
+		if(sortedIndexes.containsKey(sortCriteria))
+		{
+			return sortedIndexes.get(sortCriteria)[position];
+		}
+		else
+		{
+			return position;
+		}
+	}
+
+	/**
+	 * Get the current tasks in display order.
+	 */
+	public List<TaskFromStruct> getSortedTasks(String sortCriteria, ConfigValues.SortDirections sortDirection)
+	{
+		if (RECOMMENDED_SORT.equals(sortCriteria))
+		{
+			List<TaskFromStruct> recommendedTasks = recommendationService.getRecommendedTasks();
+			if (sortDirection.equals(ConfigValues.SortDirections.DESCENDING))
+			{
+				Collections.reverse(recommendedTasks);
+			}
+			return recommendedTasks;
+		}
+
+		List<TaskFromStruct> sortedTasks = new ArrayList<>(tasks.size());
+		for (int position = 0; position < tasks.size(); position++)
+		{
+			int adjustedPosition = sortDirection.equals(ConfigValues.SortDirections.DESCENDING) ? tasks.size() - (position + 1) : position;
+			sortedTasks.add(tasks.get(getSortedTaskIndex(sortCriteria, adjustedPosition)));
+		}
+		return sortedTasks;
+	}
+
+	public void addTaskStateListener(TaskStateListener listener)
+	{
+		taskStateListeners.add(listener);
+	}
+
+	public void removeTaskStateListener(TaskStateListener listener)
+	{
+		taskStateListeners.remove(listener);
+	}
+
+	public boolean isVarpInCurrentTaskType(int varpId)
+	{
+		return currentTaskTypeVarps.contains(varpId);
+	}
+
+	public void clearTaskTypes()
+	{
+		this._taskTypes.clear();
+	}
+
+	/**
+	 * Get a map of task type json names to task type
+	 *
+	 * @return Hashmap of TaskType indexed by task type json name
+	 */
+	public HashMap<String, TaskType> getTaskTypesByJsonName()
+	{
+		if (_taskTypes.size() > 0)
+		{
+			return _taskTypes;
+		}
+
+		try
+		{
+			_taskTypes = taskDataClient.getTaskTypes();
+			return _taskTypes;
+		}
+		catch (Exception ex)
+		{
+			log.error("Unable to populate task types from data client", ex);
+			return new HashMap<>();
+		}
+	}
+
+	public CompletableFuture<HashMap<Integer, String>> getStringEnumValuesAsync(String enumName)
+	{
+		Integer enumId = currentTaskType.getStringEnumMap().get(enumName);
+		if (enumId == null)
+		{
+			return CompletableFuture.completedFuture(new HashMap<>());
+		}
+
+		HashMap<Integer, String> cached = stringEnumValues.get(enumId);
+		if (cached != null)
+		{
+			return CompletableFuture.completedFuture(new HashMap<>(cached));
+		}
+
+		return clientThreadScheduler.submit(WorkPriority.HIGH, "string enum " + enumName, () -> {
+			EnumComposition enumComposition = client.getEnum(enumId);
+			int[] keys = enumComposition.getKeys();
+			HashMap<Integer, String> map = new HashMap<>();
+			for (int key : keys)
+			{
+				map.put(key, enumComposition.getStringValue(key));
+			}
+			stringEnumValues.put(enumId, map);
+			return new HashMap<>(map);
+		});
+	}
+
+	/**
+	 * Get the values of a string enum of the current task type if they were already read, without waiting on the client thread.
+	 */
+	public Map<Integer, String> getCachedStringEnumValues(String enumName)
+	{
+		Integer enumId = currentTaskType == null ? null : currentTaskType.getStringEnumMap().get(enumName);
+		if (enumId == null)
+		{
+			return new HashMap<>();
+		}
+		return stringEnumValues.getOrDefault(enumId, new HashMap<>());
+	}
+
+	public void applySave(TaskType saveTaskType, HashMap<Integer, ConfigTaskSave> saveData)
+	{
+		String currentTaskTypeName = currentTaskType.getTaskJsonName();
+		String saveTaskTypeName = saveTaskType.getTaskJsonName();
+		if (!currentTaskTypeName.equals(saveTaskTypeName))
+		{
+			log.warn("Cannot apply save, task types do not match current={} save={}", currentTaskTypeName, saveTaskTypeName);
+			return;
+		}
+
+		for (TaskFromStruct task : getTasks())
+		{
+			ConfigTaskSave configTaskSave = saveData.get(task.getStructId());
+			if (configTaskSave == null)
+			{
+				continue;
+			}
+			task.loadConfigSave(configTaskSave);
+		}
+		statusLoaded = !saveData.isEmpty();
+		rebuildStatusIndexes();
+	}
+
+	/**
+	 * Remember the status of the current tasks for a profile, then clear it so another profile can be applied.
+	 *
+	 * @param profileKey key of the profile the current status belongs to
+	 */
+	public void stashTaskStatus(String profileKey)
+	{
+		if (currentTaskType == null)
+		{
+			return;
+		}
+		HashMap<Integer, ConfigTaskSave> saveData = new HashMap<>();
+		for (TaskFromStruct task : tasks)
+		{
+			saveData.put(task.getStructId(), task.getSaveData());
+			task.clearStatus();
+		}
+		statusLoaded = false;
+		profileTaskStatus.computeIfAbsent(profileKey, k -> new HashMap<>()).put(currentTaskType.getTaskJsonName(), saveData);
+		rebuildStatusIndexes();
+	}
+
+	/**
+	 * Restore a status previously stashed for a profile onto the current tasks.
+	 *
+	 * @param profileKey key of the profile to restore
+	 * @return true if a stashed status was applied, false if it must be loaded from config
+	 */
+	public boolean restoreTaskStatus(String profileKey)
+	{
+		tasks.forEach(TaskFromStruct::clearStatus);
+		if (currentTaskType == null)
+		{
+			return false;
+		}
+		HashMap<String, HashMap<Integer, ConfigTaskSave>> statusByTaskType = profileTaskStatus.get(profileKey);
+		if (statusByTaskType == null || !statusByTaskType.containsKey(currentTaskType.getTaskJsonName()))
+		{
+			statusLoaded = false;
+			rebuildStatusIndexes();
+			return false;
+		}
+		applySave(currentTaskType, statusByTaskType.get(currentTaskType.getTaskJsonName()));
+		return true;
+	}
+
+	/**
+	 * Forget the status stashed for a task type of a profile, after its save was written elsewhere, so switching
+	 * back to that profile reads the save instead of restoring the stale status over it.
+	 *
+	 * @param profileKey key of the profile, see {@link #getProfileStatusKey}
+	 */
+	public CompletableFuture<Void> dropStashedTaskStatus(String profileKey, String taskJsonName)
+	{
+		// Stashing and restoring happen on the client thread
+		return clientThreadScheduler.submit(WorkPriority.HIGH, "drop stashed status", () -> {
+			HashMap<String, HashMap<Integer, ConfigTaskSave>> statusByTaskType = profileTaskStatus.get(profileKey);
+			if (statusByTaskType != null && statusByTaskType.remove(taskJsonName) != null)
+			{
+				log.debug("dropped stashed status of {} for {}", taskJsonName, profileKey);
+			}
+		});
+	}
+
+	/**
+	 * Get the key task status is stashed under for an account's game mode.
+	 */
+	public static String getProfileStatusKey(long accountHash, RuneScapeProfileType profileType)
+	{
+		return accountHash + "." + profileType.name();
+	}
+
+	public void clearTaskStatus()
+	{
+		profileTaskStatus.clear();
+		tasks.forEach(TaskFromStruct::clearStatus);
+		statusLoaded = false;
+		rebuildStatusIndexes();
+	}
+
+	/**
+	 * Start a full varp update, which changes the state of many tasks at once.
+	 */
+	public void beginStatusSweep()
+	{
+		statusSweeps.incrementAndGet();
+	}
+
+	/**
+	 * Finish a full varp update of a task type's tasks. Once no update is left the recommendations are rebuilt.
+	 *
+	 * @param completed false if the update failed part way, so the status is not marked as read
+	 */
+	public void endStatusSweep(TaskType taskType, boolean completed)
+	{
+		if (completed && taskType != null && taskType.equals(currentTaskType))
+		{
+			statusLoaded = true;
+		}
+		if (statusSweeps.decrementAndGet() == 0)
+		{
+			recommendationService.rebuild(currentTaskType, tasks);
+		}
+	}
+
+	/**
+	 * Recount the summary and status index of the current tasks, after their status was changed without state change events.
+	 */
+	public void rebuildStatusIndexes()
+	{
+		taskIndex.rebuildStatus(tasks);
+		summaryService.rebuild(currentTaskType, tasks);
+		recommendationService.rebuild(currentTaskType, tasks);
+	}
+
+	public List<TaskFromStruct> getTasksFromVarpId(Integer varpId)
+	{
+		int varpIndex = getCurrentTaskType().getTaskVarps().indexOf(varpId);
+		int minTaskId = varpIndex * 32;
+		int maxTaskId = minTaskId + 32;
+
+		return getTasks().stream().filter(t -> {
+			int taskId = t.getIntParam("id");
+			return taskId >= minTaskId && taskId <= maxTaskId;
+		}).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,14 @@
+package net.reldo.taskstracker.data.task;
+
+/**
+ * A change of a task's completed, tracked or ignored state
+ */
+public enum TaskStateChange
+{
+	COMPLETED,
+	UNCOMPLETED,
+	TRACKED,
+	UNTRACKED,
+	IGNORED,
+	UNIGNORED
+}
@@ -0,0 +1,14 @@
+package net.reldo.taskstracker.data.task;
+
+public interface TaskStateListener
+{
+	/**
+	 * Called when a task's completed, tracked or ignored state flips.
+	 * Not called when task state is loaded from a save.
+	 *
+	 * @param task the task that changed
+	 * @param change the state change
+	 * @param timestamp epoch millis of the change
+	 */
+	void onTaskStateChanged(TaskFromStruct task, TaskStateChange change, long timestamp);
+}
@@ -10,8 +10,9 @@ import net.reldo.taskstracker.data.jsondatastore.types.FilterConfig;
 import net.reldo.taskstracker.data.jsondatastore.types.FilterType;
 import net.reldo.taskstracker.data.jsondatastore.types.TaskTypeDefinition;
 import net.runelite.api.Client;
+import net.reldo.taskstracker.scheduler.ClientThreadScheduler;
+import net.reldo.taskstracker.scheduler.WorkPriority;
 import net.runelite.api.EnumComposition;
-import net.runelite.client.callback.ClientThread;
 import net.runelite.client.game.SpriteManager;
 
 public class TaskType
@@ -24,49 +25,42 @@ public class TaskType
 	private final HashMap<Integer, Integer> tierPoints = new HashMap<>();
 
 	private final Client client;
-	private final ClientThread clientThread;
+	private final ClientThreadScheduler clientThreadScheduler;
 	private final SpriteManager spriteManager;
 	private final TaskTypeDefinition _taskTypeDefinition;
 
-	public TaskType(Client client, ClientThread clientThread, SpriteManager spriteManager, TaskTypeDefinition taskTypeDefinition)
+	public TaskType(Client client, ClientThreadScheduler clientThreadScheduler, SpriteManager spriteManager, TaskTypeDefinition taskTypeDefinition)
 	{
 		this.client = client;
-		this.clientThread = clientThread;
+		this.clientThreadScheduler = clientThreadScheduler;
 		this.spriteManager = spriteManager;
 		this._taskTypeDefinition = taskTypeDefinition;
 	}
 
 	public CompletableFuture<Boolean> loadTaskTypeDataAsync()
 	{
-		CompletableFuture<Boolean> future = new CompletableFuture<>();
-		clientThread.invoke(() -> {
-			try {
-				getButtonFiltersSpriteIds().forEach((spriteId) -> {
-					BufferedImage spriteImage = spriteManager.getSprite(spriteId, 0);
-					spritesById.put(spriteId, spriteImage);
-				});
-				_taskTypeDefinition.getTierSpriteIdMap().forEach((idKey, spriteId) -> {
-					Integer tierId = Integer.parseInt(idKey);
-					BufferedImage spriteImage = spriteManager.getSprite(spriteId, 0);
-					tierSprites.put(tierId, spriteImage);
-				});
-				if (_taskTypeDefinition.getIntEnumMap().containsKey("tierPoints"))
+		return clientThreadScheduler.submit(WorkPriority.NORMAL, "task type data " + getTaskJsonName(), () -> {
+			getButtonFiltersSpriteIds().forEach((spriteId) -> {
+				BufferedImage spriteImage = spriteManager.getSprite(spriteId, 0);
+				spritesById.put(spriteId, spriteImage);
+			});
+			_taskTypeDefinition.getTierSpriteIdMap().forEach((idKey, spriteId) -> {
+				Integer tierId = Integer.parseInt(idKey);
+				BufferedImage spriteImage = spriteManager.getSprite(spriteId, 0);
+				tierSprites.put(tierId, spriteImage);
+			});
+			if (_taskTypeDefinition.getIntEnumMap().containsKey("tierPoints"))
+			{
+				int enumId = _taskTypeDefinition.getIntEnumMap().get("tierPoints");
+				EnumComposition enumComposition = client.getEnum(enumId);
+				int[] keys = enumComposition.getKeys();
+				for (int key : keys)
 				{
-					int enumId = _taskTypeDefinition.getIntEnumMap().get("tierPoints");
-					EnumComposition enumComposition = client.getEnum(enumId);
-					int[] keys = enumComposition.getKeys();
-					for (int key : keys)
-					{
-						tierPoints.put(key, enumComposition.getIntValue(key));
-					}
+					tierPoints.put(key, enumComposition.getIntValue(key));
 				}
-				future.complete(true);
-			} catch (Exception e) {
-				future.completeExceptionally(e);
 			}
+			return true;
 		});
-
-		return future;
 	}
 
 	public String getFilterConfigPrefix()
@@ -125,6 +119,11 @@ public class TaskType
 		return _taskTypeDefinition.getName();
 	}
 
+	public boolean isEnabled()
+	{
+		return _taskTypeDefinition.isEnabled();
+	}
+
 	public ArrayList<FilterConfig> getFilters()
 	{
 		return _taskTypeDefinition.getFilters();
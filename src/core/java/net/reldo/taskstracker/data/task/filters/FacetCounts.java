@@ -0,0 +1,22 @@
+package net.reldo.taskstracker.data.task.filters;
+
+import java.util.Map;
+import lombok.Value;
+
+/**
+ * The number of tasks each value of a filtered param would show, given every other active filter.
+ */
+@Value
+public class FacetCounts
+{
+	// Tasks passing the other filters, whatever their value of the param
+	int total;
+	// Tasks passing the other filters that have no value for the param
+	int missing;
+	Map<Integer, Integer> countsByValue;
+
+	public int getCount(int value)
+	{
+		return countsByValue.getOrDefault(value, 0);
+	}
+}
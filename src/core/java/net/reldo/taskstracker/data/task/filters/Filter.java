@@ -0,0 +1,20 @@
+package net.reldo.taskstracker.data.task.filters;
+
+import java.util.BitSet;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskIndex;
+
+public abstract class Filter
+{
+    public abstract boolean meetsCriteria(TaskFromStruct task);
+
+    /**
+     * Get the indexed tasks that meet the filter's criteria, the same tasks {@link #meetsCriteria} accepts.
+     */
+    public abstract BitSet getMatchingTasks(TaskIndex taskIndex);
+
+    /**
+     * Get the name of the task param the filter selects on.
+     */
+    public abstract String getParamName();
+}
@@ -0,0 +1,71 @@
+package net.reldo.taskstracker.data.task.filters;
+
+import java.util.BitSet;
+import java.util.function.Supplier;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.reldo.taskstracker.TasksTrackerConfig;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskIndex;
+import net.runelite.client.config.ConfigManager;
+
+@Slf4j
+public class ParamButtonFilter extends Filter
+{
+	@Getter
+	private final String paramName;
+	private final Supplier<String> configValueSupplier;
+
+	public ParamButtonFilter(ConfigManager configManager, String paramName, String filterConfigKey)
+	{
+		this(paramName, () -> configManager.getConfiguration(TasksTrackerConfig.CONFIG_GROUP_NAME, filterConfigKey));
+	}
+
+	public ParamButtonFilter(String paramName, Supplier<String> configValueSupplier)
+	{
+		this.paramName = paramName;
+		this.configValueSupplier = configValueSupplier;
+	}
+
+	@Override
+	public boolean meetsCriteria(TaskFromStruct task)
+	{
+		String configValue = configValueSupplier.get();
+		boolean isEmptyFilterSelection = configValue == null || configValue.isEmpty() || configValue.equals("-1");
+		if (isEmptyFilterSelection)
+		{
+			return false;
+		}
+
+		return configValue.contains("f-" + task.getIntParam(paramName) + "-f");
+	}
+
+	@Override
+	public BitSet getMatchingTasks(TaskIndex taskIndex)
+	{
+		BitSet matching = new BitSet();
+		String configValue = configValueSupplier.get();
+		boolean isEmptyFilterSelection = configValue == null || configValue.isEmpty() || configValue.equals("-1");
+		if (isEmptyFilterSelection)
+		{
+			return matching;
+		}
+
+		for (String selection : configValue.split(","))
+		{
+			if (selection.length() < 4 || !selection.startsWith("f-") || !selection.endsWith("-f"))
+			{
+				continue;
+			}
+			try
+			{
+				matching.or(taskIndex.getParamValue(paramName, Integer.parseInt(selection.substring(2, selection.length() - 2))));
+			}
+			catch (NumberFormatException ex)
+			{
+				log.warn("getMatchingTasks error parsing config value {}", selection);
+			}
+		}
+		return matching;
+	}
+}
@@ -0,0 +1,77 @@
+package net.reldo.taskstracker.data.task.filters;
+
+import java.util.BitSet;
+import java.util.function.Supplier;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.reldo.taskstracker.TasksTrackerConfig;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskIndex;
+import net.runelite.client.config.ConfigManager;
+
+@Slf4j
+public class ParamDropdownFilter extends Filter
+{
+	@Getter
+	private final String paramName;
+	private final Supplier<String> configValueSupplier;
+
+	public ParamDropdownFilter(ConfigManager configManager, String paramName, String filterConfigKey)
+	{
+		this(paramName, () -> configManager.getConfiguration(TasksTrackerConfig.CONFIG_GROUP_NAME, filterConfigKey));
+	}
+
+	public ParamDropdownFilter(String paramName, Supplier<String> configValueSupplier)
+	{
+		this.paramName = paramName;
+		this.configValueSupplier = configValueSupplier;
+	}
+
+	@Override
+	public boolean meetsCriteria(TaskFromStruct task)
+	{
+		String configValue = configValueSupplier.get();
+		boolean isEmptyFilterSelection = configValue == null || configValue.isEmpty() || configValue.equals("-1");
+		if (isEmptyFilterSelection)
+		{
+			return true;
+		}
+		if (task.getIntParam(paramName) != null)
+		{
+			try
+			{
+				Integer parsedConfigValue = Integer.parseInt(configValue);
+				return parsedConfigValue.equals(task.getIntParam(paramName));
+			}
+			catch (Exception ex)
+			{
+				log.warn("meetsCriteria error parsing config value for  {}", configValue);
+				return true;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public BitSet getMatchingTasks(TaskIndex taskIndex)
+	{
+		String configValue = configValueSupplier.get();
+		boolean isEmptyFilterSelection = configValue == null || configValue.isEmpty() || configValue.equals("-1");
+		if (isEmptyFilterSelection)
+		{
+			return taskIndex.all();
+		}
+		try
+		{
+			// Tasks without the param are not filtered out
+			BitSet matching = taskIndex.getParamValue(paramName, Integer.parseInt(configValue));
+			matching.or(taskIndex.getParamMissing(paramName));
+			return matching;
+		}
+		catch (NumberFormatException ex)
+		{
+			log.warn("getMatchingTasks error parsing config value for  {}", configValue);
+			return taskIndex.all();
+		}
+	}
+}
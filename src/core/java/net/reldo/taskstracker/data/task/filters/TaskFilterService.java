@@ -0,0 +1,256 @@
+package net.reldo.taskstracker.data.task.filters;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.Getter;
+import net.reldo.taskstracker.TasksTrackerConfig;
+import net.reldo.taskstracker.config.ConfigValues.CompletedFilterValues;
+import net.reldo.taskstracker.config.ConfigValues.IgnoredFilterValues;
+import net.reldo.taskstracker.config.ConfigValues.TrackedFilterValues;
+import net.reldo.taskstracker.data.jsondatastore.types.FilterConfig;
+import net.reldo.taskstracker.data.jsondatastore.types.FilterType;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskIndex;
+import net.reldo.taskstracker.data.task.TaskService;
+import net.reldo.taskstracker.data.task.TaskType;
+import net.reldo.taskstracker.data.task.filters.query.QueryCompiler;
+import net.reldo.taskstracker.data.task.filters.query.TaskQuery;
+import net.runelite.client.config.ConfigManager;
+
+/**
+ * Decides which tasks are shown, from the text search, the param filters of the task type
+ * and the completed, tracked and ignored filters. The text search is a query, see {@link QueryCompiler}.
+ */
+@Singleton
+public class TaskFilterService
+{
+	@Inject private ConfigManager configManager;
+	@Inject private TasksTrackerConfig config;
+	@Inject private TaskIndex taskIndex;
+	@Inject private TaskService taskService;
+
+	@Getter
+	private volatile String taskTextFilter;
+	// Compiled on first use after the text changes, the last query is kept to reuse its terms
+	private TaskQuery taskQuery;
+	private boolean taskQueryStale = false;
+
+	// Param filters by task type json name, the filters read their selection from config on evaluation
+	private final Map<String, List<Filter>> paramFilters = new ConcurrentHashMap<>();
+
+	public void setTaskTextFilter(String taskTextFilter)
+	{
+		this.taskTextFilter = taskTextFilter == null ? null : taskTextFilter.toLowerCase();
+	}
+
+	public boolean meetsFilterCriteria(TaskFromStruct task)
+	{
+		String textFilter = taskTextFilter;
+		if (textFilter != null && !meetsQuery(task, textFilter))
+		{
+			return false;
+		}
+
+		for (Filter filter : getParamFilters(task.getTaskType()))
+		{
+			if (!filter.meetsCriteria(task))
+			{
+				return false;
+			}
+		}
+
+		if (config.completedFilter().equals(CompletedFilterValues.INCOMPLETE) && task.isCompleted())
+		{
+			return false;
+		}
+		if (config.completedFilter().equals(CompletedFilterValues.COMPLETE) && !task.isCompleted())
+		{
+			return false;
+		}
+
+		if (config.ignoredFilter().equals(IgnoredFilterValues.NOT_IGNORED) && task.isIgnored())
+		{
+			return false;
+		}
+		if (config.ignoredFilter().equals(IgnoredFilterValues.IGNORED) && !task.isIgnored())
+		{
+			return false;
+		}
+
+		if (config.trackedFilter().equals(TrackedFilterValues.UNTRACKED) && task.isTracked())
+		{
+			return false;
+		}
+		return !config.trackedFilter().equals(TrackedFilterValues.TRACKED) || task.isTracked();
+	}
+
+	/**
+	 * Count the tasks each value of a filtered param would show, given the text search, the other param filters
+	 * and the completed, tracked and ignored filters. Works on the task index, so it is cheap enough to
+	 * recount every facet on each filter change.
+	 */
+	public FacetCounts getFacetCounts(TaskType taskType, String paramName)
+	{
+		BitSet matching = getMatchingTasks(taskType, paramName);
+		BitSet missing = taskIndex.getParamMissing(paramName);
+		missing.and(matching);
+		return new FacetCounts(matching.cardinality(), missing.cardinality(), taskIndex.countByValue(paramName, matching));
+	}
+
+	/**
+	 * Get the positions in the task index of the tasks {@link #meetsFilterCriteria} accepts.
+	 */
+	public BitSet getMatchingTasks(TaskType taskType)
+	{
+		return getMatchingTasks(taskType, null);
+	}
+
+	private BitSet getMatchingTasks(TaskType taskType, String excludedParamName)
+	{
+		BitSet matching = getStatusMatches();
+		String textFilter = taskTextFilter;
+		if (textFilter != null)
+		{
+			matching.and(getTaskQuery(taskType, textFilter).evaluate(taskIndex, taskService.getTasks()));
+		}
+		for (Filter filter : getParamFilters(taskType))
+		{
+			if (!Objects.equals(filter.getParamName(), excludedParamName))
+			{
+				matching.and(filter.getMatchingTasks(taskIndex));
+			}
+		}
+		return matching;
+	}
+
+	private boolean meetsQuery(TaskFromStruct task, String textFilter)
+	{
+		int position = taskIndex.getPosition(task);
+		if (position < 0)
+		{
+			return task.getName().toLowerCase().contains(textFilter) || task.getDescription().toLowerCase().contains(textFilter);
+		}
+		return getTaskQuery(task.getTaskType(), textFilter).matches(taskIndex, taskService.getTasks(), position);
+	}
+
+	private synchronized TaskQuery getTaskQuery(TaskType taskType, String textFilter)
+	{
+		if (taskQuery == null || taskQueryStale || !taskQuery.getText().equals(textFilter)
+			|| !taskQuery.getTaskTypeName().equals(taskType.getTaskJsonName()))
+		{
+			QueryCompiler compiler = new QueryCompiler(taskType, paramName -> getParamLabels(taskType, paramName));
+			taskQuery = TaskQuery.compile(textFilter, taskType.getTaskJsonName(), compiler, taskQueryStale ? null : taskQuery);
+			taskQueryStale = false;
+		}
+		return taskQuery;
+	}
+
+	/**
+	 * Get the labels of a param's values, from the custom items of its filter or its option label enum.
+	 * Enum labels are read on the client thread, the query is recompiled once they arrive.
+	 */
+	private Map<Integer, String> getParamLabels(TaskType taskType, String paramName)
+	{
+		Map<Integer, String> labels = new HashMap<>();
+		for (FilterConfig filterConfig : taskType.getFilters())
+		{
+			if (!paramName.equals(filterConfig.getValueName()))
+			{
+				continue;
+			}
+			if (filterConfig.getCustomItems() != null)
+			{
+				filterConfig.getCustomItems().forEach(customItem -> {
+					if (customItem.getValue() != null && customItem.getTooltip() != null)
+					{
+						labels.put(customItem.getValue(), customItem.getTooltip());
+					}
+				});
+			}
+			String enumName = filterConfig.getOptionLabelEnum();
+			if (enumName != null && !enumName.isEmpty())
+			{
+				Map<Integer, String> enumLabels = taskService.getCachedStringEnumValues(enumName);
+				if (enumLabels.isEmpty())
+				{
+					taskService.getStringEnumValuesAsync(enumName).thenAccept(loaded -> markTaskQueryStale());
+				}
+				enumLabels.forEach(labels::putIfAbsent);
+			}
+		}
+		return labels;
+	}
+
+	private synchronized void markTaskQueryStale()
+	{
+		taskQueryStale = true;
+	}
+
+	private BitSet getStatusMatches()
+	{
+		BitSet matching = taskIndex.all();
+		if (config.completedFilter().equals(CompletedFilterValues.INCOMPLETE))
+		{
+			matching.andNot(taskIndex.getCompleted());
+		}
+		if (config.completedFilter().equals(CompletedFilterValues.COMPLETE))
+		{
+			matching.and(taskIndex.getCompleted());
+		}
+
+		if (config.ignoredFilter().equals(IgnoredFilterValues.NOT_IGNORED))
+		{
+			matching.andNot(taskIndex.getIgnored());
+		}
+		if (config.ignoredFilter().equals(IgnoredFilterValues.IGNORED))
+		{
+			matching.and(taskIndex.getIgnored());
+		}
+
+		if (config.trackedFilter().equals(TrackedFilterValues.UNTRACKED))
+		{
+			matching.andNot(taskIndex.getTracked());
+		}
+		if (config.trackedFilter().equals(TrackedFilterValues.TRACKED))
+		{
+			matching.and(taskIndex.getTracked());
+		}
+		return matching;
+	}
+
+	public void clearParamFilters()
+	{
+		paramFilters.clear();
+	}
+
+	private List<Filter> getParamFilters(TaskType taskType)
+	{
+		return paramFilters.computeIfAbsent(taskType.getTaskJsonName(), k -> createParamFilters(taskType));
+	}
+
+	private List<Filter> createParamFilters(TaskType taskType)
+	{
+		List<Filter> filters = new ArrayList<>();
+		for (FilterConfig filterConfig : taskType.getFilters())
+		{
+			String paramName = filterConfig.getValueName();
+			String filterConfigKey = taskType.getTaskJsonName() + "." + filterConfig.getConfigKey();
+			if (filterConfig.getFilterType().equals(FilterType.BUTTON_FILTER))
+			{
+				filters.add(new ParamButtonFilter(configManager, paramName, filterConfigKey));
+			}
+			else if (filterConfig.getFilterType().equals(FilterType.DROPDOWN_FILTER))
+			{
+				filters.add(new ParamDropdownFilter(configManager, paramName, filterConfigKey));
+			}
+		}
+		return filters;
+	}
+}
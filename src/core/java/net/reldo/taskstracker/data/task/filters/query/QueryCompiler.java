@@ -0,0 +1,354 @@
+package net.reldo.taskstracker.data.task.filters.query;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskIndex;
+import net.reldo.taskstracker.data.task.TaskType;
+import net.runelite.api.Skill;
+
+/**
+ * Compiles the terms of a task query typed into the search box. Terms are separated by spaces and all must match:
+ * <ul>
+ * <li>{@code completed}, {@code tracked}, {@code ignored} select on task status, {@code -completed} the incomplete tasks</li>
+ * <li>{@code tier>=4}, {@code area:3} compare an int param, {@code area:kandarin} matches its value labels</li>
+ * <li>{@code name:barrows}, {@code description="..."} match a string param</li>
+ * <li>{@code skill:agility<70} matches tasks requiring a skill, optionally by the level required</li>
+ * <li>{@code points>=80}, {@code completion<5} compare task points and the wiki completion percent</li>
+ * <li>{@code !term} or {@code -term} negates a term, anything else is searched for in names and descriptions</li>
+ * </ul>
+ * Int param, status and label terms resolve to task index bitsets, the rest scan the tasks once per compiled term.
+ */
+public class QueryCompiler
+{
+	private static final Pattern COMPARISON = Pattern.compile("^([a-z_%]+)(>=|<=|!=|>|<|=|:)(.+)$");
+	private static final Pattern SKILL_REQUIREMENT = Pattern.compile("^([a-z]+)(?:(>=|<=|!=|>|<|=|:)(\\d+))?$");
+	private static final String SKILL_PARAM = "skill";
+	private static final String POINTS = "points";
+	private static final String COMPLETION = "completion";
+
+	private final TaskType taskType;
+	// Value labels by param name
+	private final Function<String, Map<Integer, String>> paramLabels;
+
+	public QueryCompiler(TaskType taskType, Function<String, Map<Integer, String>> paramLabels)
+	{
+		this.taskType = taskType;
+		this.paramLabels = paramLabels;
+	}
+
+	/**
+	 * Split a query into its terms on spaces outside double quotes.
+	 */
+	public static List<String> tokenize(String query)
+	{
+		List<String> tokens = new ArrayList<>();
+		StringBuilder token = new StringBuilder();
+		boolean quoted = false;
+		for (char c : query.toCharArray())
+		{
+			if (c == '"')
+			{
+				quoted = !quoted;
+				token.append(c);
+			}
+			else if (Character.isWhitespace(c) && !quoted)
+			{
+				if (token.length() > 0)
+				{
+					tokens.add(token.toString());
+					token.setLength(0);
+				}
+			}
+			else
+			{
+				token.append(c);
+			}
+		}
+		if (token.length() > 0)
+		{
+			tokens.add(token.toString());
+		}
+		return tokens;
+	}
+
+	/**
+	 * Whether a token is query syntax rather than plain search text.
+	 */
+	public boolean isQueryTerm(String token)
+	{
+		String term = stripNegation(token);
+		if (isStatus(term))
+		{
+			return true;
+		}
+		Matcher matcher = COMPARISON.matcher(term);
+		return matcher.matches() && isKnownParam(matcher.group(1));
+	}
+
+	/**
+	 * Compile one lower case token of a query.
+	 */
+	public QueryTerm compile(String token)
+	{
+		boolean negated = token.length() > 1 && (token.startsWith("!") || token.startsWith("-"));
+		String term = stripNegation(token);
+		QueryTerm compiled = compilePositive(term);
+		return negated ? negate(compiled) : compiled;
+	}
+
+	/**
+	 * Compile a plain search, matching the whole text in task names and descriptions.
+	 */
+	public QueryTerm compileText(String text)
+	{
+		return scan(task -> task.getName().toLowerCase().contains(text) || task.getDescription().toLowerCase().contains(text));
+	}
+
+	private QueryTerm compilePositive(String term)
+	{
+		if (isStatus(term))
+		{
+			return compileStatus(term);
+		}
+
+		Matcher matcher = COMPARISON.matcher(term);
+		if (!matcher.matches() || !isKnownParam(matcher.group(1)))
+		{
+			return compileText(unquote(term));
+		}
+
+		String paramName = matcher.group(1);
+		QueryOperator operator = operatorOf(matcher.group(2));
+		String operand = unquote(matcher.group(3));
+		Double number = parseNumber(operand);
+
+		if (paramName.equals(POINTS))
+		{
+			return number == null ? matchNone() : scan(task -> operator.compare(task.getPoints(), number));
+		}
+		if (paramName.equals(COMPLETION) || paramName.equals("completion%"))
+		{
+			return number == null ? matchNone() : scan(task -> task.getCompletionPercent() != null && operator.compare(task.getCompletionPercent(), number));
+		}
+		if (paramName.equals(SKILL_PARAM) && number == null)
+		{
+			QueryTerm skillTerm = compileSkillRequirement(operand);
+			if (skillTerm != null)
+			{
+				return skillTerm;
+			}
+		}
+		if (taskType.getIntParamMap().containsKey(paramName))
+		{
+			return number == null
+				? compileLabel(paramName, operator, operand)
+				: compileIntParam(paramName, operator, number);
+		}
+		return scan(task -> {
+			String value = task.getStringParam(paramName);
+			return value != null && operator.compare(value.toLowerCase(), operand);
+		});
+	}
+
+	private QueryTerm compileStatus(String term)
+	{
+		switch (term)
+		{
+			case "tracked":
+				return statusTerm(TaskIndex::getTracked);
+			case "ignored":
+				return statusTerm(TaskIndex::getIgnored);
+			default:
+				return statusTerm(TaskIndex::getCompleted);
+		}
+	}
+
+	private QueryTerm compileIntParam(String paramName, QueryOperator operator, double operand)
+	{
+		return (taskIndex, tasks) -> {
+			BitSet matches = new BitSet();
+			taskIndex.getParamValues(paramName).forEach((value, valueTasks) -> {
+				if (operator.compare(value, operand))
+				{
+					matches.or(valueTasks);
+				}
+			});
+			return matches;
+		};
+	}
+
+	/**
+	 * Match the values of an int param whose label contains the operand, area:kandarin for example.
+	 */
+	private QueryTerm compileLabel(String paramName, QueryOperator operator, String operand)
+	{
+		Set<Integer> values = new HashSet<>();
+		paramLabels.apply(paramName).forEach((value, label) -> {
+			if (label != null && operator.compare(label.toLowerCase(), operand))
+			{
+				values.add(value);
+			}
+		});
+		return (taskIndex, tasks) -> {
+			BitSet matches = new BitSet();
+			values.forEach(value -> matches.or(taskIndex.getParamValue(paramName, value)));
+			return matches;
+		};
+	}
+
+	/**
+	 * Match tasks requiring a skill, skill:agility, or by the level required, skill:agility<70.
+	 */
+	private QueryTerm compileSkillRequirement(String operand)
+	{
+		Matcher matcher = SKILL_REQUIREMENT.matcher(operand);
+		if (!matcher.matches())
+		{
+			return null;
+		}
+		Skill skill;
+		try
+		{
+			skill = Skill.valueOf(matcher.group(1).toUpperCase());
+		}
+		catch (IllegalArgumentException ex)
+		{
+			return null;
+		}
+		if (matcher.group(2) == null)
+		{
+			return scan(task -> task.getSkillRequirements().containsKey(skill));
+		}
+		QueryOperator operator = operatorOf(matcher.group(2));
+		int level = Integer.parseInt(matcher.group(3));
+		return scan(task -> {
+			Integer required = task.getSkillRequirements().get(skill);
+			return required != null && operator.compare(required, level);
+		});
+	}
+
+	private boolean isKnownParam(String paramName)
+	{
+		return paramName.equals(POINTS) || paramName.equals(COMPLETION) || paramName.equals("completion%")
+			|| taskType.getIntParamMap().containsKey(paramName)
+			|| taskType.getStringParamMap().containsKey(paramName);
+	}
+
+	/**
+	 * Whether a term is a status keyword. Only the exact status names, so searching for a word like done stays a text search.
+	 */
+	private static boolean isStatus(String term)
+	{
+		switch (term)
+		{
+			case "completed":
+			case "tracked":
+			case "ignored":
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	private static QueryTerm statusTerm(Function<TaskIndex, BitSet> status)
+	{
+		return new QueryTerm()
+		{
+			@Override
+			public BitSet evaluate(TaskIndex taskIndex, List<TaskFromStruct> tasks)
+			{
+				return status.apply(taskIndex);
+			}
+
+			@Override
+			public boolean dependsOnStatus()
+			{
+				return true;
+			}
+		};
+	}
+
+	private static QueryTerm negate(QueryTerm term)
+	{
+		return new QueryTerm()
+		{
+			@Override
+			public BitSet evaluate(TaskIndex taskIndex, List<TaskFromStruct> tasks)
+			{
+				BitSet matches = taskIndex.all();
+				matches.andNot(term.evaluate(taskIndex, tasks));
+				return matches;
+			}
+
+			@Override
+			public boolean dependsOnStatus()
+			{
+				return term.dependsOnStatus();
+			}
+		};
+	}
+
+	private static QueryTerm scan(Predicate<TaskFromStruct> predicate)
+	{
+		return (taskIndex, tasks) -> {
+			BitSet matches = new BitSet();
+			for (TaskFromStruct task : tasks)
+			{
+				int position = taskIndex.getPosition(task);
+				if (position >= 0 && predicate.test(task))
+				{
+					matches.set(position);
+				}
+			}
+			return matches;
+		};
+	}
+
+	private static QueryTerm matchNone()
+	{
+		return (taskIndex, tasks) -> new BitSet();
+	}
+
+	private static QueryOperator operatorOf(String symbol)
+	{
+		for (QueryOperator operator : QueryOperator.values())
+		{
+			if (operator.getSymbol().equals(symbol))
+			{
+				return operator;
+			}
+		}
+		return QueryOperator.CONTAINS;
+	}
+
+	private static Double parseNumber(String operand)
+	{
+		try
+		{
+			return Double.parseDouble(operand);
+		}
+		catch (NumberFormatException ex)
+		{
+			return null;
+		}
+	}
+
+	private static String stripNegation(String token)
+	{
+		return token.length() > 1 && (token.startsWith("!") || token.startsWith("-")) ? token.substring(1) : token;
+	}
+
+	private static String unquote(String text)
+	{
+		return text.replace("\"", "");
+	}
+}
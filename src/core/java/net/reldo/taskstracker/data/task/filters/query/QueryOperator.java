@@ -0,0 +1,55 @@
+package net.reldo.taskstracker.data.task.filters.query;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Comparison of a query term, longest symbols first so they are matched before their prefixes.
+ */
+@AllArgsConstructor
+public enum QueryOperator
+{
+	GREATER_OR_EQUAL(">="),
+	LESS_OR_EQUAL("<="),
+	NOT_EQUAL("!="),
+	GREATER(">"),
+	LESS("<"),
+	EQUAL("="),
+	// Substring match for text, equality for numbers
+	CONTAINS(":");
+
+	@Getter
+	private final String symbol;
+
+	public boolean compare(double value, double operand)
+	{
+		switch (this)
+		{
+			case GREATER_OR_EQUAL:
+				return value >= operand;
+			case LESS_OR_EQUAL:
+				return value <= operand;
+			case NOT_EQUAL:
+				return value != operand;
+			case GREATER:
+				return value > operand;
+			case LESS:
+				return value < operand;
+			default:
+				return value == operand;
+		}
+	}
+
+	public boolean compare(String value, String operand)
+	{
+		switch (this)
+		{
+			case CONTAINS:
+				return value.contains(operand);
+			case NOT_EQUAL:
+				return !value.equals(operand);
+			default:
+				return value.equals(operand);
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package net.reldo.taskstracker.data.task.filters.query;
+
+import java.util.BitSet;
+import java.util.List;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskIndex;
+
+/**
+ * One compiled term of a task query
+ */
+public interface QueryTerm
+{
+	/**
+	 * Get the positions in the index of the tasks matching the term.
+	 *
+	 * @param tasks the indexed task list
+	 */
+	BitSet evaluate(TaskIndex taskIndex, List<TaskFromStruct> tasks);
+
+	/**
+	 * Whether the term reads completed, tracked or ignored state, so its matches change with task status.
+	 */
+	default boolean dependsOnStatus()
+	{
+		return false;
+	}
+}
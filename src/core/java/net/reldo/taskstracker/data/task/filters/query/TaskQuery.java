@@ -0,0 +1,137 @@
+package net.reldo.taskstracker.data.task.filters.query;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import lombok.Getter;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskIndex;
+
+/**
+ * A compiled search box query, the AND of its terms. Each term keeps its matches until the task index changes
+ * under it, and compiling the next keystroke's query reuses the terms of the unchanged leading tokens.
+ */
+public class TaskQuery
+{
+	@Getter
+	private final String text;
+	@Getter
+	private final String taskTypeName;
+	private final List<String> tokens;
+	private final List<CompiledTerm> terms;
+	private final boolean dependsOnStatus;
+	private BitSet matches;
+	private long structureVersion = -1;
+	private long statusVersion = -1;
+
+	private TaskQuery(String text, String taskTypeName, List<String> tokens, List<CompiledTerm> terms)
+	{
+		this.text = text;
+		this.taskTypeName = taskTypeName;
+		this.tokens = tokens;
+		this.terms = terms;
+		this.dependsOnStatus = terms.stream().anyMatch(term -> term.term.dependsOnStatus());
+	}
+
+	/**
+	 * Compile a lower case query. Without any query syntax the whole text is one name and description search.
+	 *
+	 * @param previous the query compiled before this one, whose terms are reused for identical leading tokens, or null
+	 */
+	public static TaskQuery compile(String text, String taskTypeName, QueryCompiler compiler, TaskQuery previous)
+	{
+		List<String> tokens = QueryCompiler.tokenize(text);
+		if (tokens.stream().noneMatch(compiler::isQueryTerm))
+		{
+			String search = text.trim();
+			List<CompiledTerm> terms = new ArrayList<>();
+			if (!search.isEmpty())
+			{
+				terms.add(new CompiledTerm(compiler.compileText(search)));
+			}
+			return new TaskQuery(text, taskTypeName, Collections.singletonList(search), terms);
+		}
+
+		int reused = 0;
+		if (previous != null && previous.taskTypeName.equals(taskTypeName) && previous.terms.size() == previous.tokens.size())
+		{
+			while (reused < tokens.size() && reused < previous.tokens.size() && tokens.get(reused).equals(previous.tokens.get(reused)))
+			{
+				reused++;
+			}
+		}
+
+		List<CompiledTerm> terms = new ArrayList<>(tokens.size());
+		for (int i = 0; i < tokens.size(); i++)
+		{
+			terms.add(i < reused ? previous.terms.get(i) : new CompiledTerm(compiler.compile(tokens.get(i))));
+		}
+		return new TaskQuery(text, taskTypeName, tokens, terms);
+	}
+
+	/**
+	 * Get the positions in the task index of the tasks matching every term.
+	 */
+	public synchronized BitSet evaluate(TaskIndex taskIndex, List<TaskFromStruct> tasks)
+	{
+		return (BitSet) getMatches(taskIndex, tasks).clone();
+	}
+
+	/**
+	 * Whether the task at a position of the task index matches every term, without copying the matches.
+	 */
+	public synchronized boolean matches(TaskIndex taskIndex, List<TaskFromStruct> tasks, int position)
+	{
+		return getMatches(taskIndex, tasks).get(position);
+	}
+
+	private BitSet getMatches(TaskIndex taskIndex, List<TaskFromStruct> tasks)
+	{
+		long currentStructureVersion = taskIndex.getStructureVersion();
+		long currentStatusVersion = taskIndex.getStatusVersion();
+		if (matches == null || structureVersion != currentStructureVersion
+			|| (dependsOnStatus && statusVersion != currentStatusVersion))
+		{
+			matches = taskIndex.all();
+			for (CompiledTerm term : terms)
+			{
+				matches.and(term.getMatches(taskIndex, tasks));
+				if (matches.isEmpty())
+				{
+					break;
+				}
+			}
+			structureVersion = currentStructureVersion;
+			statusVersion = currentStatusVersion;
+		}
+		return matches;
+	}
+
+	private static class CompiledTerm
+	{
+		private final QueryTerm term;
+		private BitSet matches;
+		private long structureVersion = -1;
+		private long statusVersion = -1;
+
+		CompiledTerm(QueryTerm term)
+		{
+			this.term = term;
+		}
+
+		synchronized BitSet getMatches(TaskIndex taskIndex, List<TaskFromStruct> tasks)
+		{
+			long currentStructureVersion = taskIndex.getStructureVersion();
+			long currentStatusVersion = taskIndex.getStatusVersion();
+			if (matches == null || structureVersion != currentStructureVersion
+				|| (term.dependsOnStatus() && statusVersion != currentStatusVersion))
+			{
+				matches = term.evaluate(taskIndex, tasks);
+				structureVersion = currentStructureVersion;
+				statusVersion = currentStatusVersion;
+			}
+			return (BitSet) matches.clone();
+		}
+	}
+}
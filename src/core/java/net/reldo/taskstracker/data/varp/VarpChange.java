@@ -0,0 +1,14 @@
+package net.reldo.taskstracker.data.varp;
+
+import lombok.Value;
+
+/**
+ * A single task varp change, recorded on the game tick it was seen
+ */
+@Value
+public class VarpChange
+{
+	int tick;
+	int varpId;
+	int value;
+}
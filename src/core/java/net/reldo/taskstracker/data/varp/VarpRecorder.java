@@ -0,0 +1,147 @@
+package net.reldo.taskstracker.data.varp;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.ScheduledExecutorService;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.RuneLite;
+
+/**
+ * Records task varp changes of a session to a {@link VarpRecording} file under the RuneLite directory,
+ * so completion detection can be replayed offline. Changes are written on the executor and flushed once per tick,
+ * so a client crash loses at most the changes of the last tick.
+ */
+@Singleton
+@Slf4j
+public class VarpRecorder
+{
+	public static final File RECORDING_DIR = new File(new File(RuneLite.RUNELITE_DIR, "tasks-tracker"), "recordings");
+
+	@Inject private ScheduledExecutorService executor;
+
+	// Only accessed from the executor
+	private VarpRecording.Writer writer;
+	// Changes written since the last flush, only accessed from the executor
+	private boolean unflushed = false;
+	private volatile Path recordingPath;
+
+	public boolean isRecording()
+	{
+		return recordingPath != null;
+	}
+
+	/**
+	 * Start a new recording, stopping any recording in progress.
+	 *
+	 * @return The file the recording is written to
+	 */
+	public Path start(String taskJsonName)
+	{
+		String fileName = taskJsonName + "-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + VarpRecording.FILE_EXTENSION;
+		Path path = new File(RECORDING_DIR, fileName).toPath();
+		recordingPath = path;
+		executor.execute(() -> {
+			closeWriter();
+			try
+			{
+				Files.createDirectories(path.getParent());
+				writer = VarpRecording.write(path, taskJsonName);
+				log.debug("recording varp changes to {}", path);
+			}
+			catch (IOException ex)
+			{
+				log.warn("Unable to start varp recording {}", path, ex);
+				recordingPath = null;
+			}
+		});
+		return path;
+	}
+
+	public void record(int tick, int varpId, int value)
+	{
+		if (recordingPath == null)
+		{
+			return;
+		}
+		VarpChange change = new VarpChange(tick, varpId, value);
+		executor.execute(() -> {
+			if (writer == null)
+			{
+				return;
+			}
+			try
+			{
+				writer.write(change);
+				unflushed = true;
+			}
+			catch (IOException | IllegalArgumentException ex)
+			{
+				log.warn("Unable to record varp change {}", change, ex);
+			}
+		});
+	}
+
+	/**
+	 * Flush the changes recorded so far to the file, called once per game tick.
+	 */
+	public void flush()
+	{
+		if (recordingPath == null)
+		{
+			return;
+		}
+		executor.execute(() -> {
+			if (writer == null || !unflushed)
+			{
+				return;
+			}
+			try
+			{
+				writer.flush();
+				unflushed = false;
+			}
+			catch (IOException ex)
+			{
+				log.warn("Unable to flush varp recording", ex);
+			}
+		});
+	}
+
+	/**
+	 * Stop recording.
+	 *
+	 * @return The file that was recorded to, or null if nothing was being recorded
+	 */
+	public Path stop()
+	{
+		Path path = recordingPath;
+		recordingPath = null;
+		executor.execute(this::closeWriter);
+		return path;
+	}
+
+	private void closeWriter()
+	{
+		if (writer == null)
+		{
+			return;
+		}
+		try
+		{
+			log.debug("varp recording closed with {} changes", writer.getChangeCount());
+			writer.close();
+		}
+		catch (IOException ex)
+		{
+			log.warn("Unable to close varp recording", ex);
+		}
+		writer = null;
+		unflushed = false;
+	}
+}
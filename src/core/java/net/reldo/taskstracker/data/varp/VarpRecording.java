@@ -0,0 +1,186 @@
+package net.reldo.taskstracker.data.varp;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import lombok.Getter;
+
+/**
+ * Binary file format of a varp recording. A gzipped header (magic, version, task type) is followed by one record
+ * per change: the tick delta and varp id as unsigned varints, then the raw varp value. Changes within a session
+ * are a few ticks apart on a handful of varps, so most records take three to six bytes before compression.
+ */
+public class VarpRecording
+{
+	public static final String FILE_EXTENSION = ".ttvr";
+	private static final int MAGIC = 0x54545652; // "TTVR"
+	private static final int VERSION = 1;
+
+	private VarpRecording()
+	{
+	}
+
+	public static Writer write(Path path, String taskJsonName) throws IOException
+	{
+		return new Writer(Files.newOutputStream(path), taskJsonName);
+	}
+
+	public static Reader read(Path path) throws IOException
+	{
+		return new Reader(Files.newInputStream(path));
+	}
+
+	/**
+	 * Read every change of a recording, oldest first.
+	 */
+	public static List<VarpChange> readAll(Path path) throws IOException
+	{
+		List<VarpChange> changes = new ArrayList<>();
+		try (Reader reader = read(path))
+		{
+			VarpChange change;
+			while ((change = reader.next()) != null)
+			{
+				changes.add(change);
+			}
+		}
+		return changes;
+	}
+
+	public static class Writer implements Closeable
+	{
+		private final DataOutputStream out;
+		private int lastTick = -1;
+		@Getter private int changeCount;
+
+		public Writer(OutputStream out, String taskJsonName) throws IOException
+		{
+			this.out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(out, true)));
+			this.out.writeInt(MAGIC);
+			this.out.writeByte(VERSION);
+			this.out.writeUTF(taskJsonName);
+		}
+
+		public void write(VarpChange change) throws IOException
+		{
+			if (change.getTick() < lastTick)
+			{
+				throw new IllegalArgumentException("varp changes must be written in tick order");
+			}
+			writeVarInt(lastTick < 0 ? change.getTick() : change.getTick() - lastTick);
+			writeVarInt(change.getVarpId());
+			out.writeInt(change.getValue());
+			lastTick = change.getTick();
+			changeCount++;
+		}
+
+		public void flush() throws IOException
+		{
+			out.flush();
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+			out.close();
+		}
+
+		private void writeVarInt(int value) throws IOException
+		{
+			while ((value & ~0x7F) != 0)
+			{
+				out.writeByte((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			out.writeByte(value);
+		}
+	}
+
+	public static class Reader implements Closeable
+	{
+		private final DataInputStream in;
+		@Getter private final String taskJsonName;
+		private int lastTick = -1;
+
+		public Reader(InputStream in) throws IOException
+		{
+			this.in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(in)));
+			if (this.in.readInt() != MAGIC)
+			{
+				throw new IOException("not a varp recording");
+			}
+			int version = this.in.readUnsignedByte();
+			if (version != VERSION)
+			{
+				throw new IOException("unsupported varp recording version " + version);
+			}
+			taskJsonName = this.in.readUTF();
+		}
+
+		/**
+		 * @return The next change, or null at the end of the recording
+		 */
+		public VarpChange next() throws IOException
+		{
+			try
+			{
+				int tickDelta = readVarInt(true);
+				if (tickDelta < 0)
+				{
+					return null;
+				}
+				int tick = lastTick < 0 ? tickDelta : lastTick + tickDelta;
+				int varpId = readVarInt(false);
+				int value = in.readInt();
+				lastTick = tick;
+				return new VarpChange(tick, varpId, value);
+			}
+			catch (EOFException ex)
+			{
+				// A recording that was not closed cleanly ends mid-record; keep what was read
+				return null;
+			}
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+			in.close();
+		}
+
+		private int readVarInt(boolean allowEnd) throws IOException
+		{
+			int value = 0;
+			for (int shift = 0; shift < 35; shift += 7)
+			{
+				int b = in.read();
+				if (b < 0)
+				{
+					if (allowEnd && shift == 0)
+					{
+						return -1;
+					}
+					throw new EOFException();
+				}
+				value |= (b & 0x7F) << shift;
+				if ((b & 0x80) == 0)
+				{
+					return value;
+				}
+			}
+			throw new IOException("malformed varint");
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package net.reldo.taskstracker.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear buckets, in the style of HdrHistogram.
+ * Values below 16ns get a bucket each, larger values are split into 8 buckets per power of two,
+ * so reported percentiles are within 12.5% of the recorded value.
+ */
+public class LatencyHistogram
+{
+	private static final int LINEAR_BUCKETS = 16;
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int FIRST_EXPONENT = 4;
+	private static final int BUCKET_COUNT = LINEAR_BUCKETS + (63 - FIRST_EXPONENT) * SUB_BUCKETS;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	public void record(long nanos)
+	{
+		long value = Math.max(0, nanos);
+		buckets.incrementAndGet(getBucketIndex(value));
+		count.increment();
+		sum.add(value);
+		max.accumulate(value);
+	}
+
+	/**
+	 * Record the time elapsed since a {@link System#nanoTime()} start.
+	 */
+	public void recordSince(long startNanos)
+	{
+		record(System.nanoTime() - startNanos);
+	}
+
+	public long getCount()
+	{
+		return count.sum();
+	}
+
+	public long getMax()
+	{
+		return max.get();
+	}
+
+	public double getMean()
+	{
+		long n = count.sum();
+		return n == 0 ? 0 : (double) sum.sum() / n;
+	}
+
+	/**
+	 * @param percentile between 0 and 100
+	 * @return The lower bound of the bucket holding the percentile, in nanos
+	 */
+	public long getPercentile(double percentile)
+	{
+		long n = count.sum();
+		if (n == 0)
+		{
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++)
+		{
+			seen += buckets.get(i);
+			if (seen >= rank)
+			{
+				return Math.min(getBucketLowerBound(i), getMax());
+			}
+		}
+		return getMax();
+	}
+
+	public void reset()
+	{
+		for (int i = 0; i < BUCKET_COUNT; i++)
+		{
+			buckets.set(i, 0);
+		}
+		count.reset();
+		sum.reset();
+		max.reset();
+	}
+
+	static int getBucketIndex(long value)
+	{
+		if (value < LINEAR_BUCKETS)
+		{
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return LINEAR_BUCKETS + (exponent - FIRST_EXPONENT) * SUB_BUCKETS + subBucket;
+	}
+
+	static long getBucketLowerBound(int index)
+	{
+		if (index < LINEAR_BUCKETS)
+		{
+			return index;
+		}
+		int exponent = (index - LINEAR_BUCKETS) / SUB_BUCKETS + FIRST_EXPONENT;
+		int subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS;
+		return (long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+	}
+}
@@ -0,0 +1,71 @@
+package net.reldo.taskstracker.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.inject.Singleton;
+
+/**
+ * Counters, gauges and latency histograms for the plugin's hot paths, reported by the tt-stats command.
+ * Recording is lock-free so it can be used from the client thread, the EDT and background threads.
+ */
+@Singleton
+public class MetricsRegistry
+{
+	public static final String DATA_FETCH = "data.fetch";
+	public static final String JSON_PARSE = "json.parse";
+	public static final String STRUCT_LOAD = "struct.load";
+	public static final String TASK_TYPE_LOAD = "taskType.load";
+	public static final String VARP_PROCESS = "varp.process";
+	public static final String FILTER_REFRESH = "filter.refresh";
+	public static final String PANEL_REDRAW = "panel.redraw";
+	public static final String SAVE = "save";
+	public static final String SAVE_SHARDS_WRITTEN = "save.shardsWritten";
+
+	private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+	private final Map<String, Supplier<? extends Number>> gauges = new ConcurrentHashMap<>();
+	private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+	public LongAdder counter(String name)
+	{
+		return counters.computeIfAbsent(name, k -> new LongAdder());
+	}
+
+	public void gauge(String name, Supplier<? extends Number> value)
+	{
+		gauges.put(name, value);
+	}
+
+	public LatencyHistogram histogram(String name)
+	{
+		return histograms.computeIfAbsent(name, k -> new LatencyHistogram());
+	}
+
+	public void reset()
+	{
+		counters.values().forEach(LongAdder::reset);
+		histograms.values().forEach(LatencyHistogram::reset);
+	}
+
+	/**
+	 * @return One human readable line per metric, sorted by name
+	 */
+	public List<String> report()
+	{
+		List<String> lines = new ArrayList<>();
+		new TreeMap<>(counters).forEach((name, counter) -> lines.add(name + ": " + counter.sum()));
+		new TreeMap<>(gauges).forEach((name, gauge) -> lines.add(name + ": " + gauge.get()));
+		new TreeMap<>(histograms).forEach((name, histogram) -> lines.add(String.format("%s: n=%d mean=%.2fms p50=%.2fms p99=%.2fms max=%.2fms",
+			name,
+			histogram.getCount(),
+			histogram.getMean() / 1_000_000,
+			histogram.getPercentile(50) / 1_000_000.0,
+			histogram.getPercentile(99) / 1_000_000.0,
+			histogram.getMax() / 1_000_000.0)));
+		return lines;
+	}
+}
@@ -0,0 +1,20 @@
+package net.reldo.taskstracker.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("net.reldo.taskstracker.FilterRefresh")
+@Label("Filter Refresh")
+@Category({"Tasks Tracker"})
+@Description("Task list filters re-evaluated on the event dispatch thread")
+public class FilterRefreshEvent extends Event
+{
+	@Label("Task Count")
+	public int taskCount;
+
+	@Label("Visible Count")
+	public int visibleCount;
+}
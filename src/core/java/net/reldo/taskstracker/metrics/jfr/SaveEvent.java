@@ -0,0 +1,23 @@
+package net.reldo.taskstracker.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("net.reldo.taskstracker.Save")
+@Label("Task Save")
+@Category({"Tasks Tracker"})
+@Description("Task data written to the profile config")
+public class SaveEvent extends Event
+{
+	@Label("Task Type")
+	public String taskType;
+
+	@Label("Task Count")
+	public int taskCount;
+
+	@Label("Shards Written")
+	public int shardsWritten;
+}
@@ -0,0 +1,17 @@
+package net.reldo.taskstracker.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("net.reldo.taskstracker.TaskListRedraw")
+@Label("Task List Redraw")
+@Category({"Tasks Tracker"})
+@Description("Task panels rebuilt on the event dispatch thread")
+public class TaskListRedrawEvent extends Event
+{
+	@Label("Task Count")
+	public int taskCount;
+}
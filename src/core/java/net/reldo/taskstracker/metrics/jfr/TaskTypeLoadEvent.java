@@ -0,0 +1,49 @@
+package net.reldo.taskstracker.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One phase of loading a task type. The phases of a load can complete on different threads.
+ */
+@Name("net.reldo.taskstracker.TaskTypeLoad")
+@Label("Task Type Load")
+@Category({"Tasks Tracker"})
+@Description("A phase of loading a task type")
+public class TaskTypeLoadEvent extends Event
+{
+	public static final String PHASE_TASK_TYPE_DATA = "task type data";
+	public static final String PHASE_DEFINITIONS = "definitions";
+	public static final String PHASE_STRUCTS = "structs";
+	public static final String PHASE_INDEX = "index";
+
+	@Label("Task Type")
+	public String taskType;
+
+	@Label("Phase")
+	public String phase;
+
+	@Label("Task Count")
+	public int taskCount;
+
+	public static TaskTypeLoadEvent begin(String taskType, String phase)
+	{
+		TaskTypeLoadEvent event = new TaskTypeLoadEvent();
+		event.taskType = taskType;
+		event.phase = phase;
+		event.begin();
+		return event;
+	}
+
+	public void commit(int taskCount)
+	{
+		if (shouldCommit())
+		{
+			this.taskCount = taskCount;
+			commit();
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package net.reldo.taskstracker.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Reading task completion from a task varp, or from every task varp for a full update.
+ */
+@Name("net.reldo.taskstracker.VarpFlush")
+@Label("Varp Flush")
+@Category({"Tasks Tracker"})
+@Description("Task completion read from the task varps")
+public class VarpFlushEvent extends Event
+{
+	@Label("Varp Id")
+	@Description("Varp processed, or -1 for all task varps")
+	public int varpId;
+
+	@Label("Task Count")
+	public int taskCount;
+
+	@Label("Completed Count")
+	public int completedCount;
+}
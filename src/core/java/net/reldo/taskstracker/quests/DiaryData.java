@@ -0,0 +1,14 @@
+package net.reldo.taskstracker.quests;
+
+import java.util.HashMap;
+
+public class DiaryData extends HashMap<Integer, Integer>
+{
+	public DiaryData(int[] diaryIds, int[] progress)
+	{
+		for (int i = 0; i < diaryIds.length; i++)
+		{
+			this.put(diaryIds[i], progress[i]);
+		}
+	}
+}
@@ -0,0 +1,15 @@
+package net.reldo.taskstracker.quests;
+
+import java.util.HashMap;
+import net.runelite.api.QuestState;
+
+public class QuestData extends HashMap<Integer, QuestState>
+{
+	public QuestData(int[] questIds, QuestState[] questStates)
+	{
+		for (int i = 0; i < questIds.length; i++)
+		{
+			this.put(questIds[i], questStates[i]);
+		}
+	}
+}
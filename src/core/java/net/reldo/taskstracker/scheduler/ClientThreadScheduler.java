@@ -0,0 +1,174 @@
+package net.reldo.taskstracker.scheduler;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.reldo.taskstracker.TasksTrackerConfig;
+import net.runelite.client.callback.ClientThread;
+
+/**
+ * Single queue for all plugin work that must run on the client thread.
+ * Work is executed by priority, then submission order, within a time budget per client tick.
+ * Work left over when the budget is spent spills over to the next client tick.
+ */
+@Singleton
+@Slf4j
+public class ClientThreadScheduler
+{
+	@Inject private ClientThread clientThread;
+	@Inject private TasksTrackerConfig config;
+
+	private final PriorityQueue<ScheduledWork<?>> queue = new PriorityQueue<>();
+	private final AtomicLong sequence = new AtomicLong();
+	private final BooleanSupplier drainTask = this::drain;
+	private boolean drainScheduled = false;
+
+	@Getter private final AtomicLong queuedCount = new AtomicLong();
+	@Getter private final AtomicLong executedCount = new AtomicLong();
+	@Getter private final AtomicLong failedCount = new AtomicLong();
+	@Getter private final AtomicLong overrunCount = new AtomicLong();
+	@Getter private final AtomicLong spilledTickCount = new AtomicLong();
+
+	public <T> CompletableFuture<T> submit(WorkPriority priority, String name, Supplier<T> work)
+	{
+		ScheduledWork<T> scheduledWork = new ScheduledWork<>(priority, sequence.getAndIncrement(), name, work);
+		boolean scheduleDrain;
+		synchronized (queue)
+		{
+			queue.add(scheduledWork);
+			scheduleDrain = !drainScheduled;
+			drainScheduled = true;
+		}
+		queuedCount.incrementAndGet();
+		if (scheduleDrain)
+		{
+			clientThread.invokeLater(drainTask);
+		}
+		return scheduledWork.future;
+	}
+
+	public CompletableFuture<Void> submit(WorkPriority priority, String name, Runnable work)
+	{
+		return submit(priority, name, () -> {
+			work.run();
+			return null;
+		});
+	}
+
+	public int getPendingCount()
+	{
+		synchronized (queue)
+		{
+			return queue.size();
+		}
+	}
+
+	/**
+	 * Drop all queued work, cancelling the futures of anything not yet executed.
+	 */
+	public void clear()
+	{
+		synchronized (queue)
+		{
+			queue.forEach(work -> work.future.completeExceptionally(new CancellationException("client thread scheduler cleared")));
+			queue.clear();
+		}
+	}
+
+	/**
+	 * Execute queued work until the queue is empty or the tick budget is spent.
+	 *
+	 * @return true when the queue is drained, false to be invoked again on the next client tick
+	 */
+	private boolean drain()
+	{
+		long budgetNanos = config.clientThreadBudgetMs() * 1_000_000L;
+		long drainStart = System.nanoTime();
+		while (true)
+		{
+			ScheduledWork<?> work;
+			synchronized (queue)
+			{
+				work = queue.poll();
+				if (work == null)
+				{
+					drainScheduled = false;
+					return true;
+				}
+			}
+
+			long workStart = System.nanoTime();
+			work.run();
+			long workEnd = System.nanoTime();
+			executedCount.incrementAndGet();
+			if (workEnd - workStart > budgetNanos)
+			{
+				overrunCount.incrementAndGet();
+				log.debug("client thread work {} overran the tick budget ({}ms)", work.name, (workEnd - workStart) / 1_000_000);
+			}
+
+			if (workEnd - drainStart >= budgetNanos)
+			{
+				synchronized (queue)
+				{
+					if (queue.isEmpty())
+					{
+						drainScheduled = false;
+						return true;
+					}
+				}
+				spilledTickCount.incrementAndGet();
+				return false;
+			}
+		}
+	}
+
+	private class ScheduledWork<T> implements Comparable<ScheduledWork<?>>
+	{
+		private final WorkPriority priority;
+		private final long sequence;
+		private final String name;
+		private final Supplier<T> work;
+		private final CompletableFuture<T> future = new CompletableFuture<>();
+
+		private ScheduledWork(WorkPriority priority, long sequence, String name, Supplier<T> work)
+		{
+			this.priority = priority;
+			this.sequence = sequence;
+			this.name = name;
+			this.work = work;
+		}
+
+		private void run()
+		{
+			if (future.isDone())
+			{
+				return;
+			}
+			try
+			{
+				future.complete(work.get());
+			}
+			catch (Exception ex)
+			{
+				failedCount.incrementAndGet();
+				log.error("client thread work {} failed", name, ex);
+				future.completeExceptionally(ex);
+			}
+		}
+
+		@Override
+		public int compareTo(ScheduledWork<?> other)
+		{
+			int byPriority = priority.compareTo(other.priority);
+			return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+		}
+	}
+}
@@ -0,0 +1,20 @@
+package net.reldo.taskstracker.scheduler;
+
+/**
+ * Order in which queued client thread work is executed, highest first.
+ */
+public enum WorkPriority
+{
+	/**
+	 * Work the user is waiting on, e.g. an export or filter options.
+	 */
+	HIGH,
+	/**
+	 * Work required to display the current task type.
+	 */
+	NORMAL,
+	/**
+	 * Work that can trail behind, e.g. task status updates from varps.
+	 */
+	LOW
+}
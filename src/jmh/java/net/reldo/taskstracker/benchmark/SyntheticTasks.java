@@ -0,0 +1,186 @@
+package net.reldo.taskstracker.benchmark;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import lombok.Getter;
+import net.reldo.taskstracker.data.jsondatastore.types.TaskDefinition;
+import net.reldo.taskstracker.data.jsondatastore.types.TaskTypeDefinition;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskType;
+import net.runelite.api.Client;
+import net.runelite.api.StructComposition;
+
+/**
+ * Deterministic task set of a given size, backed by a fake client serving the struct params.
+ * About a third of the tasks are completed and a tenth are tracked.
+ */
+public class SyntheticTasks
+{
+	public static final String TASK_JSON_NAME = "SYNTHETIC";
+	private static final int FIRST_STRUCT_ID = 10_000;
+	private static final int FIRST_TASK_VARP = 2_000;
+	private static final long SEED = 42;
+
+	private static final int ID_PARAM = 1;
+	private static final int TIER_PARAM = 2;
+	private static final int SKILL_PARAM = 3;
+	private static final int AREA_PARAM = 4;
+	private static final int NAME_PARAM = 10;
+	private static final int DESCRIPTION_PARAM = 11;
+
+	@Getter private final Client client;
+	@Getter private final TaskTypeDefinition taskTypeDefinition;
+	@Getter private final TaskType taskType;
+	@Getter private final List<TaskDefinition> taskDefinitions = new ArrayList<>();
+	@Getter private final List<TaskFromStruct> tasks = new ArrayList<>();
+	@Getter private final HashMap<Integer, Integer> varpValues = new HashMap<>();
+
+	public SyntheticTasks(int taskCount)
+	{
+		Random random = new Random(SEED);
+		client = fakeClient();
+
+		taskTypeDefinition = new TaskTypeDefinition();
+		taskTypeDefinition.setName("Synthetic");
+		taskTypeDefinition.setEnabled(true);
+		taskTypeDefinition.setTaskJsonName(TASK_JSON_NAME);
+		taskTypeDefinition.setFilters(new ArrayList<>());
+		HashMap<String, Integer> intParamMap = new HashMap<>();
+		intParamMap.put("id", ID_PARAM);
+		intParamMap.put("tier", TIER_PARAM);
+		intParamMap.put("skill", SKILL_PARAM);
+		intParamMap.put("area", AREA_PARAM);
+		taskTypeDefinition.setIntParamMap(intParamMap);
+		HashMap<String, Integer> stringParamMap = new HashMap<>();
+		stringParamMap.put("name", NAME_PARAM);
+		stringParamMap.put("description", DESCRIPTION_PARAM);
+		taskTypeDefinition.setStringParamMap(stringParamMap);
+		taskTypeDefinition.setIntEnumMap(new HashMap<>());
+		taskTypeDefinition.setStringEnumMap(new HashMap<>());
+		ArrayList<Integer> taskVarps = new ArrayList<>();
+		for (int varp = 0; varp < (taskCount + 31) / 32; varp++)
+		{
+			taskVarps.add(FIRST_TASK_VARP + varp);
+		}
+		taskTypeDefinition.setTaskVarps(taskVarps);
+		taskTypeDefinition.setOtherVarps(new int[0]);
+		taskTypeDefinition.setVarbits(new int[0]);
+		taskType = new TaskType(client, null, null, taskTypeDefinition);
+
+		long now = System.currentTimeMillis();
+		for (int i = 0; i < taskCount; i++)
+		{
+			TaskDefinition definition = new TaskDefinition();
+			definition.setStructId(FIRST_STRUCT_ID + i);
+			definition.setSortId(i);
+			definition.setCompletionPercent(random.nextFloat() * 100);
+			taskDefinitions.add(definition);
+
+			TaskFromStruct task = new TaskFromStruct(taskType, definition);
+			task.loadStructData(client);
+			if (random.nextInt(3) == 0)
+			{
+				task.setCompletedOn(now - random.nextInt(Integer.MAX_VALUE));
+				varpValues.merge(taskVarps.get(i / 32), 1 << (i % 32), (a, b) -> a | b);
+			}
+			if (random.nextInt(10) == 0)
+			{
+				task.setTrackedOn(now - random.nextInt(Integer.MAX_VALUE));
+			}
+			tasks.add(task);
+		}
+	}
+
+	/**
+	 * Set a private injected field, for services constructed outside of Guice.
+	 */
+	public static void inject(Object target, String fieldName, Object value)
+	{
+		try
+		{
+			Field field = target.getClass().getDeclaredField(fieldName);
+			field.setAccessible(true);
+			field.set(target, value);
+		}
+		catch (ReflectiveOperationException ex)
+		{
+			throw new IllegalStateException("Unable to inject " + fieldName, ex);
+		}
+	}
+
+	private Client fakeClient()
+	{
+		return (Client) Proxy.newProxyInstance(Client.class.getClassLoader(), new Class<?>[]{Client.class}, (proxy, method, args) -> {
+			switch (method.getName())
+			{
+				case "isClientThread":
+					return true;
+				case "getStructComposition":
+					return fakeStruct((int) args[0] - FIRST_STRUCT_ID);
+				case "getVarpValue":
+					return varpValues.getOrDefault((int) args[0], 0);
+				case "getIntStack":
+					return new int[1];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "equals":
+					return proxy == args[0];
+				case "toString":
+					return "SyntheticClient";
+			}
+			return defaultValue(method);
+		});
+	}
+
+	private static StructComposition fakeStruct(int index)
+	{
+		return (StructComposition) Proxy.newProxyInstance(StructComposition.class.getClassLoader(), new Class<?>[]{StructComposition.class}, (proxy, method, args) -> {
+			switch (method.getName())
+			{
+				case "getIntValue":
+					switch ((int) args[0])
+					{
+						case ID_PARAM:
+							return index;
+						case TIER_PARAM:
+							return 1 + index % 6;
+						case SKILL_PARAM:
+							return index % 24;
+						case AREA_PARAM:
+							return index % 12;
+					}
+					return 0;
+				case "getStringValue":
+					switch ((int) args[0])
+					{
+						case NAME_PARAM:
+							return "Task " + index;
+						case DESCRIPTION_PARAM:
+							return "Complete synthetic task number " + index;
+					}
+					return "";
+			}
+			return defaultValue(method);
+		});
+	}
+
+	private static Object defaultValue(Method method)
+	{
+		Class<?> type = method.getReturnType();
+		if (type.isPrimitive() && type != void.class)
+		{
+			return Array.get(Array.newInstance(type, 1), 0);
+		}
+		if (type.isArray())
+		{
+			return Array.newInstance(type.getComponentType(), 0);
+		}
+		return null;
+	}
+}
@@ -0,0 +1,79 @@
+package net.reldo.taskstracker.data;
+
+import com.google.gson.Gson;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import net.reldo.taskstracker.benchmark.SyntheticTasks;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Building and serialising the export json, as a single string for the clipboard and streamed as for a file export.
+ * {@link #exportJson} is the work that used to run on the client thread; {@link #captureSnapshot} is what runs there
+ * now, with {@link #exportFromSnapshot} left for the executor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ExportBenchmark
+{
+	@Param({"500", "5000", "50000"})
+	private int taskCount;
+
+	private SyntheticTasks synthetic;
+	private Gson gson;
+	private ExportWriter exportWriter;
+	private ExportSnapshot snapshot;
+
+	@Setup
+	public void setUp()
+	{
+		synthetic = new SyntheticTasks(taskCount);
+		gson = new Gson().newBuilder()
+			.excludeFieldsWithoutExposeAnnotation()
+			.registerTypeAdapter(float.class, new LongSerializer())
+			.create();
+		exportWriter = new ExportWriter();
+		SyntheticTasks.inject(exportWriter, "gson", new Gson());
+		snapshot = ExportSnapshot.capture(synthetic.getTaskType(), synthetic.getTasks(), synthetic.getClient());
+	}
+
+	@Benchmark
+	public String exportJson()
+	{
+		Export export = new Export(synthetic.getTaskType(), synthetic.getTasks(), "benchmark", synthetic.getClient());
+		return gson.toJson(export);
+	}
+
+	@Benchmark
+	public void exportStreamed() throws IOException
+	{
+		Export export = new Export(synthetic.getTaskType(), synthetic.getTasks(), "benchmark", synthetic.getClient());
+		exportWriter.write(export, Writer.nullWriter());
+	}
+
+	@Benchmark
+	public ExportSnapshot captureSnapshot()
+	{
+		return ExportSnapshot.capture(synthetic.getTaskType(), synthetic.getTasks(), synthetic.getClient());
+	}
+
+	@Benchmark
+	public void exportFromSnapshot() throws IOException
+	{
+		exportWriter.write(new Export(snapshot, "benchmark"), Writer.nullWriter());
+	}
+}
@@ -0,0 +1,59 @@
+package net.reldo.taskstracker.data;
+
+import com.google.gson.Gson;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.reldo.taskstracker.benchmark.SyntheticTasks;
+import net.reldo.taskstracker.data.task.ConfigTaskSave;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Serialisation of task saves to and from the config json.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TrackerConfigStoreBenchmark
+{
+	@Param({"500", "5000", "50000"})
+	private int taskCount;
+
+	private TrackerConfigStore trackerConfigStore;
+	private List<TaskFromStruct> tasks;
+	private String encodedSaveData;
+
+	@Setup
+	public void setUp()
+	{
+		trackerConfigStore = new TrackerConfigStore(new Gson());
+		tasks = new SyntheticTasks(taskCount).getTasks();
+		encodedSaveData = trackerConfigStore.encodeSaveData(trackerConfigStore.getSaveDataByStructId(tasks));
+	}
+
+	@Benchmark
+	public String save()
+	{
+		return trackerConfigStore.encodeSaveData(trackerConfigStore.getSaveDataByStructId(tasks));
+	}
+
+	@Benchmark
+	public HashMap<Integer, ConfigTaskSave> load()
+	{
+		return trackerConfigStore.decodeSaveData(encodedSaveData);
+	}
+}
@@ -0,0 +1,85 @@
+package net.reldo.taskstracker.data.jsondatastore;
+
+import com.google.gson.Gson;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.reldo.taskstracker.benchmark.SyntheticTasks;
+import net.reldo.taskstracker.data.jsondatastore.reader.DataStoreReader;
+import net.reldo.taskstracker.data.jsondatastore.types.TaskDefinition;
+import net.reldo.taskstracker.metrics.MetricsRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing a task json into task definitions, without the network fetch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TaskDataClientBenchmark
+{
+	@Param({"500", "5000", "50000"})
+	private int taskCount;
+
+	private TaskDataClient taskDataClient;
+
+	@Setup
+	public void setUp()
+	{
+		Gson gson = new Gson();
+		byte[] tasksJson = gson.toJson(new SyntheticTasks(taskCount).getTaskDefinitions()).getBytes(StandardCharsets.UTF_8);
+		DataStoreReader dataStoreReader = new DataStoreReader()
+		{
+			@Override
+			public InputStream readManifestData()
+			{
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public InputStream readTaskTypes(String taskTypeFilename)
+			{
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public InputStream readTasks(String jsonFilename)
+			{
+				return new ByteArrayInputStream(tasksJson);
+			}
+
+			@Override
+			public InputStream readFilterConfigs(String filterFilename)
+			{
+				throw new UnsupportedOperationException();
+			}
+		};
+
+		taskDataClient = new TaskDataClient();
+		SyntheticTasks.inject(taskDataClient, "gson", gson);
+		SyntheticTasks.inject(taskDataClient, "dataStoreReader", dataStoreReader);
+		SyntheticTasks.inject(taskDataClient, "metricsRegistry", new MetricsRegistry());
+	}
+
+	@Benchmark
+	public List<TaskDefinition> parseTaskDefinitions() throws Exception
+	{
+		taskDataClient.clearTaskDefinitionsCache();
+		return taskDataClient.getTaskDefinitions(SyntheticTasks.TASK_JSON_NAME);
+	}
+}
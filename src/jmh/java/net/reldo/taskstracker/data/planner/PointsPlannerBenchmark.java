@@ -0,0 +1,59 @@
+package net.reldo.taskstracker.data.planner;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.reldo.taskstracker.benchmark.SyntheticTasks;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Planning tasks to a points target of half the remaining points, with league-like tier points.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class PointsPlannerBenchmark
+{
+	private static final int[] TIER_POINTS = {10, 30, 80, 200, 400, 600};
+
+	@Param({"500", "5000", "50000"})
+	private int taskCount;
+
+	private List<TaskFromStruct> tasks;
+	private int targetPoints;
+	private int[] playerSkills;
+
+	@Setup
+	public void setUp()
+	{
+		SyntheticTasks synthetic = new SyntheticTasks(taskCount);
+		for (int tier = 1; tier <= TIER_POINTS.length; tier++)
+		{
+			synthetic.getTaskType().getTierPoints().put(tier, TIER_POINTS[tier - 1]);
+		}
+		tasks = synthetic.getTasks();
+		int totalPoints = tasks.stream().mapToInt(TaskFromStruct::getPoints).sum();
+		int completedPoints = tasks.stream().filter(TaskFromStruct::isCompleted).mapToInt(TaskFromStruct::getPoints).sum();
+		targetPoints = completedPoints + (totalPoints - completedPoints) / 2;
+		playerSkills = new int[24];
+	}
+
+	@Benchmark
+	public PointsPlan plan()
+	{
+		return new PointsPlanner().plan(tasks, targetPoints, playerSkills, 5, 3);
+	}
+}
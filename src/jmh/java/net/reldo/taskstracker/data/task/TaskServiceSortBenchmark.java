@@ -0,0 +1,49 @@
+package net.reldo.taskstracker.data.task;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+import net.reldo.taskstracker.benchmark.SyntheticTasks;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Construction of the per-param sort indexes after a task type is loaded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TaskServiceSortBenchmark
+{
+	@Param({"500", "5000", "50000"})
+	private int taskCount;
+
+	private SyntheticTasks synthetic;
+	private TaskService taskService;
+
+	@Setup
+	public void setUp()
+	{
+		synthetic = new SyntheticTasks(taskCount);
+		taskService = new TaskService();
+		taskService.getTasks().addAll(synthetic.getTasks());
+	}
+
+	@Benchmark
+	public HashMap<String, int[]> buildSortedIndexes()
+	{
+		taskService.buildSortedIndexes(synthetic.getTaskType());
+		return taskService.getSortedIndexes();
+	}
+}
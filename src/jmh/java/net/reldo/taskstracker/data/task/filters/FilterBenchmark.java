@@ -0,0 +1,92 @@
+package net.reldo.taskstracker.data.task.filters;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.reldo.taskstracker.benchmark.SyntheticTasks;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Evaluation of the param filters over every task, as done on each task list refresh, and the facet counts
+ * of a filter given the others, as done for the filter panels on each refresh.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class FilterBenchmark
+{
+	@Param({"500", "5000", "50000"})
+	private int taskCount;
+
+	private List<TaskFromStruct> tasks;
+	private Filter tierFilter;
+	private Filter skillFilter;
+	private Filter areaFilter;
+	private TaskIndex taskIndex;
+
+	@Setup
+	public void setUp()
+	{
+		SyntheticTasks synthetic = new SyntheticTasks(taskCount);
+		tasks = synthetic.getTasks();
+		tierFilter = new ParamButtonFilter("tier", () -> "f-1-f,f-2-f,f-4-f");
+		skillFilter = new ParamButtonFilter("skill", () -> "f-0-f,f-3-f,f-7-f,f-11-f,f-19-f");
+		areaFilter = new ParamDropdownFilter("area", () -> "5");
+		taskIndex = new TaskIndex();
+		taskIndex.rebuild(synthetic.getTaskType(), tasks);
+	}
+
+	@Benchmark
+	public int buttonFilters()
+	{
+		int visible = 0;
+		for (TaskFromStruct task : tasks)
+		{
+			if (tierFilter.meetsCriteria(task) && skillFilter.meetsCriteria(task))
+			{
+				visible++;
+			}
+		}
+		return visible;
+	}
+
+	@Benchmark
+	public int dropdownFilter()
+	{
+		int visible = 0;
+		for (TaskFromStruct task : tasks)
+		{
+			if (areaFilter.meetsCriteria(task))
+			{
+				visible++;
+			}
+		}
+		return visible;
+	}
+
+	@Benchmark
+	public Map<Integer, Integer> skillFacetCounts()
+	{
+		BitSet matching = taskIndex.all();
+		matching.andNot(taskIndex.getCompleted());
+		matching.and(tierFilter.getMatchingTasks(taskIndex));
+		matching.and(areaFilter.getMatchingTasks(taskIndex));
+		return taskIndex.countByValue("skill", matching);
+	}
+}
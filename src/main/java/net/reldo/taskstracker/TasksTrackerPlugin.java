@@ -1,43 +1,68 @@
 package net.reldo.taskstracker;
 
-import com.google.gson.Gson;
 import com.google.inject.Binder;
 import com.google.inject.Provides;
 import java.awt.Color;
 import java.awt.Toolkit;
 import java.awt.datatransfer.StringSelection;
 import java.awt.image.BufferedImage;
-import java.math.BigInteger;
-import java.util.ArrayList;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.EnumMap;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.swing.JDialog;
+import javax.swing.JFileChooser;
 import javax.swing.JOptionPane;
+import javax.swing.ProgressMonitor;
 import javax.swing.SwingUtilities;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import net.reldo.taskstracker.config.ConfigValues;
+import net.reldo.taskstracker.data.DeltaExport;
 import net.reldo.taskstracker.data.Export;
-import net.reldo.taskstracker.data.LongSerializer;
-import net.reldo.taskstracker.data.TasksSummary;
+import net.reldo.taskstracker.data.ExportHistory;
+import net.reldo.taskstracker.data.ExportSnapshot;
+import net.reldo.taskstracker.data.ExportWriter;
 import net.reldo.taskstracker.data.TrackerConfigStore;
+import net.reldo.taskstracker.data.history.TaskSnapshotHistory;
+import net.reldo.taskstracker.data.journal.TaskJournal;
+import net.reldo.taskstracker.data.journal.TaskJournalEntry;
+import net.reldo.taskstracker.data.jsondatastore.TaskDataClient;
+import net.reldo.taskstracker.data.jsondatastore.TaskDataPreloader;
 import net.reldo.taskstracker.data.jsondatastore.reader.DataStoreReader;
 import net.reldo.taskstracker.data.jsondatastore.reader.HttpDataStoreReader;
+import net.reldo.taskstracker.data.planner.PointsPlan;
+import net.reldo.taskstracker.data.planner.PointsPlanner;
+import net.reldo.taskstracker.data.reldo.BulkImportService;
 import net.reldo.taskstracker.data.reldo.ReldoImport;
+import net.reldo.taskstracker.data.recommendation.RecommendationService;
+import net.reldo.taskstracker.data.reldo.ReldoImportService;
+import net.reldo.taskstracker.data.summary.SummaryService;
+import net.reldo.taskstracker.data.summary.SummaryState;
+import net.reldo.taskstracker.data.summary.TaskCounts;
+import net.reldo.taskstracker.data.task.TaskCompletionService;
 import net.reldo.taskstracker.data.task.TaskFromStruct;
 import net.reldo.taskstracker.data.task.TaskService;
+import net.reldo.taskstracker.data.task.TaskStateChange;
 import net.reldo.taskstracker.data.task.TaskType;
 import net.reldo.taskstracker.data.task.filters.FilterService;
+import net.reldo.taskstracker.data.task.filters.TaskFilterService;
+import net.reldo.taskstracker.data.varp.VarpRecorder;
+import net.reldo.taskstracker.metrics.MetricsRegistry;
 import net.reldo.taskstracker.panel.TasksTrackerPluginPanel;
+import net.reldo.taskstracker.scheduler.ClientThreadScheduler;
+import net.reldo.taskstracker.scheduler.WorkPriority;
 import net.runelite.api.ChatMessageType;
 import net.runelite.api.Client;
 import net.runelite.api.Experience;
@@ -48,7 +73,6 @@ import net.runelite.api.events.GameStateChanged;
 import net.runelite.api.events.GameTick;
 import net.runelite.api.events.StatChanged;
 import net.runelite.api.events.VarbitChanged;
-import net.runelite.client.callback.ClientThread;
 import net.runelite.client.chat.ChatMessageBuilder;
 import net.runelite.client.chat.ChatMessageManager;
 import net.runelite.client.chat.QueuedMessage;
@@ -57,6 +81,7 @@ import net.runelite.client.config.RuneScapeProfileType;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.events.ConfigChanged;
 import net.runelite.client.events.ProfileChanged;
+import net.runelite.client.events.RuneScapeProfileChanged;
 import net.runelite.client.game.SpriteManager;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
@@ -72,17 +97,17 @@ import net.runelite.client.util.LinkBrowser;
 )
 public class TasksTrackerPlugin extends Plugin
 {
-	public static final String CONFIG_GROUP_NAME = "tasks-tracker";
+	public static final String CONFIG_GROUP_NAME = TasksTrackerConfig.CONFIG_GROUP_NAME;
 
 	public int[] playerSkills;
 
-	public String taskTextFilter;
-
 	public TasksTrackerPluginPanel pluginPanel;
 
 	private static final long VARP_UPDATE_THROTTLE_DELAY_MS = 7 * 1000;
 
 	private boolean forceUpdateVarpsFlag = false;
+	private boolean profileStatusRestored = false;
+	private CompletableFuture<TrackerConfigStore.TaskTypeSave> pendingTaskTypeSave;
 	private Set<Integer> varpIdsToUpdate = new HashSet<>();
 	private long lastVarpUpdate = 0;
 	private NavigationButton navButton;
@@ -90,19 +115,33 @@ public class TasksTrackerPlugin extends Plugin
 	private final Map<Skill, Integer> oldExperience = new EnumMap<>(Skill.class);
 
 	@Inject	@Named("runelite.version") private String runeliteVersion;
-	@Inject private Gson gson;
 	@Inject	private Client client;
 	@Inject	private SpriteManager spriteManager;
 	@Inject	private PluginManager pluginManager;
 	@Inject	private ClientToolbar clientToolbar;
-	@Inject	private ClientThread clientThread;
+	@Inject	private ClientThreadScheduler clientThreadScheduler;
 	@Inject	private ChatMessageManager chatMessageManager;
 	@Getter	@Inject	private ConfigManager configManager;
 	@Getter @Inject	private TasksTrackerConfig config;
 
 	@Inject	private TrackerConfigStore trackerConfigStore;
 	@Inject private TaskService taskService;
+	@Inject private TaskCompletionService taskCompletionService;
 	@Inject private FilterService filterService;
+	@Getter @Inject private TaskFilterService taskFilterService;
+	@Inject private TaskDataClient taskDataClient;
+	@Inject private TaskDataPreloader taskDataPreloader;
+	@Inject private TaskJournal taskJournal;
+	@Inject private VarpRecorder varpRecorder;
+	@Inject private ExportWriter exportWriter;
+	@Inject private ExportHistory exportHistory;
+	@Inject private ReldoImportService reldoImportService;
+	@Inject private BulkImportService bulkImportService;
+	@Inject private TaskSnapshotHistory taskSnapshotHistory;
+	@Getter @Inject private SummaryService summaryService;
+	@Inject private PointsPlanner pointsPlanner;
+	@Inject private RecommendationService recommendationService;
+	@Getter @Inject private MetricsRegistry metricsRegistry;
 
 	@Override
 	public void configure(Binder binder)
@@ -131,6 +170,8 @@ public class TasksTrackerPlugin extends Plugin
 		}
 
 		forceUpdateVarpsFlag = false;
+		taskService.addTaskStateListener(taskJournal);
+		registerGauges();
 
 		pluginPanel = new TasksTrackerPluginPanel(this, config, spriteManager, taskService);
 
@@ -156,6 +197,11 @@ public class TasksTrackerPlugin extends Plugin
 	@Override
 	protected void shutDown()
 	{
+		taskDataPreloader.shutDown();
+		clientThreadScheduler.clear();
+		taskService.removeTaskStateListener(taskJournal);
+		taskJournal.close();
+		varpRecorder.stop();
 		pluginPanel.hideLoggedInPanel();
 		pluginPanel = null;
 		taskService.clearTaskTypes();
@@ -184,17 +230,91 @@ public class TasksTrackerPlugin extends Plugin
 				log.debug("Invalid varpId, provide a valid integer");
 			}
 		}
+		else if (commandExecuted.getCommand().equalsIgnoreCase("tt-journal"))
+		{
+			String[] args = commandExecuted.getArguments();
+			int days = 7;
+			try
+			{
+				days = args.length > 0 ? Integer.parseInt(args[0]) : days;
+			}
+			catch (NumberFormatException e)
+			{
+				log.debug("Invalid number of days, provide a valid integer");
+				return;
+			}
+			sendJournalCompletionsToChat(days);
+		}
+		else if (commandExecuted.getCommand().equalsIgnoreCase("tt-stats"))
+		{
+			String[] args = commandExecuted.getArguments();
+			String mode = args.length > 0 ? args[0] : "chat";
+			if (mode.equalsIgnoreCase("reset"))
+			{
+				metricsRegistry.reset();
+				sendChatMessage("Task Tracker - Stats reset");
+			}
+			else if (mode.equalsIgnoreCase("log"))
+			{
+				metricsRegistry.report().forEach(line -> log.info("tt-stats {}", line));
+			}
+			else
+			{
+				metricsRegistry.report().forEach(line -> sendChatMessage("Task Tracker - " + line));
+			}
+		}
+		else if (commandExecuted.getCommand().equalsIgnoreCase("tt-history"))
+		{
+			sendSnapshotHistoryToChat();
+		}
+		else if (commandExecuted.getCommand().equalsIgnoreCase("tt-rollback"))
+		{
+			rollbackToSnapshot(commandExecuted.getArguments());
+		}
+		else if (commandExecuted.getCommand().equalsIgnoreCase("tt-record"))
+		{
+			String[] args = commandExecuted.getArguments();
+			if (args.length > 0 && args[0].equalsIgnoreCase("stop"))
+			{
+				Path recordingPath = varpRecorder.stop();
+				sendChatMessage(recordingPath == null ? "Task Tracker - Not recording varps" : "Task Tracker - Varps recorded to " + recordingPath);
+			}
+			else
+			{
+				TaskType currentTaskType = taskService.getCurrentTaskType();
+				if (currentTaskType == null)
+				{
+					return;
+				}
+				Path recordingPath = varpRecorder.start(currentTaskType.getTaskJsonName());
+				sendChatMessage("Task Tracker - Recording varps to " + recordingPath);
+			}
+		}
+	}
+
+	private void registerGauges()
+	{
+		metricsRegistry.gauge("tasks.loaded", () -> taskService.getTasks().size());
+		metricsRegistry.gauge("scheduler.pending", clientThreadScheduler::getPendingCount);
+		metricsRegistry.gauge("scheduler.executed", () -> clientThreadScheduler.getExecutedCount().get());
+		metricsRegistry.gauge("scheduler.failed", () -> clientThreadScheduler.getFailedCount().get());
+		metricsRegistry.gauge("scheduler.overruns", () -> clientThreadScheduler.getOverrunCount().get());
+		metricsRegistry.gauge("scheduler.spilledTicks", () -> clientThreadScheduler.getSpilledTickCount().get());
 	}
 
 	@Subscribe
 	public void onVarbitChanged(VarbitChanged varbitChanged)
 	{
+		int varpId = varbitChanged.getVarpId();
+		if (varpRecorder.isRecording() && taskService.isVarpInCurrentTaskType(varpId))
+		{
+			varpRecorder.record(client.getTickCount(), varpId, client.getVarpValue(varpId));
+		}
 		if (forceUpdateVarpsFlag || taskService.isTaskTypeChanged())
 		{
 			// Force update is coming on next game tick, so ignore varbit change events
 			return;
 		}
-		int varpId = varbitChanged.getVarpId();
 		if (!taskService.isVarpInCurrentTaskType(varpId))
 		{
 			return;
@@ -234,32 +354,102 @@ public class TasksTrackerPlugin extends Plugin
 		if (newGameState == GameState.LOGGING_IN)
 		{
 			forceUpdateVarpsFlag = true;
+			readTaskTypeSaveAsync();
 		}
-		// Changed game mode
+		// Changed game mode, keep the loaded task definitions and only swap the task status
 		if (isLoggedInState(newGameState) && currentProfileType != null && currentProfileType != newProfileType)
 		{
+			varpIdsToUpdate.clear();
+			taskService.stashTaskStatus(getProfileStatusKey(currentProfileType));
+			profileStatusRestored = taskService.restoreTaskStatus(getProfileStatusKey(newProfileType));
 			forceUpdateVarpsFlag = true;
 		}
 
+		// Leave the client thread and network alone while the game is busy
+		if (newGameState == GameState.LOADING || !isLoggedInState(newGameState))
+		{
+			taskDataPreloader.cancel();
+		}
+
 		currentProfileType = newProfileType;
 	}
 
+	@Subscribe
+	public void onRuneScapeProfileChanged(RuneScapeProfileChanged runeScapeProfileChanged)
+	{
+		// Decode the save for the new profile before the forced update tick needs it
+		readTaskTypeSaveAsync();
+	}
+
+	private void readTaskTypeSaveAsync()
+	{
+		pendingTaskTypeSave = trackerConfigStore.readCurrentTaskTypeSaveAsync();
+	}
+
+	/**
+	 * Queue the decoded save of the current task type to be applied, reading it again if it is missing or stale.
+	 *
+	 * @return false if the save is still being decoded
+	 */
+	private boolean applyPendingTaskTypeSave()
+	{
+		if (taskService.getCurrentTaskType() == null)
+		{
+			return true;
+		}
+		if (pendingTaskTypeSave == null || pendingTaskTypeSave.isCompletedExceptionally())
+		{
+			readTaskTypeSaveAsync();
+			return false;
+		}
+		if (!pendingTaskTypeSave.isDone())
+		{
+			return false;
+		}
+
+		TrackerConfigStore.TaskTypeSave save = pendingTaskTypeSave.join();
+		if (save == null || !trackerConfigStore.isCurrent(save))
+		{
+			readTaskTypeSaveAsync();
+			return false;
+		}
+		pendingTaskTypeSave = null;
+		clientThreadScheduler.submit(WorkPriority.HIGH, "apply save", () -> trackerConfigStore.applyTaskTypeSave(save));
+		return true;
+	}
+
 	private boolean isLoggedInState(GameState gameState)
 	{
 		return gameState == GameState.LOGGED_IN || gameState == GameState.HOPPING || gameState == GameState.LOADING;
 	}
 
+	private String getProfileStatusKey(RuneScapeProfileType profileType)
+	{
+		return TaskService.getProfileStatusKey(client.getAccountHash(), profileType);
+	}
+
 	@Subscribe
 	public void onGameTick(GameTick gameTick)
 	{
-		if (forceUpdateVarpsFlag || taskService.isTaskTypeChanged())
+		varpRecorder.flush();
+
+		// A status restored from the profile cache is already applied, only the varps need reading
+		boolean loadSave = !profileStatusRestored || taskService.isTaskTypeChanged();
+		// The save is decoded off the client thread, so wait for it rather than parsing it here
+		if ((forceUpdateVarpsFlag || taskService.isTaskTypeChanged()) && (!loadSave || applyPendingTaskTypeSave()))
 		{
 			log.debug("forceUpdateVarpsFlag game tick");
-			trackerConfigStore.loadCurrentTaskTypeFromConfig();
+			profileStatusRestored = false;
 			forceVarpUpdate();
 			SwingUtilities.invokeLater(() -> pluginPanel.redraw());
 			forceUpdateVarpsFlag = false;
 			taskService.setTaskTypeChanged(false);
+
+			TaskType currentTaskType = taskService.getCurrentTaskType();
+			if (currentTaskType != null)
+			{
+				taskDataPreloader.start(taskService.getTaskTypesByJsonName().values(), currentTaskType.getTaskJsonName());
+			}
 		}
 
 		// Flush throttled varp updates
@@ -282,6 +472,7 @@ public class TasksTrackerPlugin extends Plugin
 		if (changed)
 		{
 			playerSkills = client.getRealSkillLevels();
+			recommendationService.updatePlayerSkills(playerSkills);
 		}
 
 		final Skill skill = statChanged.getSkill();
@@ -312,20 +503,44 @@ public class TasksTrackerPlugin extends Plugin
 	public void onProfileChanged(ProfileChanged profileChanged)
 	{
 		final Optional<Plugin> taskTrackerPlugin = pluginManager.getPlugins().stream().filter(p -> p.getName().equals("Tasks Tracker")).findFirst();
-		if (taskTrackerPlugin.isPresent() && pluginManager.isPluginEnabled(taskTrackerPlugin.get()))
+		if (!taskTrackerPlugin.isPresent() || !pluginManager.isPluginEnabled(taskTrackerPlugin.get()))
 		{
-			reloadTaskType();
+			return;
+		}
+
+		// Task definitions and sprites are shared by all profiles, only the task status belongs to a profile
+		varpIdsToUpdate.clear();
+		taskService.clearTaskStatus();
+		profileStatusRestored = false;
+		TaskType currentTaskType = taskService.getCurrentTaskType();
+		if (currentTaskType != null && currentTaskType.getTaskJsonName().equals(config.taskTypeJsonName()))
+		{
+			forceUpdateVarpsFlag = isLoggedInState(client.getGameState());
+			refresh();
+		}
+		else
+		{
+			setTaskTypeFromConfig();
 		}
 	}
 
 	public void refresh()
 	{
+		// Only user interaction refreshes the panel, so stop preloading
+		taskDataPreloader.cancel();
 		SwingUtilities.invokeLater(() -> pluginPanel.refresh(null));
 	}
 
     public void reloadTaskType() {
+        taskDataPreloader.cancel();
         taskService.clearTaskTypes();
+        taskDataClient.clearTaskDefinitionsCache();
         filterService.clearFilterConfigs();
+        taskFilterService.clearParamFilters();
+        setTaskTypeFromConfig();
+    }
+
+    private void setTaskTypeFromConfig() {
         try {
             String taskTypeJsonName = config.taskTypeJsonName();
             taskService.setTaskType(taskTypeJsonName).thenAccept(isSet -> {
@@ -350,6 +565,12 @@ public class TasksTrackerPlugin extends Plugin
 		trackerConfigStore.saveCurrentTaskTypeData();
 	}
 
+	public void saveTaskData(TaskFromStruct task)
+	{
+		log.debug("saveTaskData {}", task.getStructId());
+		trackerConfigStore.saveTaskData(task);
+	}
+
 	public void openImportJsonDialog()
 	{
 		JOptionPane optionPane = new JOptionPane("Paste import data into the text field below to import task tracker data.", JOptionPane.INFORMATION_MESSAGE);
@@ -364,28 +585,88 @@ public class TasksTrackerPlugin extends Plugin
 			return;
 		}
 
-		String json = "";
-		ReldoImport reldoImport;
-		try
+		String json = (String) optionPane.getInputValue();
+		Set<Integer> knownTaskIds = new HashSet<>();
+		taskService.getTasks().forEach((task) -> knownTaskIds.add(task.getIntParam("id")));
+
+		ProgressMonitor progressMonitor = new ProgressMonitor(this.pluginPanel, "Reading import data", null, 0, 100);
+		reldoImportService.parse(json, knownTaskIds, percent -> SwingUtilities.invokeLater(() -> progressMonitor.setProgress(percent)))
+			.whenComplete((result, ex) -> SwingUtilities.invokeLater(() -> {
+				progressMonitor.close();
+				if (ex != null)
+				{
+					Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+					this.showMessageBox("Import Tasks Error", "There was an issue importing task tracker data. " + cause.getMessage(), JOptionPane.ERROR_MESSAGE, false);
+					log.error("There was an issue importing task tracker data.", cause);
+					log.debug("reldoImport json: {}", json);
+					return;
+				}
+				confirmImport(result);
+			}));
+	}
+
+	public void openBulkImportDialog()
+	{
+		JFileChooser fileChooser = new JFileChooser(ExportWriter.EXPORT_DIR);
+		fileChooser.setDialogTitle("Bulk Import Tasks");
+		fileChooser.setFileSelectionMode(JFileChooser.FILES_AND_DIRECTORIES);
+		fileChooser.setFileFilter(new FileNameExtensionFilter("Folders and zip archives of exports", "zip"));
+		if (fileChooser.showOpenDialog(this.pluginPanel) != JFileChooser.APPROVE_OPTION)
 		{
-			json = (String) optionPane.getInputValue();
-			reldoImport = this.gson.fromJson(json, ReldoImport.class);
+			return;
 		}
-		catch (Exception ex)
+
+		JOptionPane optionPane = new JOptionPane("Bulk importing merges every export in the selection into the saved data of its task type and profile, and cannot be undone. Are you sure you want to import tasks?", JOptionPane.WARNING_MESSAGE, JOptionPane.YES_NO_OPTION);
+		JDialog confirmDialog = optionPane.createDialog(this.pluginPanel, "Bulk Import Confirmation");
+		confirmDialog.setAlwaysOnTop(true);
+		confirmDialog.setVisible(true);
+		if (!JOptionPane.YES_OPTION.equals(optionPane.getValue()))
 		{
-			this.showMessageBox("Import Tasks Error", "There was an issue importing task tracker data. " + ex.getMessage(), JOptionPane.ERROR_MESSAGE, false);
-			log.error("There was an issue importing task tracker data.", ex);
-			log.debug("reldoImport json: {}", json);
 			return;
 		}
 
+		bulkImportService.importFrom(fileChooser.getSelectedFile().toPath()).whenComplete((result, ex) -> {
+			if (ex != null)
+			{
+				Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+				log.error("There was an issue bulk importing task tracker data.", cause);
+				this.showMessageBox("Import Tasks Error", "There was an issue importing task tracker data. " + cause.getMessage(), JOptionPane.ERROR_MESSAGE, false);
+				return;
+			}
+
+			TaskType currentTaskType = taskService.getCurrentTaskType();
+			if (currentTaskType != null && result.getTaskJsonNames().contains(currentTaskType.getTaskJsonName())
+				&& result.getRsProfileKeys().contains(configManager.getRSProfileKey()))
+			{
+				reloadCurrentTaskTypeSave();
+			}
+
+			String message = String.format("Imported %d files into %d task types across %d profiles, merging %d tasks.",
+				result.getFilesImported(), result.getTaskJsonNames().size(), result.getRsProfileKeys().size(), result.getTasksMerged());
+			if (result.getFilesSkipped() > 0 || result.getUnknownTasksSkipped() > 0)
+			{
+				message += String.format(" Skipped %d files without a matching task type or profile and %d unknown tasks.",
+					result.getFilesSkipped(), result.getUnknownTasksSkipped());
+			}
+			this.showMessageBox("Tasks Imported", message, JOptionPane.INFORMATION_MESSAGE, false);
+		});
+	}
+
+	private void confirmImport(ReldoImportService.ImportResult result)
+	{
+		ReldoImport reldoImport = result.getReldoImport();
 		if (!reldoImport.taskTypeName.equalsIgnoreCase(config.taskTypeJsonName()))
 		{
 			this.showMessageBox("Import Tasks Error", String.format("Wrong task type. Select the %s task type to import this data.", reldoImport.taskTypeName), JOptionPane.ERROR_MESSAGE, false);
 			return;
 		}
 
-		optionPane = new JOptionPane("Importing tasks will overwrite task tracker settings and cannot be undone. Are you sure you want to import tasks?", JOptionPane.WARNING_MESSAGE, JOptionPane.YES_NO_OPTION);
+		String message = String.format("Importing %d tasks will overwrite task tracker settings and cannot be undone.", reldoImport.getTasks().size());
+		if (result.getSkippedCount() > 0)
+		{
+			message += String.format(" %d tasks not in this task type will be skipped.", result.getSkippedCount());
+		}
+		JOptionPane optionPane = new JOptionPane(message + " Are you sure you want to import tasks?", JOptionPane.WARNING_MESSAGE, JOptionPane.YES_NO_OPTION);
 		JDialog confirmDialog = optionPane.createDialog(this.pluginPanel, "Import Tasks Overwrite Confirmation");
 		confirmDialog.setAlwaysOnTop(true);
 		confirmDialog.setVisible(true);
@@ -398,27 +679,183 @@ public class TasksTrackerPlugin extends Plugin
 
 		if (selectedValue.equals(JOptionPane.YES_OPTION))
 		{
-			HashMap<Integer, TaskFromStruct> tasksById = new HashMap<>();
-			taskService.getTasks().forEach((task) -> tasksById.put(task.getIntParam("id"), task));
-
-			reldoImport.getTasks().forEach((id, reldoTaskSave) -> {
-				TaskFromStruct task = tasksById.get(id);
-				task.loadReldoSave(reldoTaskSave);
+			reldoImportService.apply(reldoImport).whenComplete((merged, ex) -> {
+				if (ex != null)
+				{
+					log.error("There was an issue applying task tracker data.", ex);
+					this.showMessageBox("Import Tasks Error", "There was an issue importing task tracker data.", JOptionPane.ERROR_MESSAGE, false);
+					return;
+				}
+				log.debug("imported {} tasks, skipped {}", merged, result.getSkippedCount());
+				SwingUtilities.invokeLater(pluginPanel::redraw);
 			});
+		}
+	}
+
+	/**
+	 * Ask for a points target, then offer to track the cheapest remaining tasks that reach it.
+	 */
+	public void openPointsPlannerDialog()
+	{
+		if (taskService.getCurrentTaskType() == null)
+		{
+			return;
+		}
+		if (taskService.getCurrentTaskType().getTierPoints().isEmpty())
+		{
+			this.showMessageBox("Points Planner", "This task type has no tier points to plan for.", JOptionPane.INFORMATION_MESSAGE, false);
+			return;
+		}
+
+		String input = JOptionPane.showInputDialog(this.pluginPanel, "Points total to reach:", "Points Planner", JOptionPane.QUESTION_MESSAGE);
+		if (input == null || input.trim().isEmpty())
+		{
+			return;
+		}
+		int targetPoints;
+		try
+		{
+			targetPoints = Integer.parseInt(input.trim());
+		}
+		catch (NumberFormatException ex)
+		{
+			this.showMessageBox("Points Planner", "The points total must be a whole number.", JOptionPane.ERROR_MESSAGE, false);
+			return;
+		}
 
-			trackerConfigStore.saveCurrentTaskTypeData();
-			pluginPanel.redraw();
+		PointsPlan plan = pointsPlanner.plan(taskService.getTasks(), targetPoints, playerSkills);
+		if (plan.getTasks().isEmpty())
+		{
+			String message = plan.isReachable()
+				? String.format("You already have %d of %d points.", plan.getCompletedPoints(), targetPoints)
+				: "There are no remaining tasks to plan.";
+			this.showMessageBox("Points Planner", message, JOptionPane.INFORMATION_MESSAGE, false);
+			return;
 		}
+
+		StringBuilder message = new StringBuilder(String.format("%d tasks for %d points, taking you from %d to %d points.",
+			plan.getTasks().size(), plan.getPlannedPoints(), plan.getCompletedPoints(), plan.getCompletedPoints() + plan.getPlannedPoints()));
+		if (!plan.isReachable())
+		{
+			message.append(String.format(" Every remaining task together falls short of %d points.", targetPoints));
+		}
+		message.append("\n");
+		plan.getTasks().stream().limit(10).forEach(task -> message.append("\n").append(task.getName()));
+		if (plan.getTasks().size() > 10)
+		{
+			message.append(String.format("\n...and %d more", plan.getTasks().size() - 10));
+		}
+		message.append("\n\nTrack these tasks?");
+
+		JOptionPane optionPane = new JOptionPane(message.toString(), JOptionPane.QUESTION_MESSAGE, JOptionPane.YES_NO_OPTION);
+		JDialog confirmDialog = optionPane.createDialog(this.pluginPanel, "Points Planner");
+		confirmDialog.setAlwaysOnTop(true);
+		confirmDialog.setVisible(true);
+		if (!JOptionPane.YES_OPTION.equals(optionPane.getValue()))
+		{
+			return;
+		}
+
+		plan.getTasks().forEach(task -> task.setTracked(true));
+		saveCurrentTaskTypeData();
+		pluginPanel.refresh(null);
 	}
 
 	public void sendTotalsToChat()
 	{
-		TasksSummary summary = new TasksSummary(taskService.getTasks());
-		int trackedTasks = summary.trackedTasksCount;
-		int trackedPoints = summary.trackedTasksPoints;
+		TaskCounts totals = summaryService.getTotals();
+		int trackedTasks = totals.getCount(SummaryState.TRACKED);
+		int trackedPoints = totals.getPoints(SummaryState.TRACKED);
+
+		sendChatMessage(String.format("Task Tracker - Tracked Tasks: %s | Tracked Points: %s", trackedTasks, trackedPoints));
+	}
+
+	private void sendJournalCompletionsToChat(int days)
+	{
+		TaskType taskType = taskService.getCurrentTaskType();
+		String rsProfileKey = configManager.getRSProfileKey();
+		if (taskType == null || rsProfileKey == null)
+		{
+			return;
+		}
+
+		long since = System.currentTimeMillis() - days * 24L * 60 * 60 * 1000;
+		taskJournal.getHistory(rsProfileKey, taskType.getTaskJsonName()).thenAccept(entries -> {
+			long completions = entries.stream()
+				.filter(entry -> entry.getTimestamp() >= since && entry.getChange() == TaskStateChange.COMPLETED)
+				.map(TaskJournalEntry::getStructId)
+				.distinct()
+				.count();
+			sendChatMessage(String.format("Task Tracker - %s tasks completed in the last %s days", completions, days));
+		});
+	}
+
+	private void sendSnapshotHistoryToChat()
+	{
+		TaskType taskType = taskService.getCurrentTaskType();
+		String rsProfileKey = configManager.getRSProfileKey();
+		if (taskType == null || rsProfileKey == null)
+		{
+			return;
+		}
+
+		taskSnapshotHistory.getSnapshots(rsProfileKey, taskType.getTaskJsonName()).thenAccept(snapshots -> {
+			if (snapshots.isEmpty())
+			{
+				sendChatMessage("Task Tracker - No snapshots recorded yet");
+				return;
+			}
+			SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+			snapshots.forEach(snapshot -> sendChatMessage(String.format("Task Tracker - Snapshot %s: %s %s, %s tasks changed",
+				snapshot.getIndex(), dateFormat.format(new Date(snapshot.getTimestamp())), snapshot.getReason().name().toLowerCase(), snapshot.getChangedTaskCount())));
+		});
+	}
+
+	private void rollbackToSnapshot(String[] args)
+	{
+		TaskType taskType = taskService.getCurrentTaskType();
+		String rsProfileKey = configManager.getRSProfileKey();
+		if (taskType == null || rsProfileKey == null || args.length == 0)
+		{
+			return;
+		}
+
+		int index;
+		try
+		{
+			index = Integer.parseInt(args[0]);
+		}
+		catch (NumberFormatException e)
+		{
+			log.debug("Invalid snapshot, provide a snapshot number from tt-history");
+			return;
+		}
+		taskSnapshotHistory.rollback(rsProfileKey, taskType, taskService.getTasks(), index).whenComplete((restored, ex) -> {
+			if (ex != null)
+			{
+				log.warn("Unable to roll back to snapshot {}", index, ex);
+				sendChatMessage("Task Tracker - Unable to roll back to snapshot " + index);
+				return;
+			}
+			reloadCurrentTaskTypeSave();
+			sendChatMessage(String.format("Task Tracker - Rolled back to snapshot %s (%s tasks with saved data)", index, restored));
+		});
+	}
+
+	/**
+	 * Re-read the saved data of the current task type after it was written outside the task service.
+	 */
+	private void reloadCurrentTaskTypeSave()
+	{
+		trackerConfigStore.readCurrentTaskTypeSaveAsync()
+			.thenCompose(save -> clientThreadScheduler.submit(WorkPriority.HIGH, "apply task type save", () -> trackerConfigStore.applyTaskTypeSave(save)))
+			.thenRun(() -> SwingUtilities.invokeLater(pluginPanel::redraw));
+	}
 
+	private void sendChatMessage(String chatMessage)
+	{
 		final String message = new ChatMessageBuilder()
-			.append(Color.BLACK, String.format("Task Tracker - Tracked Tasks: %s | Tracked Points: %s", trackedTasks, trackedPoints))
+			.append(Color.BLACK, chatMessage)
 			.build();
 
 		chatMessageManager.queue(
@@ -428,16 +865,100 @@ public class TasksTrackerPlugin extends Plugin
 				.build());
 	}
 
-	public void copyJsonToClipboard()
+	/**
+	 * Export the current task type to the configured destination.
+	 *
+	 * @param changesOnly export only what changed since the last export of the task type, if there is one
+	 */
+	public void exportCurrentTaskType(boolean changesOnly)
+	{
+		clientThreadScheduler.submit(WorkPriority.HIGH, "export snapshot", this::captureExportSnapshot).thenCompose(snapshot ->
+			snapshot == null ? CompletableFuture.completedFuture(null) : exportWriter.createExport(snapshot, runeliteVersion)
+		).thenAccept(export -> {
+			if (export == null)
+			{
+				String error = "Cannot export; no task type selected.";
+				log.error(error);
+				showMessageBox("Export Failed", error, JOptionPane.ERROR_MESSAGE, false);
+				return;
+			}
+
+			String taskTypeName = taskService.getCurrentTaskType().getName();
+			String rsProfileKey = configManager.getRSProfileKey();
+			// The export only becomes the base of the next delta once the user has it
+			Runnable recordExport = () -> {
+				if (rsProfileKey != null)
+				{
+					exportHistory.recordExport(rsProfileKey, export);
+				}
+			};
+			if (rsProfileKey == null || !changesOnly)
+			{
+				deliverExport(export, taskTypeName + " data", recordExport);
+			}
+			else
+			{
+				exportHistory.createDelta(rsProfileKey, export).whenComplete((delta, ex) -> {
+					if (ex != null)
+					{
+						log.warn("Unable to compare with the last export, exporting all data", ex);
+						deliverExport(export, taskTypeName + " data", recordExport);
+					}
+					else if (delta == null)
+					{
+						deliverExport(export, taskTypeName + " data (no earlier export to compare with)", recordExport);
+					}
+					else
+					{
+						deliverExport(delta, delta.getChangeCount() + " " + taskTypeName + " changes", recordExport);
+					}
+				});
+			}
+		});
+	}
+
+	/**
+	 * @param onDelivered run once the export is on the clipboard or in its file
+	 */
+	private void deliverExport(Object export, String description, Runnable onDelivered)
+	{
+		ConfigValues.ExportDestinations destination = config.exportDestination();
+		if (destination == ConfigValues.ExportDestinations.CLIPBOARD)
+		{
+			copyJsonToClipboard(export, description, onDelivered);
+			return;
+		}
+
+		boolean compress = destination == ConfigValues.ExportDestinations.COMPRESSED_FILE;
+		CompletableFuture<Path> file = export instanceof DeltaExport ?
+			exportWriter.writeToFile((DeltaExport) export, compress) :
+			exportWriter.writeToFile((Export) export, compress);
+		file.whenComplete((path, ex) -> {
+			if (ex != null)
+			{
+				log.warn("Unable to write export file, copying to clipboard instead", ex);
+				copyJsonToClipboard(export, description, onDelivered);
+				return;
+			}
+			onDelivered.run();
+			String message = "Exported " + description + " to " + path;
+			showMessageBox("Data Exported!", message, JOptionPane.INFORMATION_MESSAGE, false);
+		});
+	}
+
+	private void copyJsonToClipboard(Object export, String description, Runnable onDelivered)
 	{
-		clientThread.invokeLater(() -> {
-			// Not worried with this complexity on the client thread because it's from an infrequent button press
-			String json = getCurrentTaskTypeExportJson();
+		exportWriter.toJson(export).thenAccept(json -> {
 			final StringSelection stringSelection = new StringSelection(json);
 			Toolkit.getDefaultToolkit().getSystemClipboard().setContents(stringSelection, null);
+			onDelivered.run();
 
-			String message = "Copied " + taskService.getCurrentTaskType().getName() + " data to clipboard!";
+			String message = "Copied " + description + " to clipboard!";
 			showMessageBox("Data Exported!", message, JOptionPane.INFORMATION_MESSAGE, true);
+		}).exceptionally(ex -> {
+			log.warn("Unable to copy export to clipboard", ex);
+			showMessageBox("Export Failed", "Unable to copy " + description + " to clipboard.", JOptionPane.ERROR_MESSAGE, false);
+			return null;
 		});
 	}
 
@@ -449,10 +970,21 @@ public class TasksTrackerPlugin extends Plugin
 			{
 				log.debug("forceVarpUpdate processed complete, saving");
 				saveCurrentTaskTypeData();
+				recordDailySnapshot();
 			}
 		});
 	}
 
+	private void recordDailySnapshot()
+	{
+		TaskType taskType = taskService.getCurrentTaskType();
+		String rsProfileKey = configManager.getRSProfileKey();
+		if (taskType != null && rsProfileKey != null)
+		{
+			taskSnapshotHistory.recordDaily(rsProfileKey, taskType.getTaskJsonName(), taskService.getTasks());
+		}
+	}
+
 	private void flushVarpUpdates(Set<Integer> varpIds)
 	{
 		log.debug("Flushing throttled varp updates {}", varpIds);
@@ -465,35 +997,6 @@ public class TasksTrackerPlugin extends Plugin
 		}));
 	}
 
-	private CompletableFuture<Boolean> processTaskStatus(TaskFromStruct task)
-	{
-		CompletableFuture<Boolean> future = new CompletableFuture<>();
-		clientThread.invoke(() -> {
-			int taskId =  task.getIntParam("id");
-			int varbitIndex = taskId / 32;
-			int bitIndex = taskId % 32;
-			try
-			{
-				int varpId = task.getTaskType().getTaskVarps().get(varbitIndex);
-				BigInteger varpValue = BigInteger.valueOf(client.getVarpValue(varpId));
-				boolean isTaskCompleted = varpValue.testBit(bitIndex);
-				task.setCompleted(isTaskCompleted);
-				if (isTaskCompleted && config.untrackUponCompletion())
-				{
-					task.setTracked(false);
-				}
-				log.debug("process taskFromStruct {} ({}) {}", task.getStringParam("name"), task.getIntParam("id"), isTaskCompleted);
-				future.complete(isTaskCompleted);
-			}
-			catch (Exception ex)
-			{
-				log.error("Error processing task status {}", taskId, ex);
-				future.completeExceptionally(ex);
-			}
-		});
-		return future;
-	}
-
 	/**
 	 * Update task completion status. If no varpId is specified, it updates all tasks in the current task type
 	 * @param varpId varp id to update (optional)
@@ -501,22 +1004,8 @@ public class TasksTrackerPlugin extends Plugin
 	 */
 	private CompletableFuture<Boolean> processVarpAndUpdateTasks(@Nullable Integer varpId)
 	{
-		log.info("processVarpAndUpdateTasks: " + (varpId != null ? varpId : "all"));
-
-		List<TaskFromStruct> tasks = varpId != null ?
-			taskService.getTasksFromVarpId(varpId) :
-			taskService.getTasks();
-
-		List<CompletableFuture<Boolean>> taskFutures = new ArrayList<>();
-		for (TaskFromStruct task : tasks)
-		{
-			CompletableFuture<Boolean> taskFuture = processTaskStatus(task);
-			taskFutures.add(taskFuture);
-		}
-
-		CompletableFuture<Void> allTasksFuture = CompletableFuture.allOf(taskFutures.toArray(new CompletableFuture[0]));
-		return allTasksFuture
-			.thenRun(() -> {
+		return taskCompletionService.processVarp(varpId)
+			.thenApply(tasks -> {
 				if (varpId != null)
 				{
 					for (TaskFromStruct task : tasks)
@@ -526,29 +1015,21 @@ public class TasksTrackerPlugin extends Plugin
 				} else {
 					SwingUtilities.invokeLater(() -> pluginPanel.refresh(null));
 				}
-			})
-			.thenApply(v -> true);
+				return true;
+			});
 	}
 
-	private String getCurrentTaskTypeExportJson()
+	/**
+	 * Read the client state an export needs. Building and serialising the export happens later, off the client thread.
+	 */
+	private ExportSnapshot captureExportSnapshot()
 	{
 		TaskType taskType = taskService.getCurrentTaskType();
-		Gson gson = this.gson.newBuilder()
-			.excludeFieldsWithoutExposeAnnotation()
-			.registerTypeAdapter(float.class, new LongSerializer())
-			.create();
-
 		if (taskType == null)
 		{
-			String error = "Cannot export to JSON; no task type selected.";
-			log.error(error);
-			return error;
-		}
-		else
-		{
-			Export export = new Export(taskType, taskService.getTasks(), runeliteVersion, client);
-			return gson.toJson(export);
+			return null;
 		}
+		return ExportSnapshot.capture(taskType, taskService.getTasks(), client);
 	}
 
 	private void showMessageBox(final String title, final String message, int messageType, boolean showOpenLeagueTools)
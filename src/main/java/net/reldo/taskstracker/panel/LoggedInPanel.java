@@ -112,6 +112,7 @@ public class LoggedInPanel extends JPanel
 			updateCollapseButtonText();
 		}
 
+		subFilterPanel.refreshFacetCounts();
 		taskListPanel.refresh(task);
 	}
 
@@ -298,18 +299,36 @@ public class LoggedInPanel extends JPanel
 		importButton.setBorder(new EmptyBorder(5, 5, 5, 5));
 		importButton.setLayout(new BorderLayout(0, PluginPanel.BORDER_OFFSET));
 		importButton.addActionListener(e -> plugin.openImportJsonDialog());
+		JPopupMenu importPopup = new JPopupMenu();
+		importPopup.setBorder(new EmptyBorder(5, 5, 5, 5));
+		JMenuItem bulkImportMenuItem = new JMenuItem("Bulk import from folder or zip");
+		bulkImportMenuItem.addActionListener(e -> plugin.openBulkImportDialog());
+		importPopup.add(bulkImportMenuItem);
+		importButton.setComponentPopupMenu(importPopup);
 		southPanel.add(importButton, BorderLayout.WEST);
 
 		JButton totalsButton = new JButton("Totals");
 		totalsButton.setBorder(new EmptyBorder(5, 5, 5, 5));
 		totalsButton.setLayout(new BorderLayout(0, PluginPanel.BORDER_OFFSET));
 		totalsButton.addActionListener(e -> plugin.sendTotalsToChat());
+		JPopupMenu totalsPopup = new JPopupMenu();
+		totalsPopup.setBorder(new EmptyBorder(5, 5, 5, 5));
+		JMenuItem planMenuItem = new JMenuItem("Plan tasks to a points target");
+		planMenuItem.addActionListener(e -> plugin.openPointsPlannerDialog());
+		totalsPopup.add(planMenuItem);
+		totalsButton.setComponentPopupMenu(totalsPopup);
 		southPanel.add(totalsButton, BorderLayout.CENTER);
 
 		JButton exportButton = new JButton("Export");
 		exportButton.setBorder(new EmptyBorder(5, 5, 5, 5));
 		exportButton.setLayout(new BorderLayout(0, PluginPanel.BORDER_OFFSET));
-		exportButton.addActionListener(e -> plugin.copyJsonToClipboard());
+		exportButton.addActionListener(e -> plugin.exportCurrentTaskType(false));
+		JPopupMenu exportPopup = new JPopupMenu();
+		exportPopup.setBorder(new EmptyBorder(5, 5, 5, 5));
+		JMenuItem exportChangesMenuItem = new JMenuItem("Export changes since last export");
+		exportChangesMenuItem.addActionListener(e -> plugin.exportCurrentTaskType(true));
+		exportPopup.add(exportChangesMenuItem);
+		exportButton.setComponentPopupMenu(exportPopup);
 		southPanel.add(exportButton, BorderLayout.EAST);
 
 		return southPanel;
@@ -502,8 +521,10 @@ public class LoggedInPanel extends JPanel
 		filtersPanel.setLayout(new BoxLayout(filtersPanel, BoxLayout.Y_AXIS));
 
 		SearchBox textSearch = new SearchBox();
+		textSearch.setToolTipText("<html>Search names and descriptions, or filter with terms like<br>" +
+			"tier&gt;=4 area:kandarin skill:agility&lt;70 points&gt;=80 tracked !completed</html>");
 		textSearch.addTextChangedListener(() -> {
-			plugin.taskTextFilter = textSearch.getText().toLowerCase();
+			plugin.getTaskFilterService().setTaskTextFilter(textSearch.getText());
 			plugin.refresh();
 		});
 
@@ -11,9 +11,11 @@ import javax.swing.SwingUtilities;
 import lombok.extern.slf4j.Slf4j;
 import net.reldo.taskstracker.TasksTrackerPlugin;
 import net.reldo.taskstracker.config.ConfigValues;
+import net.reldo.taskstracker.data.jsondatastore.types.FilterConfig;
 import net.reldo.taskstracker.data.task.TaskService;
 import net.reldo.taskstracker.panel.components.FixedWidthPanel;
 import net.reldo.taskstracker.panel.components.MultiToggleButton;
+import net.reldo.taskstracker.panel.filters.ComboItem;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.ui.ColorScheme;
 import net.runelite.client.util.SwingUtil;
@@ -27,6 +29,7 @@ public class SortPanel extends FixedWidthPanel
     private final TaskListPanel taskListPanel;
     private final ConfigManager configManager;
     private JComboBox<String> sortDropdown;
+    private JComboBox<ComboItem<String>> groupDropdown;
     private MultiToggleButton directionButton;
 
     public SortPanel(TasksTrackerPlugin plugin, TaskService taskService, TaskListPanel taskListPanel)
@@ -49,6 +52,7 @@ public class SortPanel extends FixedWidthPanel
                 .map((str) -> str.substring(0, 1).toUpperCase() + str.substring(1))
                 .collect(Collectors.toList());
         criteriaList.add(0,"Default");
+        criteriaList.add(1, TaskService.RECOMMENDED_SORT.substring(0, 1).toUpperCase() + TaskService.RECOMMENDED_SORT.substring(1));
 
         String[] criteriaArray = criteriaList.toArray(new String[0]);
         sortDropdown = new JComboBox<>(criteriaArray);
@@ -76,7 +80,45 @@ public class SortPanel extends FixedWidthPanel
             });
         });
 
+        groupDropdown = new JComboBox<>();
+        groupDropdown.addItem(new ComboItem<>("", "No groups"));
+        String groupBy = plugin.getConfig().groupBy();
+        for (FilterConfig filterConfig : taskService.getCurrentTaskType().getFilters())
+        {
+            ComboItem<String> item;
+            if (filterConfig.getConfigKey().equals("skill"))
+            {
+                // The skill param only holds one of a task's skills, so skill groups come from the skill requirements
+                item = new ComboItem<>(TaskListPanel.SKILL_GROUP, "By skill");
+            }
+            else if (filterConfig.getValueName() == null)
+            {
+                continue;
+            }
+            else
+            {
+                String label = filterConfig.getLabel() != null ? filterConfig.getLabel() : filterConfig.getValueName();
+                item = new ComboItem<>(filterConfig.getValueName(), "By " + label.toLowerCase());
+            }
+            groupDropdown.addItem(item);
+            if (item.getValue().equals(groupBy))
+            {
+                groupDropdown.setSelectedItem(item);
+            }
+        }
+        groupDropdown.setAlignmentX(LEFT_ALIGNMENT);
+        groupDropdown.setToolTipText("Group tasks into collapsible sections");
+        groupDropdown.addActionListener(e -> {
+            updateConfig();
+            SwingUtilities.invokeLater(() -> {
+                taskListPanel.redraw();
+                taskListPanel.refresh(null);
+            });
+        });
+        groupDropdown.setFocusable(false);
+
         add(sortDropdown);
+        add(groupDropdown);
         add(directionButton);
         updateConfig();
     }
@@ -89,5 +131,9 @@ public class SortPanel extends FixedWidthPanel
         ConfigValues.SortDirections configValue = ConfigValues.SortDirections.values()[directionButton.getState()];
         log.debug("updateConfig {}, {}, {}", TasksTrackerPlugin.CONFIG_GROUP_NAME, "sortDirection", configValue);
         configManager.setConfiguration(TasksTrackerPlugin.CONFIG_GROUP_NAME, "sortDirection", configValue);
+
+        String groupBy = groupDropdown.getItemAt(groupDropdown.getSelectedIndex()).getValue();
+        log.debug("updateConfig {}, {}, {}", TasksTrackerPlugin.CONFIG_GROUP_NAME, "groupBy", groupBy);
+        configManager.setConfiguration(TasksTrackerPlugin.CONFIG_GROUP_NAME, "groupBy", groupBy);
     }
 }
@@ -49,6 +49,12 @@ public class SubFilterPanel extends FixedWidthPanel
 			add(filterPanel);
 			filterPanel.redraw();
 		});
+		refreshFacetCounts();
+	}
+
+	public void refreshFacetCounts()
+	{
+		filterPanels.forEach(FilterPanel::refreshFacetCounts);
 	}
 
 	private List<FilterPanel> getFilterPanels(ArrayList<FilterConfig> filterConfigs)
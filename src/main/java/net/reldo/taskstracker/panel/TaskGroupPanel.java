@@ -0,0 +1,142 @@
+package net.reldo.taskstracker.panel;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.Cursor;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Consumer;
+import javax.swing.BoxLayout;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.border.EmptyBorder;
+import lombok.Getter;
+import net.reldo.taskstracker.TasksTrackerPlugin;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskIndex;
+import net.reldo.taskstracker.panel.components.FixedWidthPanel;
+import net.runelite.client.ui.ColorScheme;
+import net.runelite.client.ui.FontManager;
+
+/**
+ * A collapsible section of the task list holding the tasks of one group. Its task panels are only built
+ * the first time it is expanded.
+ */
+public class TaskGroupPanel extends FixedWidthPanel
+{
+	private final TasksTrackerPlugin plugin;
+	private final TaskIndex taskIndex;
+	private final String title;
+	@Getter
+	private final BitSet members;
+	private final List<TaskFromStruct> sortedTasks;
+	private final Consumer<TaskPanel> onTaskPanelCreated;
+	private final Consumer<Boolean> onExpandedChanged;
+
+	private final JPanel header = new JPanel(new BorderLayout());
+	private final JLabel titleLabel = new JLabel();
+	private final JLabel statsLabel = new JLabel();
+	private final JPanel rows = new JPanel();
+	@Getter
+	private boolean expanded = false;
+	private boolean rowsBuilt = false;
+	private int visibleCount = 0;
+
+	/**
+	 * @param members positions in the task index of the group's tasks
+	 * @param sortedTasks every task in display order, the group's rows follow this order
+	 * @param onTaskPanelCreated called for each task panel once the rows are built
+	 * @param onExpandedChanged called when the header is clicked, with the new expanded state
+	 */
+	public TaskGroupPanel(TasksTrackerPlugin plugin, TaskIndex taskIndex, String title, BitSet members, List<TaskFromStruct> sortedTasks,
+		Consumer<TaskPanel> onTaskPanelCreated, Consumer<Boolean> onExpandedChanged)
+	{
+		this.plugin = plugin;
+		this.taskIndex = taskIndex;
+		this.title = title;
+		this.members = members;
+		this.sortedTasks = sortedTasks;
+		this.onTaskPanelCreated = onTaskPanelCreated;
+		this.onExpandedChanged = onExpandedChanged;
+
+		setLayout(new BorderLayout());
+		setAlignmentX(Component.LEFT_ALIGNMENT);
+		setBorder(new EmptyBorder(5, 0, 0, 0));
+
+		header.setBackground(ColorScheme.DARKER_GRAY_COLOR);
+		header.setBorder(new EmptyBorder(5, 5, 5, 5));
+		header.setCursor(new Cursor(Cursor.HAND_CURSOR));
+		titleLabel.setFont(FontManager.getRunescapeSmallFont());
+		titleLabel.setForeground(ColorScheme.LIGHT_GRAY_COLOR);
+		statsLabel.setFont(FontManager.getRunescapeSmallFont());
+		statsLabel.setForeground(ColorScheme.MEDIUM_GRAY_COLOR);
+		statsLabel.setToolTipText("Completed / total tasks, completed / total points");
+		header.add(titleLabel, BorderLayout.WEST);
+		header.add(statsLabel, BorderLayout.EAST);
+		header.addMouseListener(new MouseAdapter()
+		{
+			@Override
+			public void mouseClicked(MouseEvent e)
+			{
+				setExpanded(!expanded);
+				onExpandedChanged.accept(expanded);
+			}
+		});
+
+		rows.setLayout(new BoxLayout(rows, BoxLayout.Y_AXIS));
+		rows.setVisible(false);
+
+		add(header, BorderLayout.NORTH);
+		add(rows, BorderLayout.CENTER);
+	}
+
+	public void setExpanded(boolean expanded)
+	{
+		this.expanded = expanded;
+		if (expanded && !rowsBuilt)
+		{
+			buildRows();
+		}
+		rows.setVisible(expanded);
+		updateTitle(visibleCount);
+		revalidate();
+		repaint();
+	}
+
+	/**
+	 * Update the header with the number of the group's tasks passing the filters and the group's totals.
+	 */
+	public void updateHeader(int visibleCount, int completedCount, int totalCount, int completedPoints, int totalPoints)
+	{
+		this.visibleCount = visibleCount;
+		updateTitle(visibleCount);
+		statsLabel.setText(totalPoints > 0
+			? String.format("%d/%d, %d/%d pts", completedCount, totalCount, completedPoints, totalPoints)
+			: String.format("%d/%d", completedCount, totalCount));
+		setVisible(visibleCount > 0);
+	}
+
+	private void updateTitle(int visibleCount)
+	{
+		titleLabel.setText((expanded ? "- " : "+ ") + title + " (" + visibleCount + ")");
+	}
+
+	private void buildRows()
+	{
+		for (TaskFromStruct task : sortedTasks)
+		{
+			int position = taskIndex.getPosition(task);
+			if (position < 0 || !members.get(position))
+			{
+				continue;
+			}
+			TaskPanel taskPanel = new TaskPanel(plugin, task);
+			rows.add(taskPanel);
+			onTaskPanelCreated.accept(taskPanel);
+			taskPanel.refresh();
+		}
+		rowsBuilt = true;
+	}
+}
@@ -2,8 +2,14 @@ package net.reldo.taskstracker.panel;
 
 import java.awt.Component;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import javax.swing.BoxLayout;
 import javax.swing.JLabel;
 import javax.swing.JScrollPane;
@@ -12,10 +18,17 @@ import javax.swing.SwingUtilities;
 import javax.swing.border.EmptyBorder;
 import lombok.extern.slf4j.Slf4j;
 import net.reldo.taskstracker.TasksTrackerPlugin;
-import net.reldo.taskstracker.config.ConfigValues;
+import net.reldo.taskstracker.data.jsondatastore.types.FilterConfig;
+import net.reldo.taskstracker.data.jsondatastore.types.FilterCustomItem;
 import net.reldo.taskstracker.data.jsondatastore.types.TaskDefinitionSkill;
+import net.reldo.taskstracker.data.summary.SummaryState;
+import net.reldo.taskstracker.data.summary.TaskCounts;
 import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskIndex;
 import net.reldo.taskstracker.data.task.TaskService;
+import net.reldo.taskstracker.metrics.MetricsRegistry;
+import net.reldo.taskstracker.metrics.jfr.FilterRefreshEvent;
+import net.reldo.taskstracker.metrics.jfr.TaskListRedrawEvent;
 import net.reldo.taskstracker.panel.components.FixedWidthPanel;
 import net.runelite.api.Skill;
 import net.runelite.client.ui.FontManager;
@@ -23,11 +36,22 @@ import net.runelite.client.ui.FontManager;
 @Slf4j
 public class TaskListPanel extends JScrollPane
 {
+	// Group by the skills tasks require, rather than the skill filter's param
+	static final String SKILL_GROUP = "skillRequirements";
+
 	public TasksTrackerPlugin plugin;
 	public final ArrayList<TaskPanel> taskPanels = new ArrayList<>();
 	private final TaskListListPanel taskList;
 	private final TaskService taskService;
 	private final JLabel emptyTasks = new JLabel();
+	// Sections of the list when it is grouped, empty when it is flat
+	private final List<TaskGroupPanel> groupPanels = new ArrayList<>();
+	private final Map<TaskGroupPanel, Integer> groupValues = new HashMap<>();
+	private FilterConfig groupFilter;
+	// Expanded sections by group key, kept across redraws
+	private final Set<String> expandedGroups = new HashSet<>();
+	// Option labels of dropdown filter params, by enum name
+	private final Map<String, Map<Integer, String>> enumLabels = new HashMap<>();
 
 	public TaskListPanel(TasksTrackerPlugin plugin, TaskService taskService)
 	{
@@ -54,14 +78,17 @@ public class TaskListPanel extends JScrollPane
 	{
 		if(SwingUtilities.isEventDispatchThread())
 		{
+			long start = System.nanoTime();
+			FilterRefreshEvent event = new FilterRefreshEvent();
+			event.begin();
 			emptyTasks.setVisible(false);
 
 			if (task != null)
 			{
-				Optional<TaskPanel> panel = taskPanels.stream()
-					.filter(tp -> tp.task.getName().equalsIgnoreCase(task.getName()))
-					.findFirst();
-				panel.ifPresent(TaskPanel::refresh);
+				// A task grouped by skill has a panel in the section of each skill it requires
+				taskPanels.stream()
+					.filter(tp -> tp.task == task)
+					.forEach(TaskPanel::refresh);
 			}
 			else
 			{
@@ -71,13 +98,27 @@ public class TaskListPanel extends JScrollPane
 				}
 			}
 
-			Optional<TaskPanel> visibleTaskPanel = taskPanels.stream()
-					.filter(TaskPanel::isVisible)
-					.findFirst();
+			if (!groupPanels.isEmpty())
+			{
+				emptyTasks.setVisible(!updateGroupHeaders());
+			}
+			else
+			{
+				Optional<TaskPanel> visibleTaskPanel = taskPanels.stream()
+						.filter(TaskPanel::isVisible)
+						.findFirst();
 
-			if (visibleTaskPanel.isEmpty())
+				if (visibleTaskPanel.isEmpty())
+				{
+					emptyTasks.setVisible(true);
+				}
+			}
+			plugin.getMetricsRegistry().histogram(MetricsRegistry.FILTER_REFRESH).recordSince(start);
+			if (event.shouldCommit())
 			{
-				emptyTasks.setVisible(true);
+				event.taskCount = taskPanels.size();
+				event.visibleCount = (int) taskPanels.stream().filter(TaskPanel::isVisible).count();
+				event.commit();
 			}
 		}
 		else
@@ -86,6 +127,105 @@ public class TaskListPanel extends JScrollPane
 		}
 	}
 
+	/**
+	 * Update every section header from the filter and summary indexes. Sections without a param value, for a skill
+	 * or for the tasks missing the grouped param, are counted from the task index.
+	 *
+	 * @return true if any section has tasks passing the filters
+	 */
+	private boolean updateGroupHeaders()
+	{
+		BitSet matching = plugin.getTaskFilterService().getMatchingTasks(taskService.getCurrentTaskType());
+		BitSet completed = taskService.getTaskIndex().getCompleted();
+		List<TaskFromStruct> tasks = taskService.getTasks();
+		boolean anyVisible = false;
+		for (TaskGroupPanel groupPanel : groupPanels)
+		{
+			BitSet members = groupPanel.getMembers();
+			BitSet visible = (BitSet) members.clone();
+			visible.and(matching);
+			Integer value = groupValues.get(groupPanel);
+			if (value == null)
+			{
+				BitSet completedMembers = (BitSet) members.clone();
+				completedMembers.and(completed);
+				groupPanel.updateHeader(visible.cardinality(),
+					completedMembers.cardinality(), members.cardinality(),
+					sumPoints(tasks, completedMembers), sumPoints(tasks, members));
+			}
+			else
+			{
+				TaskCounts counts = plugin.getSummaryService().getParamTotals(groupFilter.getValueName(), value);
+				groupPanel.updateHeader(visible.cardinality(),
+					counts.getCount(SummaryState.COMPLETED), counts.getCount(SummaryState.ALL),
+					counts.getPoints(SummaryState.COMPLETED), counts.getPoints(SummaryState.ALL));
+			}
+			anyVisible |= !visible.isEmpty();
+		}
+		return anyVisible;
+	}
+
+	private static int sumPoints(List<TaskFromStruct> tasks, BitSet positions)
+	{
+		int points = 0;
+		for (int position = positions.nextSetBit(0); position >= 0 && position < tasks.size(); position = positions.nextSetBit(position + 1))
+		{
+			points += tasks.get(position).getPoints();
+		}
+		return points;
+	}
+
+	/**
+	 * Get the filter of the param the list is grouped by, or null if the list is not grouped by a param.
+	 */
+	private FilterConfig getGroupFilter()
+	{
+		String groupBy = plugin.getConfig().groupBy();
+		if (groupBy == null || groupBy.isEmpty() || taskService.getCurrentTaskType() == null)
+		{
+			return null;
+		}
+		return taskService.getCurrentTaskType().getFilters().stream()
+			.filter(filterConfig -> groupBy.equals(filterConfig.getValueName()))
+			.findFirst()
+			.orElse(null);
+	}
+
+	private String getGroupTitle(FilterConfig filterConfig, int value)
+	{
+		if (filterConfig.getCustomItems() != null)
+		{
+			for (FilterCustomItem customItem : filterConfig.getCustomItems())
+			{
+				if (customItem.getValue() != null && customItem.getValue() == value && customItem.getTooltip() != null)
+				{
+					return customItem.getTooltip();
+				}
+			}
+		}
+
+		String enumName = filterConfig.getOptionLabelEnum();
+		if (enumName != null && !enumName.isEmpty())
+		{
+			Map<Integer, String> labels = enumLabels.get(enumName);
+			if (labels == null)
+			{
+				// Labels come from the client thread, redraw once they are known
+				enumLabels.put(enumName, new HashMap<>());
+				taskService.getStringEnumValuesAsync(enumName).thenAccept(loadedLabels -> SwingUtilities.invokeLater(() -> {
+					enumLabels.put(enumName, loadedLabels);
+					redraw();
+					refresh(null);
+				}));
+			}
+			else if (labels.containsKey(value))
+			{
+				return labels.get(value);
+			}
+		}
+		return filterConfig.getLabel() + " " + value;
+	}
+
 	public void refreshTaskPanelsWithSkill(Skill skill)
 	{
 		// Refresh all task panels for tasks with 'skill' or
@@ -135,8 +275,13 @@ public class TaskListPanel extends JScrollPane
 			log.debug("TaskListPanel.redraw");
 			if(SwingUtilities.isEventDispatchThread())
 			{
+				long start = System.nanoTime();
+				TaskListRedrawEvent event = new TaskListRedrawEvent();
+				event.begin();
 				removeAll();
 				taskPanels.clear();
+				groupPanels.clear();
+				groupValues.clear();
 				add(emptyTasks);
 				emptyTasks.setVisible(false);
 
@@ -148,24 +293,100 @@ public class TaskListPanel extends JScrollPane
 					return;
 				}
 
-				for (int indexPosition = 0; indexPosition < tasks.size(); indexPosition++)
+				List<TaskFromStruct> sortedTasks = taskService.getSortedTasks(plugin.getConfig().sortCriteria(), plugin.getConfig().sortDirection());
+				groupFilter = getGroupFilter();
+				if (groupFilter != null)
+				{
+					addGroupPanels(sortedTasks);
+					emptyTasks.setVisible(!updateGroupHeaders());
+				}
+				else if (SKILL_GROUP.equals(plugin.getConfig().groupBy()))
 				{
-					int adjustedIndexPosition = indexPosition;
-					if (plugin.getConfig().sortDirection().equals(ConfigValues.SortDirections.DESCENDING))
-						adjustedIndexPosition = tasks.size() - (adjustedIndexPosition + 1);
-					TaskPanel taskPanel = new TaskPanel(plugin, tasks.get(taskService.getSortedTaskIndex(plugin.getConfig().sortCriteria(), adjustedIndexPosition)));
-					add(taskPanel);
-					taskPanels.add(taskPanel);
+					addSkillGroupPanels(sortedTasks);
+					emptyTasks.setVisible(!updateGroupHeaders());
+				}
+				else
+				{
+					for (TaskFromStruct task : sortedTasks)
+					{
+						TaskPanel taskPanel = new TaskPanel(plugin, task);
+						add(taskPanel);
+						taskPanels.add(taskPanel);
+					}
 				}
 
 				log.debug("TaskListPanel validate and repaint");
 				validate();
 				repaint();
+				plugin.getMetricsRegistry().histogram(MetricsRegistry.PANEL_REDRAW).recordSince(start);
+				if (event.shouldCommit())
+				{
+					event.taskCount = taskPanels.size();
+					event.commit();
+				}
 			}
 			else
 			{
 				log.error("Task list panel redraw failed - not event dispatch thread.");
 			}
 		}
+
+		/**
+		 * Add a collapsed section per value of the grouped param, from the task index's membership of each value.
+		 * Task panels are only created for the sections that are expanded.
+		 */
+		private void addGroupPanels(List<TaskFromStruct> sortedTasks)
+		{
+			String paramName = groupFilter.getValueName();
+			TaskIndex taskIndex = taskService.getTaskIndex();
+			Map<Integer, BitSet> groups = new TreeMap<>(taskIndex.getParamValues(paramName));
+			BitSet missing = taskIndex.getParamMissing(paramName);
+			for (Map.Entry<Integer, BitSet> group : groups.entrySet())
+			{
+				addGroupPanel(paramName + ":" + group.getKey(), getGroupTitle(groupFilter, group.getKey()), group.getKey(), group.getValue(), sortedTasks);
+			}
+			if (!missing.isEmpty())
+			{
+				addGroupPanel(paramName + ":" + null, "Other", null, missing, sortedTasks);
+			}
+		}
+
+		/**
+		 * Add a collapsed section per required skill, from the task index's skill membership. A task requiring
+		 * several skills is listed in each of their sections.
+		 */
+		private void addSkillGroupPanels(List<TaskFromStruct> sortedTasks)
+		{
+			TaskIndex taskIndex = taskService.getTaskIndex();
+			for (Map.Entry<Skill, BitSet> group : taskIndex.getSkillTasks().entrySet())
+			{
+				addGroupPanel(SKILL_GROUP + ":" + group.getKey().name(), group.getKey().getName(), null, group.getValue(), sortedTasks);
+			}
+			BitSet noSkillTasks = taskIndex.getNoSkillTasks();
+			if (!noSkillTasks.isEmpty())
+			{
+				addGroupPanel(SKILL_GROUP + ":" + null, "No skill requirements", null, noSkillTasks, sortedTasks);
+			}
+		}
+
+		private void addGroupPanel(String groupKey, String title, Integer value, BitSet members, List<TaskFromStruct> sortedTasks)
+		{
+			TaskGroupPanel groupPanel = new TaskGroupPanel(plugin, taskService.getTaskIndex(), title, members, sortedTasks,
+				taskPanels::add,
+				expanded -> {
+					if (expanded)
+					{
+						expandedGroups.add(groupKey);
+					}
+					else
+					{
+						expandedGroups.remove(groupKey);
+					}
+				});
+			groupPanel.setExpanded(expandedGroups.contains(groupKey));
+			add(groupPanel);
+			groupPanels.add(groupPanel);
+			groupValues.put(groupPanel, value);
+		}
 	}
 }
@@ -14,7 +14,6 @@ import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import javax.swing.BoxLayout;
@@ -29,17 +28,9 @@ import javax.swing.ToolTipManager;
 import javax.swing.border.EmptyBorder;
 import lombok.extern.slf4j.Slf4j;
 import net.reldo.taskstracker.HtmlUtil;
-import net.reldo.taskstracker.TasksTrackerConfig;
 import net.reldo.taskstracker.TasksTrackerPlugin;
-import net.reldo.taskstracker.config.ConfigValues.CompletedFilterValues;
-import net.reldo.taskstracker.config.ConfigValues.IgnoredFilterValues;
-import net.reldo.taskstracker.config.ConfigValues.TrackedFilterValues;
-import net.reldo.taskstracker.data.jsondatastore.types.FilterType;
 import net.reldo.taskstracker.data.jsondatastore.types.TaskDefinitionSkill;
 import net.reldo.taskstracker.data.task.TaskFromStruct;
-import net.reldo.taskstracker.data.task.filters.Filter;
-import net.reldo.taskstracker.data.task.filters.ParamButtonFilter;
-import net.reldo.taskstracker.data.task.filters.ParamDropdownFilter;
 import net.runelite.api.Constants;
 import net.runelite.api.Skill;
 import net.runelite.client.game.SkillIconManager;
@@ -62,8 +53,6 @@ public class TaskPanel extends JPanel
 	private final JToggleButton toggleTrack = new JToggleButton();
 	private final JToggleButton toggleIgnore = new JToggleButton();
 
-	protected final ArrayList<Filter> filters = new ArrayList<>();
-
 	protected TasksTrackerPlugin plugin;
 
 	public TaskPanel(TasksTrackerPlugin plugin, TaskFromStruct task)
@@ -75,20 +64,6 @@ public class TaskPanel extends JPanel
 		setComponentPopupMenu(getPopupMenu());
 		ToolTipManager.sharedInstance().registerComponent(this);
 		refresh();
-
-		task.getTaskType().getFilters().forEach((filterConfig) -> {
-			String paramName = filterConfig.getValueName();
-			if (filterConfig.getFilterType().equals(FilterType.BUTTON_FILTER))
-			{
-				Filter filter = new ParamButtonFilter(plugin.getConfigManager(), paramName, task.getTaskType().getTaskJsonName() + "." + filterConfig.getConfigKey());
-				filters.add(filter);
-			}
-			else if (filterConfig.getFilterType().equals(FilterType.DROPDOWN_FILTER))
-			{
-				Filter filter = new ParamDropdownFilter(plugin.getConfigManager(), paramName, task.getTaskType().getTaskJsonName() + "." + filterConfig.getConfigKey());
-				filters.add(filter);
-			}
-		});
 	}
 
 	public JPopupMenu getPopupMenu()
@@ -201,7 +176,7 @@ public class TaskPanel extends JPanel
 		toggleTrack.addActionListener(e -> {
 			task.setTracked(toggleTrack.isSelected());
 			plugin.pluginPanel.taskListPanel.refresh(task);
-			plugin.saveCurrentTaskTypeData();
+			plugin.saveTaskData(task);
 		});
 		SwingUtil.removeButtonDecorations(toggleTrack);
 
@@ -213,7 +188,7 @@ public class TaskPanel extends JPanel
 		toggleIgnore.addActionListener(e -> {
 			task.setIgnored(!task.isIgnored());
 			plugin.pluginPanel.taskListPanel.refresh(task);
-			plugin.saveCurrentTaskTypeData();
+			plugin.saveTaskData(task);
 		});
 		SwingUtil.removeButtonDecorations(toggleIgnore);
 
@@ -297,48 +272,7 @@ public class TaskPanel extends JPanel
 
 	protected boolean meetsFilterCriteria()
 	{
-		String nameLowercase = task.getName().toLowerCase();
-		String descriptionLowercase = task.getDescription().toLowerCase();
-		if (plugin.taskTextFilter != null &&
-			!nameLowercase.contains(plugin.taskTextFilter) &&
-			!descriptionLowercase.contains(plugin.taskTextFilter))
-		{
-			return false;
-		}
-
-		TasksTrackerConfig config = plugin.getConfig();
-
-		for (Filter filter : filters)
-		{
-			if (!filter.meetsCriteria(task))
-			{
-				return false;
-			}
-		}
-
-		if (config.completedFilter().equals(CompletedFilterValues.INCOMPLETE) && task.isCompleted())
-		{
-			return false;
-		}
-		if (config.completedFilter().equals(CompletedFilterValues.COMPLETE) && !task.isCompleted())
-		{
-			return false;
-		}
-
-		if (config.ignoredFilter().equals(IgnoredFilterValues.NOT_IGNORED) && task.isIgnored())
-		{
-			return false;
-		}
-		if (config.ignoredFilter().equals(IgnoredFilterValues.IGNORED) && !task.isIgnored())
-		{
-			return false;
-		}
-
-		if (config.trackedFilter().equals(TrackedFilterValues.UNTRACKED) && task.isTracked())
-		{
-			return false;
-		}
-		return !config.trackedFilter().equals(TrackedFilterValues.TRACKED) || task.isTracked();
+		return plugin.getTaskFilterService().meetsFilterCriteria(task);
 	}
 
 	private void setBackgroundColor(Color color)
@@ -4,6 +4,7 @@ public class ComboItem<T>
 {
 	private T value;
 	private String label;
+	private Integer count;
 
 	public ComboItem(T value, String label)
 	{
@@ -21,9 +22,17 @@ public class ComboItem<T>
 		return this.label;
 	}
 
+	/**
+	 * Set the number of tasks the item would show, or null to show only the label.
+	 */
+	public void setCount(Integer count)
+	{
+		this.count = count;
+	}
+
 	@Override
 	public String toString()
 	{
-		return label;
+		return count == null ? label : label + " (" + count + ")";
 	}
 }
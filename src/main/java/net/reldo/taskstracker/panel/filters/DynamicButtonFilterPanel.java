@@ -2,20 +2,24 @@ package net.reldo.taskstracker.panel.filters;
 
 import com.google.common.collect.ImmutableList;
 import java.awt.BorderLayout;
+import java.awt.Dimension;
 import java.awt.GridLayout;
 import java.awt.image.BufferedImage;
 import java.util.LinkedHashMap;
 import java.util.List;
 import javax.swing.JPanel;
 import javax.swing.JToggleButton;
+import javax.swing.SwingConstants;
 import javax.swing.border.EmptyBorder;
 import net.reldo.taskstracker.TasksTrackerPlugin;
 import net.reldo.taskstracker.data.jsondatastore.types.FilterConfig;
 import net.reldo.taskstracker.data.jsondatastore.types.FilterCustomItem;
 import net.reldo.taskstracker.data.task.TaskType;
+import net.reldo.taskstracker.data.task.filters.FacetCounts;
 import net.runelite.client.hiscore.HiscoreSkill;
 import static net.runelite.client.hiscore.HiscoreSkill.*;
 import net.runelite.client.ui.ColorScheme;
+import net.runelite.client.ui.FontManager;
 import net.runelite.client.util.ImageUtil;
 
 public class DynamicButtonFilterPanel extends FilterButtonPanel
@@ -68,6 +72,12 @@ public class DynamicButtonFilterPanel extends FilterButtonPanel
 			String tooltip = buttonTooltips.get(key);
 			JToggleButton button = makeButton(tooltip, image);
 			button.setSelected(getConfigButtonState(key));
+			// Room under the icon for the facet count
+			button.setFont(FontManager.getRunescapeSmallFont());
+			button.setForeground(ColorScheme.LIGHT_GRAY_COLOR);
+			button.setHorizontalTextPosition(SwingConstants.CENTER);
+			button.setVerticalTextPosition(SwingConstants.BOTTOM);
+			button.setPreferredSize(new Dimension(button.getPreferredSize().width, button.getPreferredSize().height + 12));
 			buttons.put(key, button);
 			buttonPanel.add(button);
 		});
@@ -118,6 +128,22 @@ public class DynamicButtonFilterPanel extends FilterButtonPanel
 		return images;
 	}
 
+	@Override
+	public void refreshFacetCounts()
+	{
+		FacetCounts facetCounts = plugin.getTaskFilterService().getFacetCounts(taskType, filterConfig.getValueName());
+		buttons.forEach((key, button) -> {
+			try
+			{
+				button.setText(String.valueOf(facetCounts.getCount(Integer.parseInt(key))));
+			}
+			catch (NumberFormatException ex)
+			{
+				button.setText(null);
+			}
+		});
+	}
+
 	private LinkedHashMap<String, String> getTooltips()
 	{
 		LinkedHashMap<String, String> tooltips = new LinkedHashMap<>();
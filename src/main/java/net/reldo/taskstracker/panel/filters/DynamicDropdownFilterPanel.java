@@ -9,6 +9,7 @@ import lombok.extern.slf4j.Slf4j;
 import net.reldo.taskstracker.TasksTrackerPlugin;
 import net.reldo.taskstracker.data.jsondatastore.types.FilterConfig;
 import net.reldo.taskstracker.data.task.TaskType;
+import net.reldo.taskstracker.data.task.filters.FacetCounts;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.ui.ColorScheme;
 import net.runelite.client.ui.FontManager;
@@ -18,6 +19,7 @@ public class DynamicDropdownFilterPanel extends FilterPanel
 {
 	private final String configKey;
 	private final FilterConfig filterConfig;
+	private final TaskType taskType;
 	private ConfigManager configManager;
 	private TasksTrackerPlugin plugin;
 	private final ComboItem[] items;
@@ -28,6 +30,7 @@ public class DynamicDropdownFilterPanel extends FilterPanel
 		this.configManager = plugin.getConfigManager();
 		this.plugin = plugin;
 		this.filterConfig = filterConfig;
+		this.taskType = taskType;
 		this.items = items;
 		this.configKey = taskType.getFilterConfigPrefix() + filterConfig.getConfigKey();
 
@@ -68,6 +71,23 @@ public class DynamicDropdownFilterPanel extends FilterPanel
 		configManager.setConfiguration(TasksTrackerPlugin.CONFIG_GROUP_NAME, configKey, dropdown.getItemAt(dropdown.getSelectedIndex()).getValue());
 	}
 
+	@Override
+	public void refreshFacetCounts()
+	{
+		if (dropdown == null)
+		{
+			return;
+		}
+		FacetCounts facetCounts = plugin.getTaskFilterService().getFacetCounts(taskType, filterConfig.getValueName());
+		for (ComboItem item : items)
+		{
+			int value = (Integer) item.getValue();
+			// Tasks without the param pass any selection
+			item.setCount(value == -1 ? facetCounts.getTotal() : facetCounts.getCount(value) + facetCounts.getMissing());
+		}
+		dropdown.repaint();
+	}
+
 	public void redraw()
 	{
 		if(SwingUtilities.isEventDispatchThread())
@@ -2,6 +2,7 @@ package net.reldo.taskstracker.panel.filters;
 
 import java.awt.BorderLayout;
 import java.awt.Dimension;
+import java.awt.event.ItemEvent;
 import java.awt.image.BufferedImage;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -33,6 +34,8 @@ public abstract class FilterButtonPanel extends FilterPanel
     private final String label;
 
     protected final Map<String, JToggleButton> buttons = new HashMap<>();
+    // Kept up to date by the buttons' item listeners so the collapse button text doesn't recount
+    private int selectedCount = 0;
     protected String configKey;
     protected JPanel buttonPanel;
 
@@ -84,6 +87,7 @@ public abstract class FilterButtonPanel extends FilterPanel
             updateCollapseButtonText();
             plugin.refresh();
         });
+        button.addItemListener(e -> selectedCount += e.getStateChange() == ItemEvent.SELECTED ? 1 : -1);
 
         button.setSelected(true);
 
@@ -191,7 +195,7 @@ public abstract class FilterButtonPanel extends FilterPanel
 
     protected void updateCollapseButtonText()
     {
-        collapseBtn.setText(label + " - " + buttons.values().stream().filter(JToggleButton::isSelected).count() + " / " + buttons.size());
+        collapseBtn.setText(label + " - " + selectedCount + " / " + buttons.size());
     }
 
     public void redraw()
@@ -199,6 +203,7 @@ public abstract class FilterButtonPanel extends FilterPanel
         if(SwingUtilities.isEventDispatchThread())
         {
             buttons.clear();
+            selectedCount = 0;
             removeAll();
 
             collapseBtn = makeCollapseButton();
@@ -5,4 +5,11 @@ import net.reldo.taskstracker.panel.components.FixedWidthPanel;
 public abstract class FilterPanel extends FixedWidthPanel
 {
 	public abstract void redraw();
+
+	/**
+	 * Show how many tasks each filter value would leave, given the other active filters.
+	 */
+	public void refreshFacetCounts()
+	{
+	}
 }
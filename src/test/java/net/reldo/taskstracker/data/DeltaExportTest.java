@@ -0,0 +1,89 @@
+package net.reldo.taskstracker.data;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DeltaExportTest
+{
+	private static final String BASE = "{\"taskType\":\"LEAGUE\",\"timestamp\":1000,\"displayName\":\"before\",\"runescapeVersion\":230," +
+		"\"tasks\":{\"1\":{\"completed\":10,\"tracked\":0,\"ignored\":0},\"2\":{\"completed\":0,\"tracked\":20,\"ignored\":0}}," +
+		"\"varps\":{\"100\":5,\"101\":6}}";
+
+	@Test
+	public void listsAddedChangedAndRemovedEntries()
+	{
+		JsonObject current = parse("{\"taskType\":\"LEAGUE\",\"timestamp\":2000,\"displayName\":\"after\",\"runescapeVersion\":230," +
+			"\"tasks\":{\"1\":{\"completed\":10,\"tracked\":0,\"ignored\":30},\"3\":{\"completed\":40,\"tracked\":0,\"ignored\":0}}," +
+			"\"varps\":{\"100\":5,\"101\":6}}");
+		DeltaExport delta = new DeltaExport(parse(BASE), "base", current, "current");
+
+		assertEquals("base", delta.getBaseHash());
+		assertEquals("current", delta.getHash());
+		assertEquals("LEAGUE", delta.getTaskType());
+		assertEquals(2000, delta.getTimestamp());
+
+		JsonObject changedTasks = delta.getChanged().getAsJsonObject("tasks");
+		assertEquals(2, changedTasks.size());
+		assertEquals(30, changedTasks.getAsJsonObject("1").get("ignored").getAsLong());
+		assertEquals(40, changedTasks.getAsJsonObject("3").get("completed").getAsLong());
+		JsonArray removedTasks = delta.getRemoved().getAsJsonArray("tasks");
+		assertEquals(1, removedTasks.size());
+		assertEquals("2", removedTasks.get(0).getAsString());
+
+		// Unchanged sections and fields are left out, the timestamp is not a change
+		assertFalse(delta.getChanged().has("varps"));
+		assertFalse(delta.getRemoved().has("varps"));
+		assertFalse(delta.getChanged().has("runescapeVersion"));
+		assertFalse(delta.getChanged().has("timestamp"));
+		assertEquals("after", delta.getChanged().get("displayName").getAsString());
+		assertEquals(4, delta.getChangeCount());
+	}
+
+	@Test
+	public void identicalExportsHaveNoChanges()
+	{
+		JsonObject current = parse(BASE.replace("\"timestamp\":1000", "\"timestamp\":3000"));
+		DeltaExport delta = new DeltaExport(parse(BASE), "base", current, "current");
+
+		assertEquals(0, delta.getChangeCount());
+		assertEquals(0, delta.getChanged().size());
+		assertEquals(0, delta.getRemoved().size());
+	}
+
+	@Test
+	public void sectionMissingFromTheBaseIsChangedWhole()
+	{
+		JsonObject current = parse(BASE);
+		JsonObject varbits = new JsonObject();
+		varbits.addProperty("200", 1);
+		current.add("varbits", varbits);
+		DeltaExport delta = new DeltaExport(parse(BASE), "base", current, "current");
+
+		assertTrue(delta.getChanged().has("varbits"));
+		assertEquals(1, delta.getChangeCount());
+	}
+
+	@Test
+	public void fieldMissingFromTheCurrentExportIsRemoved()
+	{
+		JsonObject current = parse(BASE);
+		current.remove("displayName");
+		current.remove("varps");
+		DeltaExport delta = new DeltaExport(parse(BASE), "base", current, "current");
+
+		assertTrue(delta.getRemoved().get("displayName").getAsBoolean());
+		assertTrue(delta.getRemoved().get("varps").getAsBoolean());
+		assertEquals(0, delta.getChanged().size());
+		assertEquals(2, delta.getChangeCount());
+	}
+
+	private static JsonObject parse(String json)
+	{
+		return new JsonParser().parse(json).getAsJsonObject();
+	}
+}
@@ -0,0 +1,69 @@
+package net.reldo.taskstracker.data;
+
+import java.util.HashMap;
+import java.util.Map;
+import net.reldo.taskstracker.data.task.ConfigTaskSave;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskService;
+import net.reldo.taskstracker.harness.TaskUniverse;
+import net.reldo.taskstracker.harness.TasksTrackerHarness;
+import net.runelite.client.config.ConfigManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class TrackerConfigStoreTest
+{
+	private static final String LEAGUE = "LEAGUE";
+	private static final String LEGACY_CONFIG_KEY = TrackerConfigStore.CONFIG_TASKS_PREFIX + TrackerConfigStore.CONFIG_GROUP_PREFIX_SEPARATOR + LEAGUE;
+
+	private TasksTrackerHarness harness;
+	private TaskService taskService;
+	private TrackerConfigStore trackerConfigStore;
+	private ConfigManager configManager;
+	private Map<Integer, TaskFromStruct> tasksById;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		harness = new TasksTrackerHarness(new TaskUniverse(4).addTaskType(LEAGUE, 100)).start(1);
+		harness.loadTaskType(LEAGUE);
+		taskService = harness.getInstance(TaskService.class);
+		trackerConfigStore = harness.getInstance(TrackerConfigStore.class);
+		configManager = harness.getInstance(ConfigManager.class);
+		tasksById = new HashMap<>();
+		taskService.getTasks().forEach(task -> tasksById.put(task.getIntParam("id"), task));
+	}
+
+	@After
+	public void tearDown()
+	{
+		harness.close();
+	}
+
+	@Test
+	public void singleTaskSaveMovesTheUnshardedSaveIntoShards()
+	{
+		TaskFromStruct tracked = tasksById.get(1);
+		TaskFromStruct completed = tasksById.get(70);
+		tracked.setTracked(true);
+		completed.setCompleted(true);
+		Map<Integer, ConfigTaskSave> legacySave = new HashMap<>();
+		legacySave.put(tracked.getStructId(), tracked.getSaveData());
+		legacySave.put(completed.getStructId(), completed.getSaveData());
+		configManager.setConfiguration(TrackerConfigStore.CONFIG_GROUP_NAME, TasksTrackerHarness.RS_PROFILE_KEY, LEGACY_CONFIG_KEY,
+			trackerConfigStore.encodeSaveData(legacySave));
+
+		tracked.setTracked(false);
+		trackerConfigStore.saveTaskData(tracked);
+
+		// The cleared task stays cleared, and the task outside the saved shard is kept
+		assertNull(configManager.getConfiguration(TrackerConfigStore.CONFIG_GROUP_NAME, TasksTrackerHarness.RS_PROFILE_KEY, LEGACY_CONFIG_KEY));
+		Map<Integer, ConfigTaskSave> saved = trackerConfigStore.readTaskTypeSave(TasksTrackerHarness.RS_PROFILE_KEY, LEAGUE,
+			taskService.getCurrentTaskType().getTaskVarps().size()).getSaveData();
+		assertEquals(1, saved.size());
+		assertEquals(completed.getCompletedOn(), saved.get(completed.getStructId()).completed);
+	}
+}
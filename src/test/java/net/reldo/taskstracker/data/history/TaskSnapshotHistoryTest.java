@@ -0,0 +1,195 @@
+package net.reldo.taskstracker.data.history;
+
+import com.google.inject.Guice;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import net.reldo.taskstracker.data.TrackerConfigStore;
+import net.reldo.taskstracker.data.task.ConfigTaskSave;
+import net.reldo.taskstracker.data.task.TaskType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TaskSnapshotHistoryTest
+{
+	private static final String PROFILE = "rsprofile.test";
+	private static final String LEAGUE = "LEAGUE";
+	private static final long TIMEOUT_SECONDS = 10;
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+	private final TrackerConfigStore trackerConfigStore = mock(TrackerConfigStore.class);
+	private TaskSnapshotHistory history;
+
+	@Before
+	public void setUp()
+	{
+		history = createHistory();
+	}
+
+	@After
+	public void tearDown()
+	{
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void recordRoundTrips() throws Exception
+	{
+		Map<Integer, ConfigTaskSave> previous = new HashMap<>();
+		previous.put(1, save(1, 100, 0, 0));
+		previous.put(2, save(2, 0, 200, 0));
+		previous.put(700, save(700, 0, 0, 300));
+		Map<Integer, ConfigTaskSave> current = new HashMap<>(previous);
+		current.put(1, save(1, 100, 150, 0));
+		current.remove(2);
+		current.put(65, save(65, 400, 0, 0));
+
+		TaskSnapshotHistory.Record record = TaskSnapshotHistory.Record.diff(5_000, SnapshotReason.IMPORT, previous, current);
+		assertEquals(Arrays.asList(1, 2, 65), record.changed.stream().boxed().collect(Collectors.toList()));
+
+		byte[] encoded = record.encode();
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded));
+		byte[] data = new byte[in.readInt()];
+		in.readFully(data);
+		assertEquals(encoded.length, data.length + Integer.BYTES);
+
+		TaskSnapshotHistory.Record decoded = TaskSnapshotHistory.Record.decode(data);
+		assertEquals(5_000, decoded.timestamp);
+		assertEquals(SnapshotReason.IMPORT, decoded.reason);
+		assertEquals(record.changed, decoded.changed);
+
+		Map<Integer, ConfigTaskSave> applied = new HashMap<>(previous);
+		decoded.applyTo(applied);
+		assertSameState(current, applied);
+	}
+
+	@Test
+	public void unchangedDailySnapshotIsSkipped() throws Exception
+	{
+		Map<Integer, ConfigTaskSave> state = new HashMap<>();
+		state.put(1, save(1, 1_000, 0, 0));
+		history.recordDaily(PROFILE, LEAGUE, state, 0);
+		history.recordDaily(PROFILE, LEAGUE, state, TimeUnit.DAYS.toMillis(2));
+
+		List<TaskSnapshot> snapshots = getSnapshots(history);
+		assertEquals(1, snapshots.size());
+		assertEquals(1, snapshots.get(0).getChangedTaskCount());
+	}
+
+	@Test
+	public void compactionKeepsTheState() throws Exception
+	{
+		Map<Integer, ConfigTaskSave> state = new HashMap<>();
+		int snapshotCount = 75;
+		for (int taskId = 0; taskId < snapshotCount; taskId++)
+		{
+			state.put(taskId, save(taskId, 1_000 + taskId, 0, 0));
+			history.record(PROFILE, LEAGUE, new HashMap<>(state), 1_000 + taskId, SnapshotReason.IMPORT);
+		}
+
+		List<TaskSnapshot> snapshots = getSnapshots(history);
+		assertTrue(snapshots.size() < snapshotCount);
+		assertEquals(1_000 + snapshotCount - 1, snapshots.get(snapshots.size() - 1).getTimestamp());
+		// The folded snapshot holds every task completed in the snapshots it replaced
+		int folded = snapshotCount - (snapshots.size() - 1);
+		assertEquals(folded, snapshots.get(0).getChangedTaskCount());
+
+		// A fresh reader of the compacted file sees the same state
+		TaskSnapshotHistory reread = createHistory();
+		assertEquals(snapshots, getSnapshots(reread));
+		TaskType taskType = mock(TaskType.class);
+		when(taskType.getTaskJsonName()).thenReturn(LEAGUE);
+		int restored = reread.rollback(PROFILE, taskType, state, 2_000, snapshots.size() - 1).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		assertEquals(snapshotCount, restored);
+	}
+
+	@Test
+	public void rollbackWritesTheSnapshotStateAndRecordsTheCurrentOne() throws Exception
+	{
+		Map<Integer, ConfigTaskSave> state = new HashMap<>();
+		state.put(1, save(101, 1_000, 0, 0));
+		history.record(PROFILE, LEAGUE, new HashMap<>(state), 1_000, SnapshotReason.IMPORT);
+		state.put(2, save(102, 2_000, 0, 0));
+		state.put(80, save(180, 0, 2_000, 0));
+		history.record(PROFILE, LEAGUE, new HashMap<>(state), 2_000, SnapshotReason.DAILY);
+
+		Map<Integer, ConfigTaskSave> current = new HashMap<>(state);
+		current.remove(1);
+		TaskType taskType = mock(TaskType.class);
+		when(taskType.getTaskJsonName()).thenReturn(LEAGUE);
+		int restored = history.rollback(PROFILE, taskType, current, 3_000, 0).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		assertEquals(1, restored);
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<Map<Integer, Map<Integer, ConfigTaskSave>>> shards = ArgumentCaptor.forClass(Map.class);
+		verify(trackerConfigStore).writeTaskTypeSave(eq(PROFILE), eq(taskType), shards.capture());
+		Map<Integer, ConfigTaskSave> shard = shards.getValue().get(1 / TrackerConfigStore.TASKS_PER_SHARD);
+		assertEquals(1, shard.size());
+		assertEquals(1_000, shard.get(101).completed);
+
+		List<TaskSnapshot> snapshots = getSnapshots(history);
+		assertEquals(3, snapshots.size());
+		assertEquals(SnapshotReason.ROLLBACK, snapshots.get(2).getReason());
+		assertEquals(1, snapshots.get(2).getChangedTaskCount());
+	}
+
+	@Test(expected = Exception.class)
+	public void rollbackToAMissingSnapshotFails() throws Exception
+	{
+		TaskType taskType = mock(TaskType.class);
+		when(taskType.getTaskJsonName()).thenReturn(LEAGUE);
+		history.rollback(PROFILE, taskType, new HashMap<>(), 0, 3).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+	}
+
+	private TaskSnapshotHistory createHistory()
+	{
+		TaskSnapshotHistory taskSnapshotHistory = Guice.createInjector(binder -> {
+			binder.bind(ScheduledExecutorService.class).toInstance(executor);
+			binder.bind(TrackerConfigStore.class).toInstance(trackerConfigStore);
+		}).getInstance(TaskSnapshotHistory.class);
+		taskSnapshotHistory.setHistoryDir(temporaryFolder.getRoot());
+		return taskSnapshotHistory;
+	}
+
+	private List<TaskSnapshot> getSnapshots(TaskSnapshotHistory taskSnapshotHistory) throws Exception
+	{
+		return taskSnapshotHistory.getSnapshots(PROFILE, LEAGUE).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+	}
+
+	private static ConfigTaskSave save(int structId, long completed, long tracked, long ignored)
+	{
+		return new ConfigTaskSave(structId, completed, tracked, ignored);
+	}
+
+	private static void assertSameState(Map<Integer, ConfigTaskSave> expected, Map<Integer, ConfigTaskSave> actual)
+	{
+		assertEquals(expected.keySet(), actual.keySet());
+		expected.forEach((taskId, save) -> {
+			ConfigTaskSave other = actual.get(taskId);
+			assertEquals(save.structId, other.structId);
+			assertEquals(save.completed, other.completed);
+			assertEquals(save.tracked, other.tracked);
+			assertEquals(save.ignored, other.ignored);
+		});
+	}
+}
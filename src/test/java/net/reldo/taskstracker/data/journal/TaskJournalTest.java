@@ -0,0 +1,88 @@
+package net.reldo.taskstracker.data.journal;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.reldo.taskstracker.data.task.TaskCompletionService;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskService;
+import net.reldo.taskstracker.data.task.TaskStateChange;
+import net.reldo.taskstracker.harness.TaskUniverse;
+import net.reldo.taskstracker.harness.TasksTrackerHarness;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TaskJournalTest
+{
+	private static final String LEAGUE = "LEAGUE";
+	private static final int TASKS = 200;
+	private static final long TIMEOUT_SECONDS = 60;
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private TasksTrackerHarness harness;
+	private TaskService taskService;
+	private TaskCompletionService taskCompletionService;
+	private TaskJournal taskJournal;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		harness = new TasksTrackerHarness(new TaskUniverse(5).addTaskType(LEAGUE, TASKS)).start(1);
+		taskService = harness.getInstance(TaskService.class);
+		taskCompletionService = harness.getInstance(TaskCompletionService.class);
+		taskJournal = harness.getInstance(TaskJournal.class);
+		taskJournal.setJournalDir(temporaryFolder.getRoot());
+		taskService.addTaskStateListener(taskJournal);
+		harness.loadTaskType(LEAGUE);
+	}
+
+	@After
+	public void tearDown()
+	{
+		harness.close();
+	}
+
+	@Test
+	public void initialVarpUpdateWritesNoEntries() throws Exception
+	{
+		for (int taskId = 0; taskId < TASKS; taskId += 2)
+		{
+			harness.getFakeClient().setTaskCompleted(LEAGUE, taskId, true);
+		}
+		taskCompletionService.processVarp(null).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		assertTrue(taskService.isStatusLoaded());
+		assertEquals(TASKS / 2, taskService.getTasks().stream().filter(TaskFromStruct::isCompleted).count());
+		assertTrue(getHistory().isEmpty());
+
+		// Changes after the status was read are journaled
+		int varpId = harness.getFakeClient().setTaskCompleted(LEAGUE, 1, true);
+		taskCompletionService.processVarp(varpId).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		List<TaskJournalEntry> history = getHistory();
+		assertEquals(1, history.size());
+		assertEquals(TaskStateChange.COMPLETED, history.get(0).getChange());
+		TaskFromStruct task = taskService.getTasks().stream().filter(t -> t.getIntParam("id") == 1).findFirst().orElseThrow();
+		assertEquals(task.getStructId(), history.get(0).getStructId());
+	}
+
+	@Test
+	public void clearedStatusIsReadAgainWithoutEntries() throws Exception
+	{
+		harness.getFakeClient().setTaskCompleted(LEAGUE, 0, true);
+		taskCompletionService.processVarp(null).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+		taskService.clearTaskStatus();
+		taskCompletionService.processVarp(null).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		assertTrue(getHistory().isEmpty());
+	}
+
+	private List<TaskJournalEntry> getHistory() throws Exception
+	{
+		return taskJournal.getHistory(TasksTrackerHarness.RS_PROFILE_KEY, LEAGUE).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+	}
+}
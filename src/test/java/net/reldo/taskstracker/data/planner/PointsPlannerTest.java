@@ -0,0 +1,170 @@
+package net.reldo.taskstracker.data.planner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PointsPlannerTest
+{
+	private static final int RARITY_WEIGHT = 3;
+	private static final int SKILL_GAP_WEIGHT = 2;
+
+	private final PointsPlanner planner = new PointsPlanner();
+
+	@Test
+	public void matchesBruteForceOnSmallInputs()
+	{
+		Random random = new Random(4);
+		int[] tierPoints = {10, 30, 80, 200};
+		for (int trial = 0; trial < 300; trial++)
+		{
+			List<TaskFromStruct> tasks = new ArrayList<>();
+			int taskCount = 1 + random.nextInt(12);
+			for (int i = 0; i < taskCount; i++)
+			{
+				tasks.add(task(tierPoints[random.nextInt(tierPoints.length)], random.nextInt(5) == 0, random.nextInt(8) == 0,
+					random.nextInt(4) == 0 ? null : random.nextFloat() * 100, random.nextInt(30)));
+			}
+			int target = random.nextInt(700);
+
+			PointsPlan plan = planner.plan(tasks, target, null, RARITY_WEIGHT, SKILL_GAP_WEIGHT);
+			long cheapest = bruteForceCost(tasks, target);
+			String message = "trial " + trial;
+			if (cheapest == Long.MAX_VALUE)
+			{
+				assertFalse(message, plan.isReachable());
+				continue;
+			}
+			assertTrue(message, plan.isReachable());
+			assertEquals(message, cheapest, plan.getCost());
+			assertEquals(message, cheapest, totalCost(plan.getTasks()));
+			assertEquals(message, plan.getTasks().stream().mapToInt(TaskFromStruct::getPoints).sum(), plan.getPlannedPoints());
+			assertTrue(message, plan.getCompletedPoints() + plan.getPlannedPoints() >= target);
+			for (TaskFromStruct task : plan.getTasks())
+			{
+				assertFalse(message, task.isCompleted() || task.isIgnored());
+			}
+		}
+	}
+
+	@Test
+	public void unreachableTargetPlansEveryRemainingTask()
+	{
+		List<TaskFromStruct> tasks = List.of(
+			task(10, false, false, 50f, 0),
+			task(30, false, false, 50f, 0),
+			task(80, true, false, 50f, 0),
+			task(200, false, true, 50f, 0));
+
+		PointsPlan plan = planner.plan(tasks, 1_000, null, RARITY_WEIGHT, SKILL_GAP_WEIGHT);
+		assertFalse(plan.isReachable());
+		assertEquals(80, plan.getCompletedPoints());
+		assertEquals(40, plan.getPlannedPoints());
+		assertEquals(2, plan.getTasks().size());
+	}
+
+	@Test
+	public void reachedTargetPlansNothing()
+	{
+		List<TaskFromStruct> tasks = List.of(task(10, true, false, 50f, 0), task(30, false, false, 50f, 0));
+
+		for (int target : new int[]{0, 10})
+		{
+			PointsPlan plan = planner.plan(tasks, target, null, RARITY_WEIGHT, SKILL_GAP_WEIGHT);
+			assertTrue(plan.isReachable());
+			assertEquals(0, plan.getCost());
+			assertTrue(plan.getTasks().isEmpty());
+		}
+	}
+
+	@Test
+	public void targetBetweenUnitsRoundsUp()
+	{
+		// Points share a divisor of 100, a target of 450 needs 500
+		TaskFromStruct cheap200 = task(200, false, false, 90f, 0);
+		TaskFromStruct cheap300 = task(300, false, false, 90f, 0);
+		TaskFromStruct rare300 = task(300, false, false, 1f, 0);
+		TaskFromStruct rare200 = task(200, false, false, 1f, 0);
+		List<TaskFromStruct> tasks = List.of(rare200, cheap200, rare300, cheap300);
+
+		PointsPlan plan = planner.plan(tasks, 450, null, RARITY_WEIGHT, SKILL_GAP_WEIGHT);
+		assertTrue(plan.isReachable());
+		assertEquals(500, plan.getPlannedPoints());
+		assertEquals(2, plan.getTasks().size());
+		assertTrue(plan.getTasks().contains(cheap200));
+		assertTrue(plan.getTasks().contains(cheap300));
+		assertEquals(bruteForceCost(tasks, 450), plan.getCost());
+	}
+
+	private static long bruteForceCost(List<TaskFromStruct> tasks, int target)
+	{
+		int neededPoints = target;
+		List<TaskFromStruct> candidates = new ArrayList<>();
+		for (TaskFromStruct task : tasks)
+		{
+			if (task.isCompleted())
+			{
+				neededPoints -= task.getPoints();
+			}
+			else if (!task.isIgnored() && task.getPoints() > 0)
+			{
+				candidates.add(task);
+			}
+		}
+		if (neededPoints <= 0)
+		{
+			return 0;
+		}
+
+		long cheapest = Long.MAX_VALUE;
+		for (int subset = 1; subset < 1 << candidates.size(); subset++)
+		{
+			int points = 0;
+			long cost = 0;
+			for (int i = 0; i < candidates.size(); i++)
+			{
+				if ((subset & (1 << i)) != 0)
+				{
+					points += candidates.get(i).getPoints();
+					cost += cost(candidates.get(i));
+				}
+			}
+			if (points >= neededPoints)
+			{
+				cheapest = Math.min(cheapest, cost);
+			}
+		}
+		return cheapest;
+	}
+
+	private static long totalCost(List<TaskFromStruct> tasks)
+	{
+		return tasks.stream().mapToLong(PointsPlannerTest::cost).sum();
+	}
+
+	private static long cost(TaskFromStruct task)
+	{
+		Float completionPercent = task.getCompletionPercent();
+		int difficulty = completionPercent == null ? 50 : Math.round(100 - Math.max(0, Math.min(100, completionPercent)));
+		return PointsPlanner.BASE_COST + (long) RARITY_WEIGHT * difficulty + (long) SKILL_GAP_WEIGHT * task.getMissingLevels(null);
+	}
+
+	private static TaskFromStruct task(int points, boolean completed, boolean ignored, Float completionPercent, int missingLevels)
+	{
+		TaskFromStruct task = mock(TaskFromStruct.class);
+		when(task.getPoints()).thenReturn(points);
+		when(task.isCompleted()).thenReturn(completed);
+		when(task.isIgnored()).thenReturn(ignored);
+		when(task.getCompletionPercent()).thenReturn(completionPercent);
+		when(task.getMissingLevels(any())).thenReturn(missingLevels);
+		return task;
+	}
+}
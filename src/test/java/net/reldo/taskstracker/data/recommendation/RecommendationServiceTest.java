@@ -0,0 +1,113 @@
+package net.reldo.taskstracker.data.recommendation;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import net.reldo.taskstracker.data.task.TaskCompletionService;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskService;
+import net.reldo.taskstracker.harness.TaskTypeSpec;
+import net.reldo.taskstracker.harness.TaskUniverse;
+import net.reldo.taskstracker.harness.TasksTrackerHarness;
+import net.runelite.api.Skill;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+public class RecommendationServiceTest
+{
+	private static final String LEAGUE = "LEAGUE";
+	private static final int TASKS = 400;
+	private static final long TIMEOUT_SECONDS = 60;
+
+	private TasksTrackerHarness harness;
+	private TaskService taskService;
+	private RecommendationService recommendationService;
+	private List<TaskFromStruct> tasks;
+	private final int[] playerSkills = new int[Skill.values().length];
+
+	@Before
+	public void setUp() throws Exception
+	{
+		TaskTypeSpec spec = TaskTypeSpec.builder()
+			.taskJsonName(LEAGUE)
+			.taskCount(TASKS)
+			.skillRequirementRate(0.7)
+			.build();
+		harness = new TasksTrackerHarness(new TaskUniverse(9).addTaskType(spec)).start(1);
+		harness.loadTaskType(LEAGUE);
+		taskService = harness.getInstance(TaskService.class);
+		recommendationService = harness.getInstance(RecommendationService.class);
+		tasks = taskService.getTasks();
+		Arrays.fill(playerSkills, 40);
+		recommendationService.updatePlayerSkills(playerSkills);
+	}
+
+	@After
+	public void tearDown()
+	{
+		harness.close();
+	}
+
+	@Test
+	public void incrementalRankingMatchesRebuild() throws Exception
+	{
+		Random random = new Random(12);
+		// Enough completions to push tasks out of the recent completions window
+		for (int step = 1; step <= RecommendationService.RECENT_COMPLETIONS * 3; step++)
+		{
+			int action = random.nextInt(10);
+			TaskFromStruct task = tasks.get(random.nextInt(tasks.size()));
+			if (action < 6)
+			{
+				task.setCompleted(true);
+				// Completion times must differ for the recent window to have one order
+				Thread.sleep(2);
+			}
+			else if (action < 8)
+			{
+				task.setCompleted(false);
+			}
+			else
+			{
+				playerSkills[random.nextInt(playerSkills.length)] = 1 + random.nextInt(99);
+				recommendationService.updatePlayerSkills(playerSkills);
+			}
+
+			if (step % 25 == 0)
+			{
+				assertMatchesRebuild("step " + step);
+			}
+		}
+		assertMatchesRebuild("end");
+	}
+
+	@Test
+	public void fullVarpUpdateMatchesRebuild() throws Exception
+	{
+		Random random = new Random(13);
+		for (int taskId = 0; taskId < TASKS; taskId++)
+		{
+			harness.getFakeClient().setTaskCompleted(LEAGUE, taskId, random.nextInt(3) == 0);
+		}
+		harness.getInstance(TaskCompletionService.class).processVarp(null).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		assertMatchesRebuild("after full update");
+	}
+
+	private void assertMatchesRebuild(String message)
+	{
+		RecommendationService rebuilt = new RecommendationService();
+		harness.getInjector().injectMembers(rebuilt);
+		rebuilt.updatePlayerSkills(playerSkills);
+		rebuilt.rebuild(taskService.getCurrentTaskType(), tasks);
+		assertEquals(message, ids(rebuilt.getRecommendedTasks()), ids(recommendationService.getRecommendedTasks()));
+	}
+
+	private static List<Integer> ids(List<TaskFromStruct> tasks)
+	{
+		return tasks.stream().map(TaskFromStruct::getStructId).collect(Collectors.toList());
+	}
+}
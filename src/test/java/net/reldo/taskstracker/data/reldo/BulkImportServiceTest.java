@@ -0,0 +1,179 @@
+package net.reldo.taskstracker.data.reldo;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.reldo.taskstracker.data.TrackerConfigStore;
+import net.reldo.taskstracker.data.history.TaskSnapshotHistory;
+import net.reldo.taskstracker.data.task.ConfigTaskSave;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskService;
+import net.reldo.taskstracker.data.task.TaskType;
+import net.reldo.taskstracker.harness.TaskUniverse;
+import net.reldo.taskstracker.harness.TasksTrackerHarness;
+import net.runelite.client.config.RuneScapeProfile;
+import net.runelite.client.config.RuneScapeProfileType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BulkImportServiceTest
+{
+	private static final String LEAGUE = "LEAGUE";
+	private static final int TASKS = 100;
+	private static final String OTHER_PROFILE_KEY = "rsprofile.other";
+	private static final long OTHER_ACCOUNT_HASH = 2;
+	private static final long TIMEOUT_SECONDS = 60;
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private TasksTrackerHarness harness;
+	private TaskService taskService;
+	private TrackerConfigStore trackerConfigStore;
+	private TaskType taskType;
+	private Map<Integer, TaskFromStruct> tasksById;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		TaskSnapshotHistory taskSnapshotHistory = mock(TaskSnapshotHistory.class);
+		harness = new TasksTrackerHarness(new TaskUniverse(6).addTaskType(LEAGUE, TASKS),
+			binder -> binder.bind(TaskSnapshotHistory.class).toInstance(taskSnapshotHistory)).start(1);
+		harness.getRsProfiles().add(profile(TasksTrackerHarness.RS_PROFILE_KEY, "Current", 1));
+		harness.getRsProfiles().add(profile(OTHER_PROFILE_KEY, "Other Player", OTHER_ACCOUNT_HASH));
+		harness.loadTaskType(LEAGUE);
+		taskService = harness.getInstance(TaskService.class);
+		trackerConfigStore = harness.getInstance(TrackerConfigStore.class);
+		taskType = taskService.getCurrentTaskType();
+		tasksById = new HashMap<>();
+		taskService.getTasks().forEach(task -> tasksById.put(task.getIntParam("id"), task));
+	}
+
+	@After
+	public void tearDown()
+	{
+		harness.close();
+	}
+
+	@Test
+	public void importsAreGroupedByPlayerName() throws Exception
+	{
+		Path source = temporaryFolder.newFolder().toPath();
+		writeExport(source, "current.json", null, "\"1\":{\"completed\":0,\"tracked\":100,\"ignored\":0}");
+		writeExport(source, "other.json", "other player", "\"2\":{\"completed\":0,\"tracked\":200,\"ignored\":0}");
+		writeExport(source, "unknown.json", "Nobody", "\"3\":{\"completed\":0,\"tracked\":300,\"ignored\":0}");
+		Files.writeString(source.resolve("broken.json"), "{\"tasks\":", StandardCharsets.UTF_8);
+
+		BulkImportService.BulkImportResult result = importFrom(source);
+		assertEquals(2, result.getFilesImported());
+		assertEquals(2, result.getFilesSkipped());
+		assertEquals(new HashSet<>(Arrays.asList(TasksTrackerHarness.RS_PROFILE_KEY, OTHER_PROFILE_KEY)), result.getRsProfileKeys());
+
+		Map<Integer, ConfigTaskSave> current = readSave(TasksTrackerHarness.RS_PROFILE_KEY);
+		Map<Integer, ConfigTaskSave> other = readSave(OTHER_PROFILE_KEY);
+		assertEquals(1, current.size());
+		assertEquals(1, other.size());
+		assertEquals(200, other.get(structId(2)).tracked);
+		assertNull(current.get(structId(3)));
+		assertNull(other.get(structId(3)));
+	}
+
+	@Test
+	public void importMergesIntoTheExistingSave() throws Exception
+	{
+		Map<Integer, Map<Integer, ConfigTaskSave>> existing = new HashMap<>();
+		put(existing, 1, new ConfigTaskSave(structId(1), 1_000, 0, 0));
+		put(existing, 40, new ConfigTaskSave(structId(40), 0, 500, 0));
+		trackerConfigStore.writeTaskTypeSave(OTHER_PROFILE_KEY, taskType, existing);
+
+		Path source = temporaryFolder.newFolder().toPath();
+		writeExport(source, "other.json", "Other Player",
+			"\"1\":{\"completed\":900,\"tracked\":0,\"ignored\":0}," +
+			"\"40\":{\"completed\":0,\"tracked\":400,\"ignored\":0}," +
+			"\"70\":{\"completed\":0,\"tracked\":0,\"ignored\":700}," +
+			"\"100000\":{\"completed\":1,\"tracked\":0,\"ignored\":0}");
+
+		BulkImportService.BulkImportResult result = importFrom(source);
+		assertEquals(3, result.getTasksMerged());
+		assertEquals(1, result.getUnknownTasksSkipped());
+
+		Map<Integer, ConfigTaskSave> saved = readSave(OTHER_PROFILE_KEY);
+		assertEquals(3, saved.size());
+		// The older completion and the newer track are kept, the import adds the ignore
+		assertEquals(900, saved.get(structId(1)).completed);
+		assertEquals(500, saved.get(structId(40)).tracked);
+		assertEquals(700, saved.get(structId(70)).ignored);
+		assertTrue(readSave(TasksTrackerHarness.RS_PROFILE_KEY).isEmpty());
+	}
+
+	@Test
+	public void importDropsTheStashedStatusOfItsProfile() throws Exception
+	{
+		String otherStatusKey = TaskService.getProfileStatusKey(OTHER_ACCOUNT_HASH, RuneScapeProfileType.STANDARD);
+		String seasonalStatusKey = TaskService.getProfileStatusKey(OTHER_ACCOUNT_HASH, RuneScapeProfileType.SEASONAL);
+		tasksById.get(5).setTracked(true);
+		taskService.stashTaskStatus(seasonalStatusKey);
+		tasksById.get(6).setTracked(true);
+		taskService.stashTaskStatus(otherStatusKey);
+
+		Path source = temporaryFolder.newFolder().toPath();
+		writeExport(source, "other.json", "Other Player", "\"2\":{\"completed\":0,\"tracked\":200,\"ignored\":0}");
+		importFrom(source);
+
+		// Switching back to the profile reads the imported save rather than the stash taken before the import
+		assertFalse(taskService.restoreTaskStatus(otherStatusKey));
+		assertTrue(taskService.restoreTaskStatus(seasonalStatusKey));
+		assertTrue(tasksById.get(5).isTracked());
+	}
+
+	private BulkImportService.BulkImportResult importFrom(Path source) throws Exception
+	{
+		return harness.getInstance(BulkImportService.class).importFrom(source).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+	}
+
+	private Map<Integer, ConfigTaskSave> readSave(String rsProfileKey)
+	{
+		return trackerConfigStore.readTaskTypeSave(rsProfileKey, LEAGUE, taskType.getTaskVarps().size()).getSaveData();
+	}
+
+	private int structId(int taskId)
+	{
+		return tasksById.get(taskId).getStructId();
+	}
+
+	private static void put(Map<Integer, Map<Integer, ConfigTaskSave>> saveDataByShard, int taskId, ConfigTaskSave save)
+	{
+		saveDataByShard.computeIfAbsent(taskId / TrackerConfigStore.TASKS_PER_SHARD, shard -> new HashMap<>()).put(save.structId, save);
+	}
+
+	private static void writeExport(Path directory, String filename, String rsn, String tasks) throws Exception
+	{
+		String displayName = rsn == null ? "" : "\"displayName\":\"" + rsn + "\",";
+		String json = "{\"taskType\":\"" + LEAGUE + "\"," + displayName + "\"tasks\":{" + tasks + "}}";
+		Files.writeString(directory.resolve(filename), json, StandardCharsets.UTF_8);
+	}
+
+	private static RuneScapeProfile profile(String key, String displayName, long accountHash)
+	{
+		RuneScapeProfile profile = mock(RuneScapeProfile.class);
+		when(profile.getKey()).thenReturn(key);
+		when(profile.getDisplayName()).thenReturn(displayName);
+		when(profile.getAccountHash()).thenReturn(accountHash);
+		when(profile.getType()).thenReturn(RuneScapeProfileType.STANDARD);
+		return profile;
+	}
+}
@@ -0,0 +1,172 @@
+package net.reldo.taskstracker.data.task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.swing.SwingUtilities;
+import lombok.extern.slf4j.Slf4j;
+import net.reldo.taskstracker.data.summary.SummaryService;
+import net.reldo.taskstracker.data.summary.SummaryState;
+import net.reldo.taskstracker.data.summary.TaskCounts;
+import net.reldo.taskstracker.harness.TaskUniverse;
+import net.reldo.taskstracker.harness.TasksTrackerHarness;
+import net.reldo.taskstracker.scheduler.ClientThreadScheduler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@Slf4j
+public class TaskCompletionStressTest
+{
+	private static final String LEAGUE = "LEAGUE";
+	private static final String COMBAT = "COMBAT";
+	private static final int LEAGUE_TASKS = 5_000;
+	private static final int COMBAT_TASKS = 600;
+	private static final long TIMEOUT_SECONDS = 60;
+
+	private TasksTrackerHarness harness;
+	private TaskService taskService;
+	private TaskCompletionService taskCompletionService;
+	private ClientThreadScheduler clientThreadScheduler;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		TaskUniverse universe = new TaskUniverse(1)
+			.addTaskType(LEAGUE, LEAGUE_TASKS)
+			.addTaskType(COMBAT, COMBAT_TASKS);
+		harness = new TasksTrackerHarness(universe).start(1);
+		taskService = harness.getInstance(TaskService.class);
+		taskCompletionService = harness.getInstance(TaskCompletionService.class);
+		clientThreadScheduler = harness.getInstance(ClientThreadScheduler.class);
+		harness.loadTaskType(LEAGUE);
+	}
+
+	@After
+	public void tearDown()
+	{
+		harness.close();
+	}
+
+	@Test
+	public void fullUpdateMatchesCompletionBits() throws Exception
+	{
+		Random random = new Random(2);
+		for (int taskId = 0; taskId < LEAGUE_TASKS; taskId++)
+		{
+			harness.getFakeClient().setTaskCompleted(LEAGUE, taskId, random.nextInt(3) == 0);
+		}
+
+		long start = System.nanoTime();
+		List<TaskFromStruct> processed = taskCompletionService.processVarp(null).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		long elapsedNanos = System.nanoTime() - start;
+		log.info("full update of {} tasks in {}ms over {} ticks ({} tasks/s)", processed.size(), elapsedNanos / 1_000_000,
+			harness.getClientThread().getTickCount().get(), processed.size() * 1_000_000_000L / Math.max(elapsedNanos, 1));
+
+		assertEquals(LEAGUE_TASKS, processed.size());
+		assertTasksMatchVarps(LEAGUE);
+		assertNoErrors();
+	}
+
+	@Test
+	public void scriptedVarpChangesWithConcurrentReaders() throws Exception
+	{
+		AtomicBoolean running = new AtomicBoolean(true);
+		AtomicReference<Throwable> readerError = new AtomicReference<>();
+		AtomicLong reads = new AtomicLong();
+		List<TaskFromStruct> tasks = new ArrayList<>(taskService.getTasks());
+		SummaryService summaryService = harness.getInstance(SummaryService.class);
+		Thread edtReader = new Thread(() -> {
+			while (running.get())
+			{
+				try
+				{
+					SwingUtilities.invokeAndWait(() -> {
+						summaryService.getTotals();
+						tasks.forEach(TaskFromStruct::isCompleted);
+						reads.incrementAndGet();
+					});
+				}
+				catch (Exception ex)
+				{
+					readerError.compareAndSet(null, ex);
+					return;
+				}
+			}
+		}, "edt-reader");
+		edtReader.start();
+
+		Random random = new Random(3);
+		List<CompletableFuture<List<TaskFromStruct>>> futures = new ArrayList<>();
+		for (int change = 0; change < 2_000; change++)
+		{
+			int taskId = random.nextInt(LEAGUE_TASKS);
+			int varpId = harness.getFakeClient().setTaskCompleted(LEAGUE, taskId, random.nextInt(4) != 0);
+			futures.add(taskCompletionService.processVarp(varpId));
+		}
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		running.set(false);
+		edtReader.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+
+		log.info("{} varp changes processed with {} concurrent EDT reads", futures.size(), reads.get());
+		assertNull(readerError.get());
+		assertTasksMatchVarps(LEAGUE);
+		assertNoErrors();
+	}
+
+	@Test
+	public void switchingTaskTypeCompletesPendingUpdates() throws Exception
+	{
+		harness.getFakeClient().setTaskCompleted(LEAGUE, 0, true);
+		CompletableFuture<List<TaskFromStruct>> leagueUpdate = taskCompletionService.processVarp(null);
+		CompletableFuture<Boolean> switchTaskType = taskService.setTaskType(COMBAT);
+
+		assertEquals(LEAGUE_TASKS, leagueUpdate.get(TIMEOUT_SECONDS, TimeUnit.SECONDS).size());
+		assertTrue(switchTaskType.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+		assertEquals(COMBAT, taskService.getCurrentTaskType().getTaskJsonName());
+		assertEquals(COMBAT_TASKS, taskService.getTasks().size());
+
+		harness.getFakeClient().setTaskCompleted(COMBAT, COMBAT_TASKS - 1, true);
+		taskCompletionService.processVarp(null).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		assertTasksMatchVarps(COMBAT);
+		assertNoErrors();
+	}
+
+	private void assertTasksMatchVarps(String taskJsonName)
+	{
+		int completedCount = 0;
+		int completedPoints = 0;
+		for (TaskFromStruct task : taskService.getTasks())
+		{
+			int taskId = task.getIntParam("id");
+			int varpId = harness.getUniverse().getTaskTypeDefinition(taskJsonName).getTaskVarps().get(taskId / 32);
+			boolean isCompleted = (harness.getFakeClient().getVarp(varpId) & (1 << (taskId % 32))) != 0;
+			assertEquals("task " + taskId, isCompleted, task.isCompleted());
+			if (isCompleted)
+			{
+				completedCount++;
+				completedPoints += task.getPoints();
+			}
+		}
+
+		TaskCounts totals = harness.getInstance(SummaryService.class).getTotals();
+		assertEquals(taskService.getTasks().size(), totals.getCount(SummaryState.ALL));
+		assertEquals(completedCount, totals.getCount(SummaryState.COMPLETED));
+		assertEquals(completedPoints, totals.getPoints(SummaryState.COMPLETED));
+	}
+
+	private void assertNoErrors()
+	{
+		assertEquals(0, harness.getFakeClient().getOffThreadCallCount().get());
+		assertEquals(0, harness.getClientThread().getErrorCount().get());
+		assertEquals(0, clientThreadScheduler.getFailedCount().get());
+	}
+}
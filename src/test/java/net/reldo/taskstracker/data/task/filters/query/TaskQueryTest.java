@@ -0,0 +1,275 @@
+package net.reldo.taskstracker.data.task.filters.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskIndex;
+import net.reldo.taskstracker.data.task.TaskService;
+import net.reldo.taskstracker.data.task.TaskType;
+import net.reldo.taskstracker.data.task.filters.TaskFilterService;
+import net.reldo.taskstracker.harness.TaskTypeSpec;
+import net.reldo.taskstracker.harness.TaskUniverse;
+import net.reldo.taskstracker.harness.TasksTrackerHarness;
+import net.runelite.api.Skill;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TaskQueryTest
+{
+	private static final String LEAGUE = "LEAGUE";
+	private static final int TIER = 3;
+
+	private TasksTrackerHarness harness;
+	private TaskIndex taskIndex;
+	private List<TaskFromStruct> tasks;
+	private CountingCompiler compiler;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		TaskTypeSpec spec = TaskTypeSpec.builder()
+			.taskJsonName(LEAGUE)
+			.taskCount(300)
+			.areaCount(4)
+			.skillRequirementRate(0.6)
+			.build();
+		harness = new TasksTrackerHarness(new TaskUniverse(21).addTaskType(spec)).start(1);
+		harness.loadTaskType(LEAGUE);
+		TaskService taskService = harness.getInstance(TaskService.class);
+		taskIndex = harness.getInstance(TaskIndex.class);
+		tasks = taskService.getTasks();
+
+		Map<Integer, String> areaLabels = new HashMap<>();
+		areaLabels.put(0, "Kandarin");
+		areaLabels.put(1, "Misthalin");
+		areaLabels.put(2, "Morytania");
+		areaLabels.put(3, "Kandarin Islands");
+		compiler = new CountingCompiler(taskService.getCurrentTaskType(),
+			paramName -> paramName.equals("area") ? areaLabels : Collections.emptyMap());
+	}
+
+	@After
+	public void tearDown()
+	{
+		harness.close();
+	}
+
+	@Test
+	public void tokenizeSplitsOnSpacesOutsideQuotes()
+	{
+		assertEquals(Arrays.asList("name:\"league task 1\"", "tier>=2", "-ignored"),
+			QueryCompiler.tokenize("  name:\"league task 1\"   tier>=2 -ignored "));
+		assertEquals(Collections.singletonList("description=\"a  b\""), QueryCompiler.tokenize("description=\"a  b\""));
+		assertTrue(QueryCompiler.tokenize("   ").isEmpty());
+	}
+
+	@Test
+	public void intParamOperators()
+	{
+		Map<String, IntPredicate> operators = new LinkedHashMap<>();
+		operators.put(">=", tier -> tier >= TIER);
+		operators.put("<=", tier -> tier <= TIER);
+		operators.put("!=", tier -> tier != TIER);
+		operators.put(">", tier -> tier > TIER);
+		operators.put("<", tier -> tier < TIER);
+		operators.put("=", tier -> tier == TIER);
+		operators.put(":", tier -> tier == TIER);
+		operators.forEach((symbol, expected) -> {
+			BitSet matches = query("tier" + symbol + TIER);
+			assertFalse(symbol, matches.isEmpty());
+			assertEquals(symbol, expected(task -> expected.test(task.getIntParam("tier"))), matches);
+		});
+	}
+
+	@Test
+	public void pointsAndStringParams()
+	{
+		assertEquals(expected(task -> task.getPoints() >= 40), query("points>=40"));
+		assertEquals(expected(task -> task.getName().toLowerCase().contains("league task 1")), query("name:\"league task 1\""));
+		assertEquals(expected(task -> task.getName().toLowerCase().equals("league task 7")), query("name=\"league task 7\""));
+	}
+
+	@Test
+	public void negationWithEitherPrefix()
+	{
+		BitSet tier = query("tier=" + TIER);
+		BitSet notTier = taskIndex.all();
+		notTier.andNot(tier);
+		assertEquals(notTier, query("!tier=" + TIER));
+		assertEquals(notTier, query("-tier=" + TIER));
+
+		for (int position = 0; position < tasks.size(); position += 3)
+		{
+			tasks.get(position).setCompleted(true);
+		}
+		BitSet completed = expected(TaskFromStruct::isCompleted);
+		BitSet incomplete = taskIndex.all();
+		incomplete.andNot(completed);
+		assertEquals(completed, query("completed"));
+		assertEquals(incomplete, query("-completed"));
+		assertEquals(incomplete, query("!completed"));
+	}
+
+	@Test
+	public void statusAliasesAreTextSearches()
+	{
+		tasks.get(0).setCompleted(true);
+		assertFalse(compiler.isQueryTerm("done"));
+		assertFalse(compiler.isQueryTerm("incomplete"));
+		// Every generated description contains "complete"
+		assertEquals(taskIndex.all(), query("complete"));
+		assertTrue(query("done").isEmpty());
+		assertTrue(query("incomplete").isEmpty());
+	}
+
+	@Test
+	public void skillRequirements()
+	{
+		BitSet agility = expected(task -> task.getSkillRequirements().containsKey(Skill.AGILITY));
+		BitSet agilityBelow70 = expected(task -> {
+			Integer level = task.getSkillRequirements().get(Skill.AGILITY);
+			return level != null && level < 70;
+		});
+		assertFalse(agilityBelow70.isEmpty());
+		assertEquals(agility, query("skill:agility"));
+		assertEquals(agilityBelow70, query("skill:agility<70"));
+
+		BitSet notAgility = taskIndex.all();
+		notAgility.andNot(agility);
+		assertEquals(notAgility, query("-skill:agility"));
+	}
+
+	@Test
+	public void labelsMatchParamValues()
+	{
+		assertEquals(areas(0, 3), query("area:kandarin"));
+		assertEquals(areas(1), query("area=misthalin"));
+		assertEquals(areas(0, 1, 2, 3), query("area:a"));
+		assertTrue(query("area=kandarin islands").isEmpty());
+		assertEquals(areas(3), query("area=\"kandarin islands\""));
+	}
+
+	@Test
+	public void unknownParamsAreSearchedAsText()
+	{
+		assertFalse(compiler.isQueryTerm("nosuch:1"));
+		assertTrue(query("nosuch:1").isEmpty());
+
+		// Without query syntax the whole text is one search
+		assertEquals(expected(task -> task.getName().toLowerCase().contains("task 12")), query("task 12"));
+
+		// Next to query syntax each plain token is a search of its own
+		BitSet expected = expected(task -> task.getName().toLowerCase().contains("12") && task.getIntParam("tier") == TIER);
+		assertEquals(expected, query("12 tier=" + TIER));
+	}
+
+	@Test
+	public void nextQueryReusesTheUnchangedLeadingTerms()
+	{
+		TaskQuery first = TaskQuery.compile("tier>=2 area:1", LEAGUE, compiler, null);
+		assertEquals(Arrays.asList("tier>=2", "area:1"), compiler.compiled);
+		first.evaluate(taskIndex, tasks);
+
+		compiler.compiled.clear();
+		TaskQuery second = TaskQuery.compile("tier>=2 area:1 -ignored", LEAGUE, compiler, first);
+		assertEquals(Collections.singletonList("-ignored"), compiler.compiled);
+		assertEquals(expected(task -> task.getIntParam("tier") >= 2 && task.getIntParam("area") == 1 && !task.isIgnored()),
+			second.evaluate(taskIndex, tasks));
+
+		compiler.compiled.clear();
+		TaskQuery third = TaskQuery.compile("tier>=3 area:1 -ignored", LEAGUE, compiler, second);
+		assertEquals(Arrays.asList("tier>=3", "area:1", "-ignored"), compiler.compiled);
+
+		// Terms of another task type are never reused
+		compiler.compiled.clear();
+		TaskQuery.compile("tier>=3 area:1 -ignored", "OTHER", compiler, third);
+		assertEquals(Arrays.asList("tier>=3", "area:1", "-ignored"), compiler.compiled);
+	}
+
+	@Test
+	public void matchesFollowsStatusChanges()
+	{
+		TaskQuery taskQuery = TaskQuery.compile("tracked tier>=1", LEAGUE, compiler, null);
+		TaskFromStruct task = tasks.get(5);
+		int position = taskIndex.getPosition(task);
+		assertFalse(taskQuery.matches(taskIndex, tasks, position));
+
+		task.setTracked(true);
+		assertTrue(taskQuery.matches(taskIndex, tasks, position));
+		assertEquals(expected(TaskFromStruct::isTracked), taskQuery.evaluate(taskIndex, tasks));
+
+		// The returned matches are a copy, changing them leaves the cached matches alone
+		taskQuery.evaluate(taskIndex, tasks).clear();
+		assertTrue(taskQuery.matches(taskIndex, tasks, position));
+	}
+
+	@Test
+	public void filterServiceMatchesTextQueries()
+	{
+		TaskFilterService taskFilterService = harness.getInstance(TaskFilterService.class);
+		tasks.get(0).setCompleted(true);
+
+		taskFilterService.setTaskTextFilter("tier>=4");
+		assertEquals(expected(task -> task.getTier() >= 4), expected(taskFilterService::meetsFilterCriteria));
+
+		// The next keystroke reuses the tier term
+		taskFilterService.setTaskTextFilter("tier>=4 !completed");
+		assertEquals(expected(task -> task.getTier() >= 4 && !task.isCompleted()), expected(taskFilterService::meetsFilterCriteria));
+
+		taskFilterService.setTaskTextFilter(tasks.get(1).getName().toLowerCase());
+		assertTrue(taskFilterService.meetsFilterCriteria(tasks.get(1)));
+	}
+
+	private BitSet query(String text)
+	{
+		return TaskQuery.compile(text, LEAGUE, compiler, null).evaluate(taskIndex, tasks);
+	}
+
+	private BitSet expected(Predicate<TaskFromStruct> predicate)
+	{
+		BitSet expected = new BitSet();
+		for (TaskFromStruct task : tasks)
+		{
+			if (predicate.test(task))
+			{
+				expected.set(taskIndex.getPosition(task));
+			}
+		}
+		return expected;
+	}
+
+	private BitSet areas(int... areas)
+	{
+		return expected(task -> Arrays.stream(areas).anyMatch(area -> task.getIntParam("area") == area));
+	}
+
+	private static class CountingCompiler extends QueryCompiler
+	{
+		private final List<String> compiled = new ArrayList<>();
+
+		CountingCompiler(TaskType taskType, Function<String, Map<Integer, String>> paramLabels)
+		{
+			super(taskType, paramLabels);
+		}
+
+		@Override
+		public QueryTerm compile(String token)
+		{
+			compiled.add(token);
+			return super.compile(token);
+		}
+	}
+}
@@ -0,0 +1,162 @@
+package net.reldo.taskstracker.data.varp;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import lombok.extern.slf4j.Slf4j;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskService;
+import net.reldo.taskstracker.harness.TaskUniverse;
+import net.reldo.taskstracker.harness.TasksTrackerHarness;
+import net.reldo.taskstracker.harness.VarpReplayDriver;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.assertEquals;
+
+@Slf4j
+public class VarpReplayTest
+{
+	private static final String LEAGUE = "LEAGUE";
+	private static final int LEAGUE_TASKS = 1_500;
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private TasksTrackerHarness harness;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		harness = new TasksTrackerHarness(new TaskUniverse(1).addTaskType(LEAGUE, LEAGUE_TASKS)).start(1);
+		harness.loadTaskType(LEAGUE);
+	}
+
+	@After
+	public void tearDown()
+	{
+		harness.close();
+	}
+
+	@Test
+	public void recordingRoundTrips() throws Exception
+	{
+		List<VarpChange> changes = simulateSession(4, 500);
+		Path path = temporaryFolder.getRoot().toPath().resolve("session" + VarpRecording.FILE_EXTENSION);
+		try (VarpRecording.Writer writer = VarpRecording.write(path, LEAGUE))
+		{
+			for (VarpChange change : changes)
+			{
+				writer.write(change);
+			}
+		}
+
+		log.info("{} varp changes recorded in {} bytes", changes.size(), Files.size(path));
+		try (VarpRecording.Reader reader = VarpRecording.read(path))
+		{
+			assertEquals(LEAGUE, reader.getTaskJsonName());
+		}
+		assertEquals(changes, VarpRecording.readAll(path));
+	}
+
+	@Test
+	public void unclosedRecordingKeepsFlushedChanges() throws Exception
+	{
+		List<VarpChange> changes = simulateSession(5, 50);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		VarpRecording.Writer writer = new VarpRecording.Writer(out, LEAGUE);
+		for (VarpChange change : changes)
+		{
+			writer.write(change);
+		}
+		writer.flush();
+
+		List<VarpChange> read = new ArrayList<>();
+		try (VarpRecording.Reader reader = new VarpRecording.Reader(new ByteArrayInputStream(out.toByteArray())))
+		{
+			VarpChange change;
+			while ((change = reader.next()) != null)
+			{
+				read.add(change);
+			}
+		}
+		assertEquals(changes, read);
+	}
+
+	@Test
+	public void replayMatchesRecordedVarps() throws Exception
+	{
+		List<VarpChange> changes = simulateSession(6, 2_000);
+		Path path = temporaryFolder.getRoot().toPath().resolve("replay" + VarpRecording.FILE_EXTENSION);
+		try (VarpRecording.Writer writer = VarpRecording.write(path, LEAGUE))
+		{
+			for (VarpChange change : changes)
+			{
+				writer.write(change);
+			}
+		}
+
+		// Expected varp values are replayed from the recording, independently of the fake client
+		List<VarpChange> recorded = VarpRecording.readAll(path);
+		TaskService taskService = harness.getInstance(TaskService.class);
+		List<Integer> taskVarps = harness.getUniverse().getTaskTypeDefinition(LEAGUE).getTaskVarps();
+		Map<Integer, Integer> expectedVarps = new HashMap<>();
+		int[] nextChange = {0};
+		int[] checkedTicks = {0};
+		VarpReplayDriver.ReplayResult result = new VarpReplayDriver(harness).replay(recorded, tick -> {
+			while (nextChange[0] < recorded.size() && recorded.get(nextChange[0]).getTick() <= tick)
+			{
+				VarpChange change = recorded.get(nextChange[0]++);
+				expectedVarps.put(change.getVarpId(), change.getValue());
+			}
+			for (TaskFromStruct task : taskService.getTasks())
+			{
+				int taskId = task.getIntParam("id");
+				int varpValue = expectedVarps.getOrDefault(taskVarps.get(taskId / 32), 0);
+				assertEquals("task " + taskId + " at tick " + tick, (varpValue & (1 << (taskId % 32))) != 0, task.isCompleted());
+			}
+			checkedTicks[0]++;
+		});
+		log.info("replayed {} changes over {} ticks ({} varp updates) in {}ms", result.getChangeCount(), result.getTickCount(),
+			result.getVarpUpdateCount(), result.getElapsedNanos() / 1_000_000);
+
+		assertEquals(changes.size(), result.getChangeCount());
+		assertEquals(result.getTickCount(), checkedTicks[0]);
+		assertEquals(0, harness.getFakeClient().getOffThreadCallCount().get());
+	}
+
+	/**
+	 * A session of task completions a few ticks apart, with the occasional varp rewritten unchanged
+	 * as happens on login.
+	 */
+	private List<VarpChange> simulateSession(long seed, int completions)
+	{
+		Random random = new Random(seed);
+		List<Integer> taskVarps = harness.getUniverse().getTaskTypeDefinition(LEAGUE).getTaskVarps();
+		int[] values = new int[taskVarps.size()];
+		List<VarpChange> changes = new ArrayList<>();
+		int tick = 1_000 + random.nextInt(1_000);
+		for (int i = 0; i < completions; i++)
+		{
+			tick += random.nextInt(50);
+			int taskId = random.nextInt(LEAGUE_TASKS);
+			int varpIndex = taskId / 32;
+			values[varpIndex] |= 1 << (taskId % 32);
+			changes.add(new VarpChange(tick, taskVarps.get(varpIndex), values[varpIndex]));
+			if (random.nextInt(20) == 0)
+			{
+				int other = random.nextInt(values.length);
+				changes.add(new VarpChange(tick, taskVarps.get(other), values[other]));
+			}
+		}
+		return changes;
+	}
+}
@@ -0,0 +1,167 @@
+package net.reldo.taskstracker.harness;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+import net.runelite.api.Client;
+import net.runelite.api.EnumComposition;
+import net.runelite.api.GameState;
+import net.runelite.api.StructComposition;
+
+/**
+ * Client serving the structs and enums of a {@link TaskUniverse} and varp values set by the test.
+ * Only the client methods the plugin uses are implemented, everything else returns a default value.
+ */
+public class FakeClient implements InvocationHandler
+{
+	private final TaskUniverse universe;
+	private final FakeClientThread clientThread;
+	private final Map<Integer, Integer> varps = new ConcurrentHashMap<>();
+
+	@Getter private final Client client;
+	@Getter private final AtomicLong offThreadCallCount = new AtomicLong();
+	@Getter private volatile GameState gameState = GameState.LOGGED_IN;
+
+	public FakeClient(TaskUniverse universe, FakeClientThread clientThread)
+	{
+		this.universe = universe;
+		this.clientThread = clientThread;
+		this.client = (Client) Proxy.newProxyInstance(Client.class.getClassLoader(), new Class<?>[]{Client.class}, this);
+	}
+
+	public int getVarp(int varpId)
+	{
+		return varps.getOrDefault(varpId, 0);
+	}
+
+	public void setVarp(int varpId, int value)
+	{
+		varps.put(varpId, value);
+	}
+
+	/**
+	 * Set the completion bit of a task in its task varp, as the game does on completion.
+	 */
+	public int setTaskCompleted(String taskJsonName, int taskId, boolean completed)
+	{
+		int varpId = universe.getTaskTypeDefinition(taskJsonName).getTaskVarps().get(taskId / 32);
+		int bit = 1 << (taskId % 32);
+		varps.compute(varpId, (id, value) -> {
+			int current = value == null ? 0 : value;
+			return completed ? current | bit : current & ~bit;
+		});
+		return varpId;
+	}
+
+	public void setGameState(GameState gameState)
+	{
+		this.gameState = gameState;
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args)
+	{
+		switch (method.getName())
+		{
+			case "isClientThread":
+				return clientThread.isClientThread();
+			case "getGameState":
+				return gameState;
+			case "getAccountHash":
+				return 1L;
+			case "getVarpValue":
+				checkClientThread(method);
+				return getVarp((int) args[0]);
+			case "getStructComposition":
+				checkClientThread(method);
+				return fakeStruct((int) args[0]);
+			case "getEnum":
+				checkClientThread(method);
+				return fakeEnum((int) args[0]);
+			case "getIntStack":
+				return new int[1];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "equals":
+				return proxy == args[0];
+			case "toString":
+				return "FakeClient";
+		}
+		return defaultValue(method);
+	}
+
+	private void checkClientThread(Method method)
+	{
+		if (!clientThread.isClientThread())
+		{
+			offThreadCallCount.incrementAndGet();
+		}
+	}
+
+	private StructComposition fakeStruct(int structId)
+	{
+		Map<Integer, Object> params = universe.getStructParams().get(structId);
+		if (params == null)
+		{
+			throw new IllegalArgumentException("unknown struct " + structId);
+		}
+		return (StructComposition) Proxy.newProxyInstance(StructComposition.class.getClassLoader(), new Class<?>[]{StructComposition.class}, (proxy, method, args) -> {
+			switch (method.getName())
+			{
+				case "getId":
+					return structId;
+				case "getIntValue":
+					Object intValue = params.get((int) args[0]);
+					return intValue instanceof Integer ? intValue : 0;
+				case "getStringValue":
+					Object stringValue = params.get((int) args[0]);
+					return stringValue instanceof String ? stringValue : "";
+			}
+			return defaultValue(method);
+		});
+	}
+
+	private EnumComposition fakeEnum(int enumId)
+	{
+		Map<Integer, Object> values = universe.getEnums().get(enumId);
+		if (values == null)
+		{
+			throw new IllegalArgumentException("unknown enum " + enumId);
+		}
+		return (EnumComposition) Proxy.newProxyInstance(EnumComposition.class.getClassLoader(), new Class<?>[]{EnumComposition.class}, (proxy, method, args) -> {
+			switch (method.getName())
+			{
+				case "size":
+					return values.size();
+				case "getKeys":
+					return values.keySet().stream().mapToInt(Integer::intValue).toArray();
+				case "getIntValue":
+					Object intValue = values.get((int) args[0]);
+					return intValue instanceof Integer ? intValue : 0;
+				case "getStringValue":
+					Object stringValue = values.get((int) args[0]);
+					return stringValue instanceof String ? stringValue : "";
+			}
+			return defaultValue(method);
+		});
+	}
+
+	static Object defaultValue(Method method)
+	{
+		Class<?> type = method.getReturnType();
+		if (type.isPrimitive() && type != void.class)
+		{
+			return Array.get(Array.newInstance(type, 1), 0);
+		}
+		if (type.isArray())
+		{
+			return Array.newInstance(type.getComponentType(), 0);
+		}
+		return null;
+	}
+}
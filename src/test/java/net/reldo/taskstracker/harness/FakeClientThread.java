@@ -0,0 +1,127 @@
+package net.reldo.taskstracker.harness;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.callback.ClientThread;
+
+/**
+ * Client thread backed by a dedicated thread ticking at a fixed rate.
+ * Like the real client thread, work returning false is retried on the next tick.
+ */
+@Slf4j
+public class FakeClientThread extends ClientThread
+{
+	private final Queue<BooleanSupplier> invokes = new ConcurrentLinkedQueue<>();
+	private final ScheduledExecutorService executor;
+	private volatile Thread thread;
+
+	@Getter private final AtomicLong tickCount = new AtomicLong();
+	@Getter private final AtomicLong errorCount = new AtomicLong();
+
+	public FakeClientThread()
+	{
+		executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread clientThread = new Thread(runnable, "fake-client-thread");
+			clientThread.setDaemon(true);
+			thread = clientThread;
+			return clientThread;
+		});
+	}
+
+	public void start(long tickMillis)
+	{
+		executor.scheduleAtFixedRate(this::tick, 0, tickMillis, TimeUnit.MILLISECONDS);
+	}
+
+	public void shutDown()
+	{
+		executor.shutdownNow();
+	}
+
+	public boolean isClientThread()
+	{
+		return Thread.currentThread() == thread;
+	}
+
+	public int getPendingCount()
+	{
+		return invokes.size();
+	}
+
+	@Override
+	public void invoke(Runnable runnable)
+	{
+		invoke(() -> {
+			runnable.run();
+			return true;
+		});
+	}
+
+	@Override
+	public void invoke(BooleanSupplier supplier)
+	{
+		if (isClientThread())
+		{
+			if (!run(supplier))
+			{
+				invokes.add(supplier);
+			}
+			return;
+		}
+		invokeLater(supplier);
+	}
+
+	@Override
+	public void invokeLater(Runnable runnable)
+	{
+		invokeLater(() -> {
+			runnable.run();
+			return true;
+		});
+	}
+
+	@Override
+	public void invokeLater(BooleanSupplier supplier)
+	{
+		invokes.add(supplier);
+	}
+
+	private void tick()
+	{
+		tickCount.incrementAndGet();
+		// Only run what was queued before this tick, work queued during it runs on the next one
+		for (int pending = invokes.size(); pending > 0; pending--)
+		{
+			BooleanSupplier supplier = invokes.poll();
+			if (supplier == null)
+			{
+				break;
+			}
+			if (!run(supplier))
+			{
+				invokes.add(supplier);
+			}
+		}
+	}
+
+	private boolean run(BooleanSupplier supplier)
+	{
+		try
+		{
+			return supplier.getAsBoolean();
+		}
+		catch (Throwable ex)
+		{
+			errorCount.incrementAndGet();
+			log.error("Exception in fake client thread", ex);
+			return true;
+		}
+	}
+}
@@ -0,0 +1,23 @@
+package net.reldo.taskstracker.harness;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+import net.runelite.client.game.SpriteManager;
+
+/**
+ * Sprite manager serving a blank image for every sprite.
+ */
+public class FakeSpriteManager extends SpriteManager
+{
+	private final BufferedImage sprite = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+
+	@Getter private final AtomicLong requestCount = new AtomicLong();
+
+	@Override
+	public BufferedImage getSprite(int archive, int file)
+	{
+		requestCount.incrementAndGet();
+		return sprite;
+	}
+}
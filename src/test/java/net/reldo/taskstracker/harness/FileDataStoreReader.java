@@ -0,0 +1,43 @@
+package net.reldo.taskstracker.harness;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import net.reldo.taskstracker.data.jsondatastore.reader.DataStoreReader;
+
+/**
+ * Reads a task-json-store laid out on disk, e.g. one written by {@link TaskUniverse#writeTo(Path)}.
+ */
+public class FileDataStoreReader implements DataStoreReader
+{
+	private final Path directory;
+
+	public FileDataStoreReader(Path directory)
+	{
+		this.directory = directory;
+	}
+
+	@Override
+	public InputStream readManifestData() throws Exception
+	{
+		return Files.newInputStream(directory.resolve(TaskUniverse.MANIFEST_FILENAME));
+	}
+
+	@Override
+	public InputStream readTaskTypes(String taskTypeFilename) throws Exception
+	{
+		return Files.newInputStream(directory.resolve(taskTypeFilename));
+	}
+
+	@Override
+	public InputStream readTasks(String jsonFilename) throws Exception
+	{
+		return Files.newInputStream(directory.resolve(TaskUniverse.getTasksFilename(jsonFilename)));
+	}
+
+	@Override
+	public InputStream readFilterConfigs(String filterFilename) throws Exception
+	{
+		return Files.newInputStream(directory.resolve(filterFilename));
+	}
+}
@@ -0,0 +1,37 @@
+package net.reldo.taskstracker.harness;
+
+import java.util.Arrays;
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Shape of a generated task type: how many tasks, how many distinct values each filterable param has,
+ * and how often tasks have skill requirements, metadata and wiki notes.
+ */
+@Value
+@Builder
+public class TaskTypeSpec
+{
+	String taskJsonName;
+	@Builder.Default int taskCount = 500;
+	@Builder.Default int tierCount = 6;
+	@Builder.Default int areaCount = 12;
+	@Builder.Default int categoryCount = 8;
+	// Fraction of tasks with at least one skill requirement, and the most requirements a task can have
+	@Builder.Default double skillRequirementRate = 0.4;
+	@Builder.Default int maxSkillRequirements = 3;
+	@Builder.Default int maxSkillLevel = 99;
+	@Builder.Default List<String> metadataKeys = Arrays.asList("notes", "category");
+	@Builder.Default double metadataRate = 0.5;
+	@Builder.Default double wikiNotesRate = 0.3;
+	@Builder.Default int pointsPerTier = 10;
+
+	public static TaskTypeSpec of(String taskJsonName, int taskCount)
+	{
+		return TaskTypeSpec.builder()
+			.taskJsonName(taskJsonName)
+			.taskCount(taskCount)
+			.build();
+	}
+}
@@ -0,0 +1,344 @@
+package net.reldo.taskstracker.harness;
+
+import com.google.gson.Gson;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import lombok.Getter;
+import net.reldo.taskstracker.data.jsondatastore.reader.DataStoreReader;
+import net.reldo.taskstracker.data.jsondatastore.types.FilterConfig;
+import net.reldo.taskstracker.data.jsondatastore.types.FilterCustomItem;
+import net.reldo.taskstracker.data.jsondatastore.types.FilterType;
+import net.reldo.taskstracker.data.jsondatastore.types.FilterValueType;
+import net.reldo.taskstracker.data.jsondatastore.types.Manifest;
+import net.reldo.taskstracker.data.jsondatastore.types.TaskDefinition;
+import net.reldo.taskstracker.data.jsondatastore.types.TaskDefinitionSkill;
+import net.reldo.taskstracker.data.jsondatastore.types.TaskTypeDefinition;
+import net.runelite.api.Skill;
+
+/**
+ * Generated task types, tasks and filters in the task-json-store format, with the struct params and enums
+ * a fake client serves for them. Generation is deterministic for a seed.
+ */
+public class TaskUniverse
+{
+	public static final int ID_PARAM = 1;
+	public static final int TIER_PARAM = 2;
+	public static final int SKILL_PARAM = 3;
+	public static final int AREA_PARAM = 4;
+	public static final int CATEGORY_PARAM = 5;
+	public static final int NAME_PARAM = 10;
+	public static final int DESCRIPTION_PARAM = 11;
+
+	static final String MANIFEST_FILENAME = "manifest.json";
+	private static final String TASK_TYPES_FILENAME = "task-types.json";
+	private static final String FILTERS_FILENAME = "filters.json";
+	private static final String AREA_NAMES_ENUM = "areaNames";
+	private static final int TIER_SPRITE_OFFSET = 3_000;
+	private static final int CATEGORY_SPRITE_OFFSET = 3_100;
+	private static final List<String> SKILL_NAMES = Arrays.stream(Skill.values())
+		.map(Skill::getName)
+		.filter(name -> !name.equalsIgnoreCase("Overall"))
+		.collect(Collectors.toList());
+
+	private final Gson gson = new Gson();
+	private final Random random;
+	private int nextStructId = 10_000;
+	private int nextVarpId = 2_000;
+	private int nextEnumId = 5_000;
+
+	@Getter private final Map<String, TaskTypeDefinition> taskTypeDefinitions = new LinkedHashMap<>();
+	@Getter private final Map<String, List<TaskDefinition>> taskDefinitions = new HashMap<>();
+	@Getter private final List<FilterConfig> globalFilters = new ArrayList<>();
+	@Getter private final Map<Integer, Map<Integer, Object>> structParams = new HashMap<>();
+	@Getter private final Map<Integer, Map<Integer, Object>> enums = new HashMap<>();
+
+	public TaskUniverse(long seed)
+	{
+		random = new Random(seed);
+
+		ArrayList<FilterCustomItem> skillItems = new ArrayList<>();
+		skillItems.add(customItem(0, "No skill", null));
+		for (int skill = 0; skill < SKILL_NAMES.size(); skill++)
+		{
+			skillItems.add(customItem(skill + 1, SKILL_NAMES.get(skill), null));
+		}
+		globalFilters.add(new FilterConfig("skill", "Skill", FilterType.BUTTON_FILTER, FilterValueType.PARAM_INTEGER, "skill", null, skillItems));
+	}
+
+	public TaskUniverse addTaskType(String taskJsonName, int taskCount)
+	{
+		return addTaskType(TaskTypeSpec.of(taskJsonName, taskCount));
+	}
+
+	public TaskUniverse addTaskType(TaskTypeSpec spec)
+	{
+		String taskJsonName = spec.getTaskJsonName();
+		TaskTypeDefinition definition = new TaskTypeDefinition();
+		definition.setName(taskJsonName);
+		definition.setDescription("Generated " + taskJsonName);
+		definition.setEnabled(true);
+		definition.setTaskJsonName(taskJsonName);
+
+		HashMap<String, Integer> intParamMap = new HashMap<>();
+		intParamMap.put("id", ID_PARAM);
+		intParamMap.put("tier", TIER_PARAM);
+		intParamMap.put("skill", SKILL_PARAM);
+		intParamMap.put("area", AREA_PARAM);
+		intParamMap.put("category", CATEGORY_PARAM);
+		definition.setIntParamMap(intParamMap);
+		HashMap<String, Integer> stringParamMap = new HashMap<>();
+		stringParamMap.put("name", NAME_PARAM);
+		stringParamMap.put("description", DESCRIPTION_PARAM);
+		definition.setStringParamMap(stringParamMap);
+
+		int tierPointsEnumId = nextEnumId++;
+		Map<Integer, Object> tierPoints = new LinkedHashMap<>();
+		HashMap<String, Integer> tierSpriteIdMap = new HashMap<>();
+		ArrayList<FilterCustomItem> tierItems = new ArrayList<>();
+		for (int tier = 1; tier <= spec.getTierCount(); tier++)
+		{
+			tierPoints.put(tier, tier * spec.getPointsPerTier());
+			tierSpriteIdMap.put(String.valueOf(tier), TIER_SPRITE_OFFSET + tier);
+			tierItems.add(customItem(tier, "Tier " + tier, TIER_SPRITE_OFFSET + tier));
+		}
+		enums.put(tierPointsEnumId, tierPoints);
+		HashMap<String, Integer> intEnumMap = new HashMap<>();
+		intEnumMap.put("tierPoints", tierPointsEnumId);
+		definition.setIntEnumMap(intEnumMap);
+		definition.setTierSpriteIdMap(tierSpriteIdMap);
+
+		int areaNamesEnumId = nextEnumId++;
+		Map<Integer, Object> areaNames = new LinkedHashMap<>();
+		for (int area = 0; area < spec.getAreaCount(); area++)
+		{
+			areaNames.put(area, "Area " + area);
+		}
+		enums.put(areaNamesEnumId, areaNames);
+		HashMap<String, Integer> stringEnumMap = new HashMap<>();
+		stringEnumMap.put(AREA_NAMES_ENUM, areaNamesEnumId);
+		definition.setStringEnumMap(stringEnumMap);
+
+		ArrayList<FilterCustomItem> categoryItems = new ArrayList<>();
+		for (int category = 0; category < spec.getCategoryCount(); category++)
+		{
+			categoryItems.add(customItem(category, "Category " + category, CATEGORY_SPRITE_OFFSET + category));
+		}
+		ArrayList<FilterConfig> filters = new ArrayList<>();
+		filters.add(new FilterConfig("tier", "Tier", FilterType.BUTTON_FILTER, FilterValueType.PARAM_INTEGER, "tier", null, tierItems));
+		filters.add(new FilterConfig("skill", null, null, FilterValueType.GLOBAL, null, null, null));
+		filters.add(new FilterConfig("category", "Category", FilterType.BUTTON_FILTER, FilterValueType.PARAM_INTEGER, "category", null, categoryItems));
+		filters.add(new FilterConfig("area", "Area", FilterType.DROPDOWN_FILTER, FilterValueType.PARAM_INTEGER, "area", AREA_NAMES_ENUM, null));
+		definition.setFilters(filters);
+
+		ArrayList<Integer> taskVarps = new ArrayList<>();
+		for (int varp = 0; varp < (spec.getTaskCount() + 31) / 32; varp++)
+		{
+			taskVarps.add(nextVarpId++);
+		}
+		definition.setTaskVarps(taskVarps);
+		definition.setOtherVarps(new int[0]);
+		definition.setVarbits(new int[0]);
+
+		List<TaskDefinition> tasks = new ArrayList<>();
+		for (int taskId = 0; taskId < spec.getTaskCount(); taskId++)
+		{
+			int structId = nextStructId++;
+			List<TaskDefinitionSkill> skills = generateSkills(spec);
+			tasks.add(generateTask(spec, structId, taskId, skills));
+
+			Map<Integer, Object> params = new HashMap<>();
+			params.put(ID_PARAM, taskId);
+			params.put(TIER_PARAM, 1 + random.nextInt(spec.getTierCount()));
+			params.put(SKILL_PARAM, skills.isEmpty() ? 0 : getSkillIndex(skills.get(0).getSkill()) + 1);
+			params.put(AREA_PARAM, random.nextInt(spec.getAreaCount()));
+			params.put(CATEGORY_PARAM, random.nextInt(spec.getCategoryCount()));
+			params.put(NAME_PARAM, taskJsonName + " task " + taskId);
+			params.put(DESCRIPTION_PARAM, "Complete generated task " + taskId);
+			structParams.put(structId, params);
+		}
+
+		taskTypeDefinitions.put(taskJsonName, definition);
+		taskDefinitions.put(taskJsonName, tasks);
+		return this;
+	}
+
+	public TaskTypeDefinition getTaskTypeDefinition(String taskJsonName)
+	{
+		return taskTypeDefinitions.get(taskJsonName);
+	}
+
+	/**
+	 * A data store serving the universe as the json the task-json-store would.
+	 */
+	public DataStoreReader getDataStoreReader()
+	{
+		return new DataStoreReader()
+		{
+			@Override
+			public InputStream readManifestData()
+			{
+				return toJsonStream(getManifest());
+			}
+
+			@Override
+			public InputStream readTaskTypes(String taskTypeFilename)
+			{
+				return toJsonStream(taskTypeDefinitions.values());
+			}
+
+			@Override
+			public InputStream readTasks(String jsonFilename) throws Exception
+			{
+				List<TaskDefinition> tasks = taskDefinitions.get(jsonFilename);
+				if (tasks == null)
+				{
+					throw new Exception("unknown task type " + jsonFilename);
+				}
+				return toJsonStream(tasks);
+			}
+
+			@Override
+			public InputStream readFilterConfigs(String filterFilename)
+			{
+				return toJsonStream(globalFilters);
+			}
+		};
+	}
+
+	/**
+	 * Write the universe as a task-json-store directory, readable with {@link FileDataStoreReader}.
+	 */
+	public void writeTo(Path directory) throws IOException
+	{
+		Files.createDirectories(directory.resolve("tasks"));
+		writeJson(directory.resolve(MANIFEST_FILENAME), getManifest());
+		writeJson(directory.resolve(TASK_TYPES_FILENAME), taskTypeDefinitions.values());
+		writeJson(directory.resolve(FILTERS_FILENAME), globalFilters);
+		for (Map.Entry<String, List<TaskDefinition>> tasks : taskDefinitions.entrySet())
+		{
+			writeJson(directory.resolve(getTasksFilename(tasks.getKey())), tasks.getValue());
+		}
+	}
+
+	/**
+	 * Generate a universe into a directory, e.g. to serve it as a local task-json-store.
+	 * Arguments are the output directory followed by pairs of task type name and task count.
+	 */
+	public static void main(String[] args) throws IOException
+	{
+		if (args.length < 3 || args.length % 2 == 0)
+		{
+			System.err.println("usage: TaskUniverse <output directory> <task type> <task count> [<task type> <task count>...]");
+			return;
+		}
+		TaskUniverse universe = new TaskUniverse(System.currentTimeMillis());
+		for (int i = 1; i < args.length; i += 2)
+		{
+			universe.addTaskType(args[i], Integer.parseInt(args[i + 1]));
+		}
+		universe.writeTo(Path.of(args[0]));
+	}
+
+	static String getTasksFilename(String taskJsonName)
+	{
+		return "tasks/" + taskJsonName + ".min.json";
+	}
+
+	private TaskDefinition generateTask(TaskTypeSpec spec, int structId, int taskId, List<TaskDefinitionSkill> skills)
+	{
+		TaskDefinition task = new TaskDefinition();
+		task.setStructId(structId);
+		task.setSortId(taskId);
+		task.setCompletionPercent(random.nextFloat() * 100);
+		task.setSkills(skills.isEmpty() ? null : skills);
+		if (random.nextDouble() < spec.getWikiNotesRate())
+		{
+			task.setWikiNotes("Generated wiki notes for task " + taskId);
+		}
+		if (!spec.getMetadataKeys().isEmpty() && random.nextDouble() < spec.getMetadataRate())
+		{
+			Map<String, Object> metadata = new HashMap<>();
+			for (String key : spec.getMetadataKeys())
+			{
+				if (random.nextBoolean())
+				{
+					metadata.put(key, key + " " + random.nextInt(10));
+				}
+			}
+			task.setMetadata(metadata);
+		}
+		return task;
+	}
+
+	private List<TaskDefinitionSkill> generateSkills(TaskTypeSpec spec)
+	{
+		if (random.nextDouble() >= spec.getSkillRequirementRate())
+		{
+			return Collections.emptyList();
+		}
+		List<String> skillNames = new ArrayList<>(SKILL_NAMES);
+		Collections.shuffle(skillNames, random);
+		int skillCount = 1 + random.nextInt(Math.max(1, spec.getMaxSkillRequirements()));
+		List<TaskDefinitionSkill> skills = new ArrayList<>();
+		for (String skillName : skillNames.subList(0, Math.min(skillCount, skillNames.size())))
+		{
+			TaskDefinitionSkill skill = new TaskDefinitionSkill();
+			skill.setSkill(skillName.toUpperCase());
+			skill.setLevel(1 + random.nextInt(spec.getMaxSkillLevel()));
+			skills.add(skill);
+		}
+		return skills;
+	}
+
+	private static int getSkillIndex(String skillName)
+	{
+		for (int skill = 0; skill < SKILL_NAMES.size(); skill++)
+		{
+			if (SKILL_NAMES.get(skill).equalsIgnoreCase(skillName))
+			{
+				return skill;
+			}
+		}
+		return -1;
+	}
+
+	private Manifest getManifest()
+	{
+		Manifest manifest = new Manifest();
+		manifest.taskTypeMetadata = TASK_TYPES_FILENAME;
+		manifest.filterMetadata = FILTERS_FILENAME;
+		return manifest;
+	}
+
+	private static FilterCustomItem customItem(int value, String tooltip, Integer spriteId)
+	{
+		FilterCustomItem item = new FilterCustomItem();
+		item.setValue(value);
+		item.setTooltip(tooltip);
+		item.setSpriteId(spriteId);
+		return item;
+	}
+
+	private InputStream toJsonStream(Object value)
+	{
+		return new ByteArrayInputStream(gson.toJson(value).getBytes(StandardCharsets.UTF_8));
+	}
+
+	private void writeJson(Path path, Object value) throws IOException
+	{
+		Files.write(path, gson.toJson(value).getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,78 @@
+package net.reldo.taskstracker.harness;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import net.reldo.taskstracker.TasksTrackerConfig;
+import net.reldo.taskstracker.data.jsondatastore.types.FilterConfig;
+import net.reldo.taskstracker.data.jsondatastore.types.FilterType;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.task.TaskService;
+import net.reldo.taskstracker.data.task.filters.TaskFilterService;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TaskUniverseTest
+{
+	private static final String GENERATED = "GENERATED";
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void generatedFilesLoadThroughTheDataStore() throws Exception
+	{
+		TaskTypeSpec spec = TaskTypeSpec.builder()
+			.taskJsonName(GENERATED)
+			.taskCount(2_000)
+			.tierCount(5)
+			.areaCount(20)
+			.skillRequirementRate(0.8)
+			.build();
+		TaskUniverse universe = new TaskUniverse(7).addTaskType(spec);
+		universe.writeTo(temporaryFolder.getRoot().toPath());
+
+		try (TasksTrackerHarness harness = new TasksTrackerHarness(universe, new FileDataStoreReader(temporaryFolder.getRoot().toPath())).start(1))
+		{
+			harness.loadTaskType(GENERATED);
+			TaskService taskService = harness.getInstance(TaskService.class);
+			List<TaskFromStruct> tasks = taskService.getTasks();
+			assertEquals(spec.getTaskCount(), tasks.size());
+
+			FilterConfig skillFilter = taskService.getCurrentTaskType().getFilters().stream()
+				.filter(filterConfig -> filterConfig.getConfigKey().equals("skill"))
+				.findFirst()
+				.orElseThrow();
+			assertEquals(FilterType.BUTTON_FILTER, skillFilter.getFilterType());
+			assertEquals("skill", skillFilter.getValueName());
+
+			for (TaskFromStruct task : tasks)
+			{
+				assertEquals(task.getTier() * spec.getPointsPerTier(), task.getPoints());
+				if (task.getTaskDefinition().getSkills() != null)
+				{
+					assertTrue(task.getIntParam("skill") > 0);
+				}
+			}
+
+			select(harness, "skill", 0, 24);
+			select(harness, "category", 0, spec.getCategoryCount() - 1);
+			select(harness, "tier", 2, 2);
+			TaskFilterService taskFilterService = harness.getInstance(TaskFilterService.class);
+			long visible = tasks.stream().filter(taskFilterService::meetsFilterCriteria).count();
+			long tierTwo = tasks.stream().filter(task -> task.getTier() == 2).count();
+			assertEquals(tierTwo, visible);
+		}
+	}
+
+	private static void select(TasksTrackerHarness harness, String filterKey, int from, int to)
+	{
+		String value = IntStream.rangeClosed(from, to)
+			.mapToObj(filterValue -> "f-" + filterValue + "-f")
+			.collect(Collectors.joining(","));
+		harness.getConfiguration().put(TasksTrackerConfig.CONFIG_GROUP_NAME + "." + GENERATED + "." + filterKey, value);
+	}
+}
@@ -0,0 +1,184 @@
+package net.reldo.taskstracker.harness;
+
+import com.google.gson.Gson;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.google.inject.util.Modules;
+import com.google.inject.util.Providers;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+import net.reldo.taskstracker.TasksTrackerConfig;
+import net.reldo.taskstracker.data.jsondatastore.reader.DataStoreReader;
+import net.reldo.taskstracker.data.task.TaskService;
+import net.runelite.api.Client;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.config.ConfigManager;
+import net.runelite.client.config.RuneScapeProfile;
+import net.runelite.client.game.SpriteManager;
+import okhttp3.OkHttpClient;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Wires the plugin services to a fake client, client thread and sprite manager serving a {@link TaskUniverse},
+ * so task loading and completion detection can run headless.
+ */
+public class TasksTrackerHarness implements AutoCloseable
+{
+	public static final String RS_PROFILE_KEY = "rsprofile.harness";
+	private static final long TIMEOUT_SECONDS = 60;
+
+	@Getter private final TaskUniverse universe;
+	@Getter private final FakeClientThread clientThread = new FakeClientThread();
+	@Getter private final FakeClient fakeClient;
+	@Getter private final FakeSpriteManager spriteManager = new FakeSpriteManager();
+	@Getter private final Map<String, String> configuration = new ConcurrentHashMap<>();
+	@Getter private final Map<String, Object> configOverrides = new ConcurrentHashMap<>();
+	// Served by the config manager's profile list
+	@Getter private final List<RuneScapeProfile> rsProfiles = new CopyOnWriteArrayList<>();
+	@Getter private final Injector injector;
+	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+
+	public TasksTrackerHarness(TaskUniverse universe)
+	{
+		this(universe, universe.getDataStoreReader());
+	}
+
+	/**
+	 * @param dataStoreReader source of the task json, e.g. the universe written to disk
+	 */
+	public TasksTrackerHarness(TaskUniverse universe, DataStoreReader dataStoreReader)
+	{
+		this(universe, dataStoreReader, Modules.EMPTY_MODULE);
+	}
+
+	/**
+	 * @param overrides bindings replacing the harness's own, e.g. a mock of a service writing files
+	 */
+	public TasksTrackerHarness(TaskUniverse universe, Module overrides)
+	{
+		this(universe, universe.getDataStoreReader(), overrides);
+	}
+
+	private TasksTrackerHarness(TaskUniverse universe, DataStoreReader dataStoreReader, Module overrides)
+	{
+		this.universe = universe;
+		fakeClient = new FakeClient(universe, clientThread);
+		TasksTrackerConfig config = fakeConfig();
+		ConfigManager configManager = fakeConfigManager();
+
+		injector = Guice.createInjector(Modules.override(binder -> {
+			binder.bind(Client.class).toInstance(fakeClient.getClient());
+			binder.bind(ClientThread.class).toProvider(Providers.of(clientThread));
+			binder.bind(SpriteManager.class).toProvider(Providers.of(spriteManager));
+			binder.bind(ConfigManager.class).toProvider(Providers.of(configManager));
+			binder.bind(TasksTrackerConfig.class).toInstance(config);
+			binder.bind(DataStoreReader.class).toInstance(dataStoreReader);
+			binder.bind(ScheduledExecutorService.class).toInstance(executor);
+			binder.bind(Gson.class).toInstance(new Gson());
+			binder.bind(OkHttpClient.class).toInstance(new OkHttpClient());
+		}).with(overrides));
+	}
+
+	/**
+	 * Start ticking the fake client thread.
+	 */
+	public TasksTrackerHarness start(long tickMillis)
+	{
+		clientThread.start(tickMillis);
+		return this;
+	}
+
+	public <T> T getInstance(Class<T> type)
+	{
+		return injector.getInstance(type);
+	}
+
+	/**
+	 * Load a task type and wait for its structs to be read on the client thread.
+	 */
+	public void loadTaskType(String taskJsonName) throws Exception
+	{
+		boolean isLoaded = getInstance(TaskService.class).setTaskType(taskJsonName).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		if (!isLoaded)
+		{
+			throw new IllegalStateException("task type " + taskJsonName + " was not loaded");
+		}
+	}
+
+	@Override
+	public void close()
+	{
+		clientThread.shutDown();
+		executor.shutdownNow();
+	}
+
+	private TasksTrackerConfig fakeConfig()
+	{
+		return (TasksTrackerConfig) Proxy.newProxyInstance(TasksTrackerConfig.class.getClassLoader(), new Class<?>[]{TasksTrackerConfig.class}, (proxy, method, args) -> {
+			Object override = configOverrides.get(method.getName());
+			if (override != null)
+			{
+				return override;
+			}
+			if (method.isDefault())
+			{
+				return MethodHandles.privateLookupIn(TasksTrackerConfig.class, MethodHandles.lookup())
+					.unreflectSpecial(method, TasksTrackerConfig.class)
+					.bindTo(proxy)
+					.invokeWithArguments(args == null ? new Object[0] : args);
+			}
+			return FakeClient.defaultValue(method);
+		});
+	}
+
+	private ConfigManager fakeConfigManager()
+	{
+		return mock(ConfigManager.class, invocation -> {
+			Object[] args = invocation.getArguments();
+			switch (invocation.getMethod().getName())
+			{
+				case "getRSProfileKey":
+					return RS_PROFILE_KEY;
+				case "getRSProfiles":
+					return new ArrayList<>(rsProfiles);
+				case "getConfiguration":
+					if (args.length == 2 || (args.length == 3 && args[2] instanceof String))
+					{
+						return configuration.get(getKey(args, args.length));
+					}
+					break;
+				case "setConfiguration":
+					configuration.put(getKey(args, args.length - 1), String.valueOf(args[args.length - 1]));
+					return null;
+				case "unsetConfiguration":
+					configuration.remove(getKey(args, args.length));
+					return null;
+			}
+			return FakeClient.defaultValue(invocation.getMethod());
+		});
+	}
+
+	private static String getKey(Object[] args, int keyParts)
+	{
+		StringBuilder key = new StringBuilder();
+		for (int i = 0; i < keyParts; i++)
+		{
+			if (i > 0)
+			{
+				key.append('.');
+			}
+			key.append(args[i]);
+		}
+		return key.toString();
+	}
+}
@@ -0,0 +1,83 @@
+package net.reldo.taskstracker.harness;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import lombok.Value;
+import net.reldo.taskstracker.data.task.TaskCompletionService;
+import net.reldo.taskstracker.data.task.TaskFromStruct;
+import net.reldo.taskstracker.data.varp.VarpChange;
+
+/**
+ * Feeds a recorded stream of varp changes through the completion pipeline of a harness, one game tick at a time.
+ * Changes of one tick are applied to the fake client together, then each changed varp is processed once, as the
+ * plugin does when it flushes its pending varp updates. The next tick is only applied once those updates finished,
+ * so every tick is processed against its own varp state.
+ */
+public class VarpReplayDriver
+{
+	private static final long TIMEOUT_SECONDS = 60;
+
+	private final TasksTrackerHarness harness;
+
+	public VarpReplayDriver(TasksTrackerHarness harness)
+	{
+		this.harness = harness;
+	}
+
+	public ReplayResult replay(List<VarpChange> changes) throws Exception
+	{
+		return replay(changes, tick -> {});
+	}
+
+	/**
+	 * @param afterTick called with each replayed tick once its varp updates finished
+	 */
+	public ReplayResult replay(List<VarpChange> changes, IntConsumer afterTick) throws Exception
+	{
+		TaskCompletionService taskCompletionService = harness.getInstance(TaskCompletionService.class);
+		List<CompletableFuture<List<TaskFromStruct>>> futures = new ArrayList<>();
+		Set<Integer> tickVarpIds = new LinkedHashSet<>();
+		int ticks = 0;
+		int varpUpdates = 0;
+
+		long start = System.nanoTime();
+		for (int i = 0; i < changes.size(); i++)
+		{
+			VarpChange change = changes.get(i);
+			harness.getFakeClient().setVarp(change.getVarpId(), change.getValue());
+			tickVarpIds.add(change.getVarpId());
+
+			boolean isLastOfTick = i == changes.size() - 1 || changes.get(i + 1).getTick() != change.getTick();
+			if (isLastOfTick)
+			{
+				for (int varpId : tickVarpIds)
+				{
+					futures.add(taskCompletionService.processVarp(varpId));
+				}
+				CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+				futures.clear();
+				afterTick.accept(change.getTick());
+				varpUpdates += tickVarpIds.size();
+				tickVarpIds.clear();
+				ticks++;
+			}
+		}
+		long elapsedNanos = System.nanoTime() - start;
+
+		return new ReplayResult(changes.size(), ticks, varpUpdates, elapsedNanos);
+	}
+
+	@Value
+	public static class ReplayResult
+	{
+		int changeCount;
+		int tickCount;
+		int varpUpdateCount;
+		long elapsedNanos;
+	}
+}